@@ -0,0 +1,55 @@
+package com.minecraftcopilot.bench;
+
+import com.jme3.scene.Node;
+import com.minecraftcopilot.Chunk;
+import com.minecraftcopilot.gfx.TextureAtlas;
+import com.minecraftcopilot.world.WorldGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o mesher antigo (listas boxed) com o caminho atual de {@link Chunk#buildGeometryPair}.
+ * Rodar com {@code gradle jmh} e olhar também o perfil de GC ({@code -prof gc}) para ver alocação por chunk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkMeshBenchmark {
+
+    @Param({"1337"})
+    public int seed;
+
+    private Chunk chunk;
+    private ListChunkMesher listMesher;
+
+    @Setup
+    public void setup() {
+        if (Chunk.ATLAS == null) Chunk.ATLAS = new TextureAtlas(16, 17);
+        chunk = WorldGenerator.generate(3, -2, seed);
+        listMesher = new ListChunkMesher(chunk, 3, -2);
+    }
+
+    @Benchmark
+    public Node listPath() {
+        return listMesher.buildGeometryPair(null, null);
+    }
+
+    @Benchmark
+    public Node meshBuilderPath() {
+        return chunk.buildGeometryPair(null, null);
+    }
+}
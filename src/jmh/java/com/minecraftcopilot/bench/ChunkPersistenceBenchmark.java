@@ -0,0 +1,129 @@
+package com.minecraftcopilot.bench;
+
+import com.minecraftcopilot.BlockType;
+import com.minecraftcopilot.Chunk;
+import com.minecraftcopilot.world.RegionStore;
+import com.minecraftcopilot.world.WorldGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Gravação de chunk inteiro vs delta sobre o terreno gerado ({@link RegionStore.Mode}).
+ * O tamanho em disco sai no log do setup; os benchmarks medem salvar e carregar um chunk editado
+ * (o carregamento do delta inclui regerar o terreno, comparar com {@link #generateOnly}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkPersistenceBenchmark {
+
+    private static final int SEED = 1337;
+    private static final int CHUNKS = 64; // 8x8, todos na mesma região
+
+    /** Blocos trocados por chunk (construção pequena vs grande). */
+    @Param({"50", "2000"})
+    public int edits;
+
+    private Path fullDir, deltaDir;
+    private RegionStore full, delta;
+    private Chunk[] chunks;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        fullDir = Files.createTempDirectory("bench-full");
+        deltaDir = Files.createTempDirectory("bench-delta");
+        full = new RegionStore(fullDir, RegionStore.Mode.FULL, SEED);
+        delta = new RegionStore(deltaDir, RegionStore.Mode.DELTA, SEED);
+        Random r = new Random(42);
+        chunks = new Chunk[CHUNKS];
+        for (int i = 0; i < CHUNKS; i++) {
+            Chunk c = WorldGenerator.generate(i % 8, i / 8, SEED);
+            // Edições de jogador: blocos colocados acima do chão e buracos escavados
+            for (int e = 0; e < edits; e++) {
+                int x = r.nextInt(Chunk.SIZE), y = 20 + r.nextInt(30), z = r.nextInt(Chunk.SIZE);
+                c.set(x, y, z, r.nextInt(3) == 0 ? BlockType.AIR : BlockType.WOOD);
+            }
+            chunks[i] = c;
+            full.save(i % 8, i / 8, c);
+            delta.save(i % 8, i / 8, c);
+        }
+        long fb = dirBytes(fullDir), db = dirBytes(deltaDir);
+        System.out.printf("%nedits=%d: full %.0f B/chunk, delta %.0f B/chunk (%d chunks, com tabela da região)%n",
+                edits, fb / (double) CHUNKS, db / (double) CHUNKS, CHUNKS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        full.close();
+        delta.close();
+        for (Path d : new Path[]{fullDir, deltaDir}) {
+            try (Stream<Path> s = Files.walk(d)) {
+                s.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) % CHUNKS;
+        return next;
+    }
+
+    @Benchmark
+    public Chunk loadFull() throws IOException {
+        int i = nextIndex();
+        return full.load(i % 8, i / 8);
+    }
+
+    @Benchmark
+    public Chunk loadDelta() throws IOException {
+        int i = nextIndex();
+        return delta.load(i % 8, i / 8);
+    }
+
+    @Benchmark
+    public Chunk generateOnly() {
+        int i = nextIndex();
+        return WorldGenerator.generate(i % 8, i / 8, SEED);
+    }
+
+    @Benchmark
+    public void saveFull() throws IOException {
+        int i = nextIndex();
+        full.save(i % 8, i / 8, chunks[i]);
+    }
+
+    @Benchmark
+    public void saveDelta() throws IOException {
+        int i = nextIndex();
+        delta.save(i % 8, i / 8, chunks[i]);
+    }
+
+    private static long dirBytes(Path dir) throws IOException {
+        try (Stream<Path> s = Files.list(dir)) {
+            return s.mapToLong(p -> p.toFile().length()).sum();
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.minecraftcopilot.bench;
+
+import com.jme3.material.Material;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.util.BufferUtils;
+import com.minecraftcopilot.BlockType;
+import com.minecraftcopilot.Chunk;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cópia do mesher antigo (List&lt;Float&gt; + cópia elemento a elemento) mantida só como referência
+ * para o {@link ChunkMeshBenchmark}. Não usar no jogo.
+ */
+final class ListChunkMesher {
+    private final Chunk chunk;
+    private final int cx, cz;
+
+    ListChunkMesher(Chunk chunk, int cx, int cz) {
+        this.chunk = chunk;
+        this.cx = cx;
+        this.cz = cz;
+    }
+
+    Node buildGeometryPair(Material solidMat, Material waterMat) {
+        List<Float> posSolid = new ArrayList<>();
+        List<Float> colSolid = new ArrayList<>();
+        List<Float> uvSolid = new ArrayList<>();
+        List<Integer> idxSolid = new ArrayList<>();
+
+        List<Float> posWater = new ArrayList<>();
+        List<Float> colWater = new ArrayList<>();
+        List<Float> uvWater = new ArrayList<>();
+        List<Integer> idxWater = new ArrayList<>();
+
+        // Direções: +X, -X, +Y, -Y, +Z, -Z
+        final int[][] DIRS = {
+                {1, 0, 0}, {-1, 0, 0},
+                {0, 1, 0}, {0, -1, 0},
+                {0, 0, 1}, {0, 0, -1}
+        };
+
+        for (int y = 0; y < Chunk.HEIGHT; y++) {
+            for (int z = 0; z < Chunk.SIZE; z++) {
+                for (int x = 0; x < Chunk.SIZE; x++) {
+                    BlockType t = chunk.get(x, y, z);
+                    if (!t.isSolid()) continue;
+
+                    int meta = chunk.getMeta(x, y, z);
+                    boolean isWater = (t == BlockType.WATER);
+                    for (int f = 0; f < 6; f++) {
+                        int nx = x + DIRS[f][0];
+                        int ny = y + DIRS[f][1];
+                        int nz = z + DIRS[f][2];
+                        BlockType n = chunk.get(nx, ny, nz);
+                        if (!isWater) {
+                            // Oculta face apenas contra blocos que realmente bloqueiam (não água)
+                            if (n.isBlocking()) continue;
+                            addFaceWithMeta(posSolid, colSolid, uvSolid, idxSolid, x, y, z, f, t, meta);
+                        } else {
+                            // Água: tratamento especial para diferenças de nível entre vizinhos de água
+                            if (n == BlockType.WATER) {
+                                // Para faces laterais, renderiza apenas a parte acima do nível do vizinho
+                                if (f == 0 || f == 1 || f == 4 || f == 5) {
+                                    int nMeta = chunk.getMeta(nx, ny, nz);
+                                    float hSelf = computeWaterHeight(x, y, z, meta);
+                                    float hNei = computeWaterHeight(nx, ny, nz, nMeta);
+                                    if (hNei >= hSelf - 1e-4f) continue; // nada exposto
+                                    addWaterSideClipped(posWater, colWater, uvWater, idxWater,
+                                            x, y, z, f, t, hSelf, hNei);
+                                }
+                                // Topo/baixo continuam ocultos contra água
+                                else {
+                                    continue;
+                                }
+                            } else {
+                                // Contra não-água: face completa normal
+                                addFaceWithMeta(posWater, colWater, uvWater, idxWater, x, y, z, f, t, meta);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        // SOLID mesh
+        Mesh meshS = new Mesh();
+        FloatBuffer posBufS = BufferUtils.createFloatBuffer(posSolid.size());
+        for (Float f : posSolid) posBufS.put(f); posBufS.flip();
+        FloatBuffer colBufS = BufferUtils.createFloatBuffer(colSolid.size());
+        for (Float f : colSolid) colBufS.put(f); colBufS.flip();
+        FloatBuffer uvBufS = BufferUtils.createFloatBuffer(uvSolid.size());
+        for (Float f : uvSolid) uvBufS.put(f); uvBufS.flip();
+        IntBuffer idxBufS = BufferUtils.createIntBuffer(idxSolid.size());
+        for (Integer v : idxSolid) idxBufS.put(v); idxBufS.flip();
+        meshS.setBuffer(VertexBuffer.Type.Position, 3, posBufS);
+        meshS.setBuffer(VertexBuffer.Type.Color, 4, colBufS);
+        meshS.setBuffer(VertexBuffer.Type.TexCoord, 2, uvBufS);
+        meshS.setBuffer(VertexBuffer.Type.Index, 3, idxBufS);
+        meshS.updateBound();
+        Geometry geomS = new Geometry("chunk-solid-" + cx + "," + cz, meshS);
+        geomS.setMaterial(solidMat);
+
+        // WATER mesh
+        Mesh meshW = new Mesh();
+        FloatBuffer posBufW = BufferUtils.createFloatBuffer(posWater.size());
+        for (Float f : posWater) posBufW.put(f); posBufW.flip();
+        FloatBuffer colBufW = BufferUtils.createFloatBuffer(colWater.size());
+        for (Float f : colWater) colBufW.put(f); colBufW.flip();
+        FloatBuffer uvBufW = BufferUtils.createFloatBuffer(uvWater.size());
+        for (Float f : uvWater) uvBufW.put(f); uvBufW.flip();
+        IntBuffer idxBufW = BufferUtils.createIntBuffer(idxWater.size());
+        for (Integer v : idxWater) idxBufW.put(v); idxBufW.flip();
+        meshW.setBuffer(VertexBuffer.Type.Position, 3, posBufW);
+        meshW.setBuffer(VertexBuffer.Type.Color, 4, colBufW);
+        meshW.setBuffer(VertexBuffer.Type.TexCoord, 2, uvBufW);
+        meshW.setBuffer(VertexBuffer.Type.Index, 3, idxBufW);
+        meshW.updateBound();
+        Geometry geomW = new Geometry("chunk-water-" + cx + "," + cz, meshW);
+        geomW.setMaterial(waterMat);
+
+        Node node = new Node("chunk-" + cx + "," + cz);
+        node.attachChild(geomS);
+        node.attachChild(geomW);
+        node.setLocalTranslation(new Vector3f(cx * Chunk.SIZE, 0, cz * Chunk.SIZE));
+        return node;
+    }
+
+    private void addFaceWithMeta(List<Float> positions, List<Float> colors, List<Float> uvs, List<Integer> indices,
+                                        int x, int y, int z, int face, BlockType type, int meta) {
+        // Define vértices da face com base no eixo
+        float[][] v = new float[4][3];
+        // Altura do topo para água "reduzida" (meta 1..7). Fontes (0) e quedas (8) ficam 1.0
+        float h = 1.0f;
+        boolean isWater = (type == BlockType.WATER);
+        if (isWater) {
+            h = computeWaterHeight(x, y, z, meta);
+        }
+        switch (face) {
+            // +X
+            case 0 -> {
+                v[0] = new float[]{x + 1, y, z};
+                v[1] = new float[]{x + 1, y, z + 1};
+                v[2] = new float[]{x + 1, y + h, z + 1};
+                v[3] = new float[]{x + 1, y + h, z};
+            }
+            // -X
+            case 1 -> {
+                v[0] = new float[]{x, y, z + 1};
+                v[1] = new float[]{x, y, z};
+                v[2] = new float[]{x, y + h, z};
+                v[3] = new float[]{x, y + h, z + 1};
+            }
+            // +Y (topo)
+            case 2 -> {
+                float yt = y + (isWater ? h : 1.0f);
+                v[0] = new float[]{x, yt, z};
+                v[1] = new float[]{x + 1, yt, z};
+                v[2] = new float[]{x + 1, yt, z + 1};
+                v[3] = new float[]{x, yt, z + 1};
+            }
+            // -Y (baixo)
+            case 3 -> {
+                v[0] = new float[]{x, y, z + 1};
+                v[1] = new float[]{x + 1, y, z + 1};
+                v[2] = new float[]{x + 1, y, z};
+                v[3] = new float[]{x, y, z};
+            }
+            // +Z
+            case 4 -> {
+                v[0] = new float[]{x + 1, y, z + 1};
+                v[1] = new float[]{x, y, z + 1};
+                v[2] = new float[]{x, y + h, z + 1};
+                v[3] = new float[]{x + 1, y + h, z + 1};
+            }
+            // -Z
+            case 5 -> {
+                v[0] = new float[]{x, y, z};
+                v[1] = new float[]{x + 1, y, z};
+                v[2] = new float[]{x + 1, y + h, z};
+                v[3] = new float[]{x, y + h, z};
+            }
+        }
+
+        float shade;
+        switch (face) {
+            case 2 -> shade = 1.00f; // topo
+            case 0, 1 -> shade = 0.80f; // lados X
+            case 4, 5 -> shade = 0.90f; // lados Z
+            default -> shade = 0.70f; // baixo
+        }
+        ColorRGBA c = type.color.clone();
+        c.r *= shade; c.g *= shade; c.b *= shade;
+        // Água meio transparente
+        if (type == BlockType.WATER) {
+            c.a = 0.65f;
+        }
+
+        int base = positions.size() / 3;
+        for (int i = 0; i < 4; i++) {
+            positions.add(v[i][0]);
+            positions.add(v[i][1]);
+            positions.add(v[i][2]);
+            colors.add(c.r);
+            colors.add(c.g);
+            colors.add(c.b);
+            colors.add(c.a);
+        }
+
+        // UVs usando atlas (água usa frame animado)
+        int tileIndex = type.tileForFace(face);
+        if (type == BlockType.WATER) {
+            // base 7 + frame (0..2)
+            tileIndex = Chunk.WATER_TILE;
+        }
+        float[] uv = (Chunk.ATLAS != null) ? Chunk.ATLAS.getUV(tileIndex) : new float[]{0,0,1,1};
+        // ordem consistente com os vértices v[0..3]
+        // mapeamento retangular padrão
+        uvs.add(uv[0]); uvs.add(uv[0] == uv[1] ? uv[1] : uv[1]); // dummy avoided; set below properly
+        // Para clareza, definimos diretamente por face
+        uvs.remove(uvs.size()-1); uvs.remove(uvs.size()-1);
+        switch (face) {
+            case 0,1,4,5 -> { // faces verticais: u ao longo de X/Z, v ao longo de Y
+                // v[0],v[1],v[2],v[3]
+                uvs.add(uv[0]); uvs.add(uv[1]); // 0
+                uvs.add(uv[2]); uvs.add(uv[1]); // 1
+                uvs.add(uv[2]); uvs.add(uv[3]); // 2
+                uvs.add(uv[0]); uvs.add(uv[3]); // 3
+            }
+            case 2,3 -> { // topo/baixo: u->x, v->z
+                uvs.add(uv[0]); uvs.add(uv[1]);
+                uvs.add(uv[2]); uvs.add(uv[1]);
+                uvs.add(uv[2]); uvs.add(uv[3]);
+                uvs.add(uv[0]); uvs.add(uv[3]);
+            }
+        }
+
+        // Triângulos (CCW)
+        indices.add(base);
+        indices.add(base + 1);
+        indices.add(base + 2);
+        indices.add(base);
+        indices.add(base + 2);
+        indices.add(base + 3);
+    }
+
+    // Altura da água por nível, estilo MC: 0 (fonte) e 8 (queda) = 1.0; 1..7 = 1.0 - level*(1/8)
+    // Se estiver acima de ar/queda, considera coluna cheia (1.0)
+    private float computeWaterHeight(int x, int y, int z, int meta) {
+        if (meta <= 0 || meta == 8) return 1.0f;
+        // níveis 1..7
+        BlockType below = chunk.get(x, y - 1, z);
+        if (below == BlockType.AIR || (below == BlockType.WATER && chunk.getMeta(x, y - 1, z) == 8)) {
+            return 1.0f; // coluna/sobre queda: altura cheia
+        }
+        int level = Math.max(1, Math.min(7, meta));
+        return 1.0f - (level / 8.0f);
+    }
+
+    // Renderiza face lateral de água recortada de y+hFrom até y+hTo (mostra apenas a "parede" exposta)
+    private void addWaterSideClipped(List<Float> positions, List<Float> colors, List<Float> uvs, List<Integer> indices,
+                                     int x, int y, int z, int face, BlockType type, float hTo, float hFrom) {
+        // Segurança
+        if (hTo <= hFrom + 1e-5f) return;
+
+        float y0 = y + hFrom;
+        float y1 = y + hTo;
+
+        float[][] v = new float[4][3];
+        switch (face) {
+            case 0 -> { // +X
+                v[0] = new float[]{x + 1, y0, z};
+                v[1] = new float[]{x + 1, y0, z + 1};
+                v[2] = new float[]{x + 1, y1, z + 1};
+                v[3] = new float[]{x + 1, y1, z};
+            }
+            case 1 -> { // -X
+                v[0] = new float[]{x, y0, z + 1};
+                v[1] = new float[]{x, y0, z};
+                v[2] = new float[]{x, y1, z};
+                v[3] = new float[]{x, y1, z + 1};
+            }
+            case 4 -> { // +Z
+                v[0] = new float[]{x + 1, y0, z + 1};
+                v[1] = new float[]{x, y0, z + 1};
+                v[2] = new float[]{x, y1, z + 1};
+                v[3] = new float[]{x + 1, y1, z + 1};
+            }
+            case 5 -> { // -Z
+                v[0] = new float[]{x, y0, z};
+                v[1] = new float[]{x + 1, y0, z};
+                v[2] = new float[]{x + 1, y1, z};
+                v[3] = new float[]{x, y1, z};
+            }
+            default -> { return; }
+        }
+
+        float shade = (face == 0 || face == 1) ? 0.80f : 0.90f;
+        ColorRGBA c = type.color.clone();
+        c.r *= shade; c.g *= shade; c.b *= shade; c.a = 0.65f;
+
+        int base = positions.size() / 3;
+        for (int i = 0; i < 4; i++) {
+            positions.add(v[i][0]); positions.add(v[i][1]); positions.add(v[i][2]);
+            colors.add(c.r); colors.add(c.g); colors.add(c.b); colors.add(c.a);
+        }
+
+        int tileIndex = Chunk.WATER_TILE;
+        float[] uv = (Chunk.ATLAS != null) ? Chunk.ATLAS.getUV(tileIndex) : new float[]{0,0,1,1};
+        // Mapeamento vertical padrão
+        uvs.add(uv[0]); uvs.add(uv[1]);
+        uvs.add(uv[2]); uvs.add(uv[1]);
+        uvs.add(uv[2]); uvs.add(uv[3]);
+        uvs.add(uv[0]); uvs.add(uv[3]);
+
+        indices.add(base); indices.add(base + 1); indices.add(base + 2);
+        indices.add(base); indices.add(base + 2); indices.add(base + 3);
+    }
+}
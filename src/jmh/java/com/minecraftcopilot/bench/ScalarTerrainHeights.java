@@ -0,0 +1,46 @@
+package com.minecraftcopilot.bench;
+
+import com.minecraftcopilot.Chunk;
+import com.minecraftcopilot.Noise2D;
+
+/**
+ * Cálculo de alturas por coluna (um {@link Noise2D#fbm} por ruído, clima e warp em toda coluna) mantido só como
+ * referência para o {@link TerrainNoiseBenchmark}: dá o mesmo que
+ * {@code WorldGenerator.forSeed(seed, Resolution.FULL)}. Não usar no jogo.
+ */
+final class ScalarTerrainHeights {
+    private ScalarTerrainHeights() {}
+
+    static int[][] heights(int cx, int cz, int seed) {
+        final float baseScale = 0.06f;
+        final float warpScale = 0.02f;
+        final float warpAmp = 8.0f;
+        final float ridgeScale = 0.04f;
+        final float reliefScale = 0.004f;
+
+        int[][] heightMap = new int[Chunk.SIZE][Chunk.SIZE];
+        for (int x = 0; x < Chunk.SIZE; x++) {
+            for (int z = 0; z < Chunk.SIZE; z++) {
+                float wx = (cx * Chunk.SIZE + x);
+                float wz = (cz * Chunk.SIZE + z);
+                float warpX = (Noise2D.fbm(wx * warpScale, wz * warpScale, seed + 1337, 3, 2.0f, 0.5f) * 2f - 1f) * warpAmp;
+                float warpZ = (Noise2D.fbm(wx * warpScale + 57.0f, wz * warpScale - 91.0f, seed + 4242, 3, 2.0f, 0.5f) * 2f - 1f) * warpAmp;
+                float xw = wx + warpX;
+                float zw = wz + warpZ;
+                float baseNoise = Noise2D.fbm(xw * baseScale, zw * baseScale, seed, 4, 2.0f, 0.5f);
+                float ridgeNoise = Math.abs(2f * Noise2D.fbm(xw * ridgeScale, zw * ridgeScale, seed + 911, 3, 2.0f, 0.5f) - 1f);
+                float r = (Noise2D.fbm(wx * reliefScale, wz * reliefScale, seed + 5151, 2, 2.0f, 0.5f) - 0.5f) * 2.2f + 0.5f;
+                r = Math.max(0f, Math.min(1f, r));
+                float rel = r * r * (3f - 2f * r);
+                float baseHeight = 17f + (19f - 17f) * rel;
+                float baseAmp = 6f + (18f - 6f) * rel;
+                float ridgeAmp = 2f + (10f - 2f) * rel;
+                int h = Math.round(baseHeight + baseNoise * baseAmp + ridgeNoise * ridgeAmp);
+                if (h < 1) h = 1;
+                if (h >= Chunk.HEIGHT) h = Chunk.HEIGHT - 1;
+                heightMap[x][z] = h;
+            }
+        }
+        return heightMap;
+    }
+}
@@ -0,0 +1,73 @@
+package com.minecraftcopilot.bench;
+
+import com.minecraftcopilot.Chunk;
+import com.minecraftcopilot.world.WorldGenerator;
+import com.minecraftcopilot.world.WorldGenerator.Resolution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alturas do terreno por coluna ({@link ScalarTerrainHeights}, o caminho antigo) vs em lote
+ * ({@link WorldGenerator#terrainHeights} na resolução {@link Resolution#FULL}). Resultado em colunas por segundo
+ * (256 por chunk); o gerador inteiro e a resolução reduzida ficam no {@link WorldGeneratorBenchmark}, e o kernel
+ * da Vector API no {@link VectorNoiseBenchmark}.
+ * O setup confere que os dois caminhos dão as mesmas alturas numa área de 16x16 chunks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(Chunk.SIZE * Chunk.SIZE)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TerrainNoiseBenchmark {
+
+    @Param({"1337"})
+    public int seed;
+
+    private WorldGenerator generator;
+    private int next;
+
+    @Setup
+    public void setup() {
+        generator = WorldGenerator.forSeed(seed, Resolution.FULL);
+        for (int cz = -8; cz < 8; cz++) {
+            for (int cx = -8; cx < 8; cx++) {
+                if (!Arrays.deepEquals(ScalarTerrainHeights.heights(cx, cz, seed), generator.terrainHeights(cx, cz))) {
+                    throw new IllegalStateException("alturas diferentes no chunk " + cx + "," + cz);
+                }
+            }
+        }
+    }
+
+    // Chunks diferentes a cada chamada, para não medir sempre o mesmo reticulado
+    private int nextChunk() {
+        next = (next + 1) & 63;
+        return next;
+    }
+
+    @Benchmark
+    public int[][] heightsScalar() {
+        int i = nextChunk();
+        return ScalarTerrainHeights.heights(i & 7, i >> 3, seed);
+    }
+
+    @Benchmark
+    public int[][] heightsGrid() {
+        int i = nextChunk();
+        return generator.terrainHeights(i & 7, i >> 3);
+    }
+}
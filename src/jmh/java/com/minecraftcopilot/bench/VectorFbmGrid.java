@@ -0,0 +1,141 @@
+package com.minecraftcopilot.bench;
+
+import com.minecraftcopilot.Noise2D;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link Noise2D#fillFbmGrid} com a Vector API (incubadora do JDK 17): sorteio dos cantos do reticulado e
+ * interpolação de uma pista SIMD de colunas por vez. Mesmas operações, na mesma ordem e sem FMA, que o caminho
+ * escalar, então o resultado é idêntico bit a bit; o {@link VectorNoiseBenchmark} confere isso antes de medir.
+ * Os cantos de cada célula são lidos da tabela num laço escalar para arrays contíguos: no JDK 17 o gather
+ * ({@code fromArray} com mapa de índices) e o {@code ROL} caem para a implementação em Java, que aloca por vetor.
+ * Fica só nos benchmarks: medido, não ganha do laço escalar em lote (ver o benchmark), e assim o jogo compila e
+ * roda sem o módulo {@code jdk.incubator.vector}.
+ */
+final class VectorFbmGrid {
+    private VectorFbmGrid() {}
+
+    private static final VectorSpecies<Float> F = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> I = IntVector.SPECIES_PREFERRED;
+    private static final int[] IOTA = new int[I.length()];
+
+    static {
+        for (int i = 0; i < IOTA.length; i++) IOTA[i] = i;
+    }
+
+    static int lanes() {
+        return F.length();
+    }
+
+    /** Mesmo contrato de {@link Noise2D#fillFbmGrid}. */
+    static void fillFbmGrid(float[] out, int x0, int z0, int w, int h, float scale, float offX, float offZ,
+                            int seed, int octaves, float lacunarity, float gain) {
+        int n = w * h;
+        float[] sum = new float[n];
+        int[] lx = new int[w], lz = new int[h];
+        float[] sx = new float[w], sz = new float[h];
+        float[] table = new float[0];
+        float[] corners = new float[4 * w];
+        float amp = 0.5f;
+        float freq = 1.0f;
+        float norm = 0f;
+        for (int o = 0; o < octaves; o++) {
+            for (int i = 0; i < w; i++) {
+                float x = ((float) (x0 + i) * scale + offX) * freq;
+                lx[i] = (int) Math.floor(x);
+                sx[i] = smooth(x - lx[i]);
+            }
+            for (int j = 0; j < h; j++) {
+                float z = ((float) (z0 + j) * scale + offZ) * freq;
+                lz[j] = (int) Math.floor(z);
+                sz[j] = smooth(z - lz[j]);
+            }
+            int minX = Math.min(lx[0], lx[w - 1]), maxX = Math.max(lx[0], lx[w - 1]) + 1;
+            int minZ = Math.min(lz[0], lz[h - 1]), maxZ = Math.max(lz[0], lz[h - 1]) + 1;
+            int tw = maxX - minX + 1, th = maxZ - minZ + 1;
+            if (table.length < tw * th) table = new float[tw * th];
+            lattice(table, minX, minZ, tw, th, seed + o * 1013);
+            for (int j = 0; j < h; j++) {
+                int row = (lz[j] - minZ) * tw;
+                for (int i = 0; i < w; i++) {
+                    int t = row + lx[i] - minX;
+                    corners[i] = table[t];
+                    corners[w + i] = table[t + 1];
+                    corners[2 * w + i] = table[t + tw];
+                    corners[3 * w + i] = table[t + tw + 1];
+                }
+                lerpAccumulate(sum, j * w, corners, w, sx, sz[j], amp);
+            }
+            norm += amp;
+            freq *= lacunarity;
+            amp *= gain;
+        }
+        float d = Math.max(norm, 1e-6f);
+        for (int c = 0; c < n; c++) out[c] = sum[c] / d;
+    }
+
+    // rand2D de cada canto de (minX, minZ) a (minX + tw - 1, minZ + th - 1), linha a linha em z
+    private static void lattice(float[] table, int minX, int minZ, int tw, int th, int seed) {
+        IntVector iota = IntVector.fromArray(I, IOTA, 0);
+        int bound = I.loopBound(tw);
+        for (int z = 0; z < th; z++) {
+            int row = z * tw;
+            int hz = (minZ + z) * 0x85ebca6b;
+            int x = 0;
+            for (; x < bound; x += I.length()) {
+                IntVector h = iota.add(minX + x).mul(0x27d4eb2d).lanewise(VectorOperators.XOR, seed);
+                h = h.lanewise(VectorOperators.LSHL, 13).or(h.lanewise(VectorOperators.LSHR, 19)) // rotateLeft 13
+                        .lanewise(VectorOperators.XOR, hz)
+                        .mul(0xc2b2ae35);
+                h = h.lanewise(VectorOperators.XOR, h.lanewise(VectorOperators.LSHR, 16));
+                ((FloatVector) h.and(0x7fffffff).convert(VectorOperators.I2F, 0))
+                        .div(2147483648f)
+                        .intoArray(table, row + x);
+            }
+            for (; x < tw; x++) table[row + x] = rand2D(minX + x, minZ + z, seed);
+        }
+    }
+
+    // sum[out + k] += lerp2(v00, v10, v01, v11)[k] * amp para k < len, com os cantos em corners[0..4*len)
+    private static void lerpAccumulate(float[] sum, int out, float[] corners, int len, float[] wx, float fz,
+                                       float amp) {
+        FloatVector sz = FloatVector.broadcast(F, fz);
+        int bound = F.loopBound(len);
+        int k = 0;
+        for (; k < bound; k += F.length()) {
+            FloatVector v00 = FloatVector.fromArray(F, corners, k);
+            FloatVector v10 = FloatVector.fromArray(F, corners, len + k);
+            FloatVector v01 = FloatVector.fromArray(F, corners, 2 * len + k);
+            FloatVector v11 = FloatVector.fromArray(F, corners, 3 * len + k);
+            FloatVector sx = FloatVector.fromArray(F, wx, k);
+            FloatVector ix0 = v00.add(v10.sub(v00).mul(sx));
+            FloatVector ix1 = v01.add(v11.sub(v01).mul(sx));
+            FloatVector v = ix0.add(ix1.sub(ix0).mul(sz));
+            FloatVector.fromArray(F, sum, out + k).add(v.mul(amp)).intoArray(sum, out + k);
+        }
+        for (; k < len; k++) {
+            float v00 = corners[k], v10 = corners[len + k], v01 = corners[2 * len + k], v11 = corners[3 * len + k];
+            float ix0 = v00 + (v10 - v00) * wx[k];
+            float ix1 = v01 + (v11 - v01) * wx[k];
+            sum[out + k] += (ix0 + (ix1 - ix0) * fz) * amp;
+        }
+    }
+
+    // Cópias escalares de Noise2D (privadas lá), para o resto das pistas
+    private static float smooth(float t) {
+        return t * t * (3f - 2f * t);
+    }
+
+    private static float rand2D(int x, int z, int seed) {
+        int h = seed;
+        h ^= (x * 0x27d4eb2d);
+        h = Integer.rotateLeft(h, 13);
+        h ^= (z * 0x85ebca6b);
+        h *= 0xc2b2ae35;
+        h ^= (h >>> 16);
+        return (h & 0x7fffffff) / 2147483648f;
+    }
+}
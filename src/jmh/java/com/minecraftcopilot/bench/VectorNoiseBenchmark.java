@@ -0,0 +1,83 @@
+package com.minecraftcopilot.bench;
+
+import com.minecraftcopilot.Chunk;
+import com.minecraftcopilot.Noise2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * fbm de um chunk (16x16 colunas, parâmetros do ruído base do terreno) pelo laço escalar em lote
+ * ({@link Noise2D#fillFbmGrid}) vs o kernel da Vector API ({@link VectorFbmGrid}), em colunas por segundo.
+ * O fork carrega o módulo {@code jdk.incubator.vector}; sem ele o setup falha em vez de medir o escalar duas vezes.
+ * O setup também confere que os dois caminhos dão o mesmo resultado bit a bit numa área de 16x16 chunks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(Chunk.SIZE * Chunk.SIZE)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class VectorNoiseBenchmark {
+
+    private static final int SIZE = Chunk.SIZE, OCTAVES = 4;
+    private static final float SCALE = 0.06f;
+
+    @Param({"1337"})
+    public int seed;
+
+    private final float[] out = new float[SIZE * SIZE];
+    private int next;
+
+    @Setup
+    public void setup() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            throw new IllegalStateException("Vector API indisponível neste fork");
+        }
+        float[] scalar = new float[SIZE * SIZE], vector = new float[SIZE * SIZE];
+        for (int cz = -8; cz < 8; cz++) {
+            for (int cx = -8; cx < 8; cx++) {
+                Noise2D.fillFbmGrid(scalar, cx * SIZE, cz * SIZE, SIZE, SIZE, SCALE, 0f, 0f, seed, OCTAVES, 2.0f, 0.5f);
+                VectorFbmGrid.fillFbmGrid(vector, cx * SIZE, cz * SIZE, SIZE, SIZE, SCALE, 0f, 0f, seed, OCTAVES,
+                        2.0f, 0.5f);
+                if (!Arrays.equals(scalar, vector)) {
+                    throw new IllegalStateException("fbm diferente no chunk " + cx + "," + cz);
+                }
+            }
+        }
+    }
+
+    // Chunks diferentes a cada chamada, para não medir sempre o mesmo reticulado
+    private int nextChunk() {
+        next = (next + 1) & 63;
+        return next;
+    }
+
+    @Benchmark
+    public float[] fbmGridScalar() {
+        int i = nextChunk();
+        Noise2D.fillFbmGrid(out, (i & 7) * SIZE, (i >> 3) * SIZE, SIZE, SIZE, SCALE, 0f, 0f, seed, OCTAVES, 2.0f, 0.5f);
+        return out;
+    }
+
+    @Benchmark
+    public float[] fbmGridSimd() {
+        int i = nextChunk();
+        VectorFbmGrid.fillFbmGrid(out, (i & 7) * SIZE, (i >> 3) * SIZE, SIZE, SIZE, SCALE, 0f, 0f, seed, OCTAVES,
+                2.0f, 0.5f);
+        return out;
+    }
+}
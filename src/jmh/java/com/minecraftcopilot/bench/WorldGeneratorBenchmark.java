@@ -0,0 +1,62 @@
+package com.minecraftcopilot.bench;
+
+import com.minecraftcopilot.Chunk;
+import com.minecraftcopilot.world.WorldGenerator;
+import com.minecraftcopilot.world.WorldGenerator.Resolution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WorldGenerator} com todo o ruído em toda coluna ({@link Resolution#FULL}) vs na grade de 4 em 4 blocos
+ * com a altura interpolada ({@link Resolution#COARSE}). Resultado em chunks por segundo; as amostras de ruído por
+ * chunk de cada modo saem no log do setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorldGeneratorBenchmark {
+
+    @Param({"1337"})
+    public int seed;
+
+    @Param({"FULL", "COARSE"})
+    public Resolution resolution;
+
+    private WorldGenerator generator;
+    private int next, sweep;
+
+    @Setup
+    public void setup() {
+        generator = WorldGenerator.forSeed(seed, resolution);
+        System.out.printf("%n%s: %d amostras de ruído por chunk%n", resolution, resolution.noiseSamplesPerChunk());
+    }
+
+    /** Só o mapa de alturas, o que a resolução muda. */
+    @Benchmark
+    public int[][] heights() {
+        next = (next + 1) & 63;
+        return generator.terrainHeights(next & 7, next >> 3);
+    }
+
+    // Varredura linha a linha numa área grande: como no jogo, cada chunk novo calcula cerca de um plano
+    // (o ruído) e reaproveita os dos vizinhos já gerados
+    @Benchmark
+    public Chunk generate() {
+        sweep = (sweep + 1) & 0xFFFF;
+        return generator.generate(sweep & 0xFF, sweep >> 8);
+    }
+}
@@ -0,0 +1,83 @@
+package com.minecraftcopilot;
+
+import java.util.Arrays;
+
+/**
+ * Tabelas densas indexadas pelo id cru do bloco (0..255): tipo, flags de propriedade, tiles por face e cor.
+ * Para laços quentes (mesher, colisão, água) testarem propriedades direto do byte guardado nas seções,
+ * sem passar pelo enum nem por {@code BlockType.values()}. Ids sem bloco registrado valem como ar.
+ */
+public final class BlockRegistry {
+    public static final int SIZE = 256;
+
+    // Flags por id
+    public static final int SOLID = 1;       // tem geometria (água inclusa)
+    public static final int BLOCKING = 2;    // bloqueia movimento e oculta as faces vizinhas
+    public static final int TRANSPARENT = 4; // deixa ver através: não oculta faces de quem encosta
+
+    private static final BlockType[] TYPES = new BlockType[SIZE];
+    private static final byte[] FLAGS = new byte[SIZE];
+    // 6 tiles por id, na ordem das faces: +X, -X, +Y, -Y, +Z, -Z
+    private static final int[] TILES = new int[SIZE * 6];
+    // RGBA por id
+    private static final float[] COLORS = new float[SIZE * 4];
+
+    static {
+        Arrays.fill(TYPES, BlockType.AIR);
+        Arrays.fill(TILES, -1);
+        for (BlockType t : BlockType.values()) {
+            int id = t.id & 0xFF;
+            TYPES[id] = t;
+            int f = 0;
+            if (t.isSolid()) f |= SOLID;
+            if (t.isBlocking()) f |= BLOCKING;
+            else f |= TRANSPARENT;
+            FLAGS[id] = (byte) f;
+            for (int face = 0; face < 6; face++) TILES[id * 6 + face] = t.tileForFace(face);
+            COLORS[id * 4] = t.color.r;
+            COLORS[id * 4 + 1] = t.color.g;
+            COLORS[id * 4 + 2] = t.color.b;
+            COLORS[id * 4 + 3] = t.color.a;
+        }
+        // Ids sem bloco: as mesmas propriedades do ar (transparente, sem geometria), não só o tipo
+        int air = BlockType.AIR.id & 0xFF;
+        for (int id = 0; id < SIZE; id++) {
+            if (TYPES[id] != BlockType.AIR || id == air) continue;
+            FLAGS[id] = FLAGS[air];
+            System.arraycopy(TILES, air * 6, TILES, id * 6, 6);
+            System.arraycopy(COLORS, air * 4, COLORS, id * 4, 4);
+        }
+    }
+
+    private BlockRegistry() {}
+
+    public static BlockType byId(int id) {
+        return TYPES[id & 0xFF];
+    }
+
+    public static int flags(int id) {
+        return FLAGS[id & 0xFF];
+    }
+
+    public static boolean isSolid(int id) {
+        return (FLAGS[id & 0xFF] & SOLID) != 0;
+    }
+
+    public static boolean isBlocking(int id) {
+        return (FLAGS[id & 0xFF] & BLOCKING) != 0;
+    }
+
+    public static boolean isTransparent(int id) {
+        return (FLAGS[id & 0xFF] & TRANSPARENT) != 0;
+    }
+
+    /** Tile do atlas para a face (0 +X, 1 -X, 2 +Y, 3 -Y, 4 +Z, 5 -Z); -1 para ar. */
+    public static int tile(int id, int face) {
+        return TILES[(id & 0xFF) * 6 + face];
+    }
+
+    /** Componente {@code c} (0 r, 1 g, 2 b, 3 a) da cor base. */
+    public static float color(int id, int c) {
+        return COLORS[(id & 0xFF) * 4 + c];
+    }
+}
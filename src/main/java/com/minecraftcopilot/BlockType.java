@@ -75,10 +75,8 @@ public enum BlockType {
         };
     }
 
+    // Consulta direta na tabela densa (sem values(), que clona o array a cada chamada)
     public static BlockType fromId(byte id) {
-        for (BlockType t : values()) {
-            if (t.id == id) return t;
-        }
-        return AIR;
+        return BlockRegistry.byId(id);
     }
 }
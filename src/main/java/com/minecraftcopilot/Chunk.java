@@ -1,236 +1,302 @@
 package com.minecraftcopilot;
 
 import com.jme3.material.Material;
-import com.jme3.math.ColorRGBA;
 import com.jme3.math.Vector3f;
 import com.jme3.scene.Geometry;
 import com.jme3.scene.Mesh;
 import com.jme3.scene.Node;
-import com.jme3.scene.VertexBuffer;
-import com.jme3.util.BufferUtils;
+import com.minecraftcopilot.gfx.MeshBuilder;
 import com.minecraftcopilot.gfx.TextureAtlas;
 
-import java.nio.FloatBuffer;
-import java.nio.IntBuffer;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
 
 public class Chunk {
     public static final int SIZE = 16;
-    public static final int HEIGHT = 64;
+    // Seções só de ar custam uma paleta de um byte e nenhuma malha, então a altura do mundo quase não pesa:
+    // memória e meshing acompanham o volume ocupado
+    public static final int HEIGHT = 256;
+    public static final int SECTION_HEIGHT = ChunkSection.HEIGHT;
+    public static final int SECTIONS = HEIGHT / SECTION_HEIGHT;
 
     private final int cx, cz; // coordenadas do chunk no mundo
-    private final byte[] blocks; // [x + SIZE * (z + SIZE * y)]
-    private final byte[] meta;   // metadados por bloco (ex.: nível da água 0..7)
+    // Blocos e metadados (ex.: nível da água 0..7) em seções de 16 de altura, com paleta + índices empacotados
+    private final ChunkSection[] sections = new ChunkSection[SECTIONS];
+    // Mapa de alturas por coluna (x + z * SIZE): y do bloco bloqueante mais alto e do bloco não-ar mais alto,
+    // -1 se a coluna não tem nenhum. Mantido por set/fillSection; leituras de seção (readFrom) o refazem
+    private final short[] surfaceY = new short[SIZE * SIZE];
+    private final short[] topY = new short[SIZE * SIZE];
+    // Alterado desde a geração ou a última leitura do disco: só estes são gravados ao descarregar
+    private boolean modified;
+    // Versão do formato gravado por writeTo: a quantidade de seções e depois elas
+    private static final int FORMAT_VERSION = 2;
 
     public Chunk(int cx, int cz) {
         this.cx = cx;
         this.cz = cz;
-        this.blocks = new byte[SIZE * SIZE * HEIGHT];
-        this.meta = new byte[SIZE * SIZE * HEIGHT];
+        for (int i = 0; i < SECTIONS; i++) sections[i] = new ChunkSection();
+        Arrays.fill(surfaceY, (short) -1);
+        Arrays.fill(topY, (short) -1);
     }
 
     public static TextureAtlas ATLAS; // definido em VoxelGameState
-    // Animação simples da água: alterna entre 3 tiles (7,8,9)
-    private static volatile int WATER_ANIM_FRAME = 0; // 0..2
-    public static void setWaterAnimFrame(int frame) {
-        WATER_ANIM_FRAME = Math.max(0, Math.min(2, frame));
-    }
-    public static int getWaterAnimFrame() { return WATER_ANIM_FRAME; }
+    // Água usa o primeiro dos 3 tiles animados (7,8,9); o material VoxelWater avança o frame na GPU
+    public static final int WATER_TILE = 7;
+    private static final int WATER_ID = BlockType.WATER.id & 0xFF;
+
+    // Direções: +X, -X, +Y, -Y, +Z, -Z
+    private static final int[][] DIRS = {
+            {1, 0, 0}, {-1, 0, 0},
+            {0, 1, 0}, {0, -1, 0},
+            {0, 0, 1}, {0, 0, -1}
+    };
 
     private static int idx(int x, int y, int z) {
-        return x + SIZE * (z + SIZE * y);
+        return ChunkSection.idx(x, y & (SECTION_HEIGHT - 1), z);
     }
 
     public BlockType get(int x, int y, int z) {
-        if (x < 0 || x >= SIZE || y < 0 || y >= HEIGHT || z < 0 || z >= SIZE) return BlockType.AIR;
-        return BlockType.fromId(blocks[idx(x, y, z)]);
+        return BlockRegistry.byId(getId(x, y, z));
+    }
+
+    /** Id cru (0..255) do bloco, para testar propriedades em {@link BlockRegistry} sem passar pelo enum. */
+    public int getId(int x, int y, int z) {
+        if (x < 0 || x >= SIZE || y < 0 || y >= HEIGHT || z < 0 || z >= SIZE) return 0;
+        return sections[y / SECTION_HEIGHT].getId(idx(x, y, z)) & 0xFF;
     }
 
     public void set(int x, int y, int z, BlockType type) {
         if (x < 0 || x >= SIZE || y < 0 || y >= HEIGHT || z < 0 || z >= SIZE) return;
-        blocks[idx(x, y, z)] = type.id;
+        sections[y / SECTION_HEIGHT].setId(idx(x, y, z), type.id);
+        modified = true;
+        int id = type.id & 0xFF, c = x + z * SIZE;
+        // Só um bloco removido no topo da coluna obriga a descer procurando o próximo
+        if (BlockRegistry.isBlocking(id)) {
+            if (y > surfaceY[c]) surfaceY[c] = (short) y;
+        } else if (y == surfaceY[c]) {
+            surfaceY[c] = (short) scanDown(x, y - 1, z, true);
+        }
+        if (id != 0) {
+            if (y > topY[c]) topY[c] = (short) y;
+        } else if (y == topY[c]) {
+            topY[c] = (short) scanDown(x, y - 1, z, false);
+        }
+    }
+
+    /**
+     * Enche a seção {@code sy} inteira com um só bloco e zera o meta dela. A seção fica uniforme (sem array de
+     * índices), o que {@link #set} bloco a bloco nunca recupera; o mesher só percorre a casca de uma seção
+     * uniforme opaca.
+     */
+    public void fillSection(int sy, BlockType type) {
+        sections[sy].fill(type.id);
+        modified = true;
+        int id = type.id & 0xFF;
+        int y0 = sy * SECTION_HEIGHT, y1 = y0 + SECTION_HEIGHT - 1;
+        boolean blocking = BlockRegistry.isBlocking(id);
+        // Como em set: o bloco sobe o topo até y1; se não conta, a coluna cujo topo estava dentro da seção
+        // desce procurando o próximo abaixo dela
+        for (int z = 0; z < SIZE; z++) {
+            for (int x = 0; x < SIZE; x++) {
+                int c = x + z * SIZE;
+                if (id != 0) {
+                    if (topY[c] < y1) topY[c] = (short) y1;
+                } else if (topY[c] >= y0 && topY[c] <= y1) {
+                    topY[c] = (short) scanDown(x, y0 - 1, z, false);
+                }
+                if (blocking) {
+                    if (surfaceY[c] < y1) surfaceY[c] = (short) y1;
+                } else if (surfaceY[c] >= y0 && surfaceY[c] <= y1) {
+                    surfaceY[c] = (short) scanDown(x, y0 - 1, z, true);
+                }
+            }
+        }
+    }
+
+    /** y do bloco bloqueante (chão para colisão; água não conta) mais alto da coluna, ou -1 se não há. */
+    public int getSurfaceY(int x, int z) {
+        if (x < 0 || x >= SIZE || z < 0 || z >= SIZE) return -1;
+        return surfaceY[x + z * SIZE];
+    }
+
+    /** y do bloco não-ar (inclui água e folhas) mais alto da coluna, ou -1 se não há. */
+    public int getTopY(int x, int z) {
+        if (x < 0 || x >= SIZE || z < 0 || z >= SIZE) return -1;
+        return topY[x + z * SIZE];
+    }
+
+    // Primeiro y <= from com bloco bloqueante (ou não-ar), -1 se não há. Seções só de ar são puladas inteiras
+    private int scanDown(int x, int from, int z, boolean blocking) {
+        for (int y = from; y >= 0; y--) {
+            if (sections[y / SECTION_HEIGHT].isEmpty()) {
+                y -= y & (SECTION_HEIGHT - 1);
+                continue;
+            }
+            int id = getId(x, y, z);
+            if (blocking ? BlockRegistry.isBlocking(id) : id != 0) return y;
+        }
+        return -1;
+    }
+
+    private void rebuildHeightmap() {
+        for (int z = 0; z < SIZE; z++) {
+            for (int x = 0; x < SIZE; x++) {
+                int top = scanDown(x, HEIGHT - 1, z, false);
+                topY[x + z * SIZE] = (short) top;
+                surfaceY[x + z * SIZE] = (short) scanDown(x, top, z, true);
+            }
+        }
     }
 
     public byte getMeta(int x, int y, int z) {
         if (x < 0 || x >= SIZE || y < 0 || y >= HEIGHT || z < 0 || z >= SIZE) return 0;
-        return meta[idx(x, y, z)];
+        return sections[y / SECTION_HEIGHT].getMeta(idx(x, y, z));
     }
 
     public void setMeta(int x, int y, int z, int value) {
         if (x < 0 || x >= SIZE || y < 0 || y >= HEIGHT || z < 0 || z >= SIZE) return;
-        meta[idx(x, y, z)] = (byte) Math.max(0, Math.min(127, value));
+        sections[y / SECTION_HEIGHT].setMeta(idx(x, y, z), (byte) Math.max(0, Math.min(127, value)));
+        modified = true;
     }
 
-    public void generateTerrain(int seed) {
-        // Parâmetros de terreno
-        final float baseScale = 0.06f; // frequência base (maior -> mais suave)
-        final int baseHeight = 18;     // nível médio do terreno
-        final int baseAmp = 12;        // amplitude dos morros principais
+    /** Há alterações que a geração procedural não reproduz (edições do jogador, água simulada). */
+    public boolean isModified() {
+        return modified;
+    }
 
-        // Warping para variar padrões (distorção do domínio)
-        final float warpScale = 0.02f; // frequência do warp
-        final float warpAmp = 8.0f;    // força do warp em metros
+    public void clearModified() {
+        modified = false;
+    }
 
-        // Ruído de cristas (ridge) para picos mais marcados
-        final float ridgeScale = 0.04f;
-        final float ridgeAmp = 6.0f;
+    /**
+     * Cópia dos blocos/meta para gravar em outra thread enquanto este chunk continua sendo editado.
+     * A cópia sai sem a marca de modificado.
+     */
+    public Chunk snapshot() {
+        Chunk c = new Chunk(cx, cz);
+        for (int i = 0; i < SECTIONS; i++) c.sections[i] = sections[i].copy();
+        System.arraycopy(surfaceY, 0, c.surfaceY, 0, surfaceY.length);
+        System.arraycopy(topY, 0, c.topY, 0, topY.length);
+        return c;
+    }
 
-        int[][] heightMap = new int[SIZE][SIZE];
-        for (int x = 0; x < SIZE; x++) {
-            for (int z = 0; z < SIZE; z++) {
-                float wx = (cx * SIZE + x);
-                float wz = (cz * SIZE + z);
-
-                // Domain warp: desloca coordenadas por um ruído lento
-                float warpX = (Noise2D.fbm(wx * warpScale, wz * warpScale, seed + 1337, 3, 2.0f, 0.5f) * 2f - 1f) * warpAmp;
-                float warpZ = (Noise2D.fbm(wx * warpScale + 57.0f, wz * warpScale - 91.0f, seed + 4242, 3, 2.0f, 0.5f) * 2f - 1f) * warpAmp;
-                float xw = wx + warpX;
-                float zw = wz + warpZ;
-
-                // Base hills com FBM
-                float baseNoise = Noise2D.fbm(xw * baseScale, zw * baseScale, seed, 4, 2.0f, 0.5f);
-                // Ridge: |2*fbm-1| para enfatizar cristas
-                float ridgeNoise = Math.abs(2f * Noise2D.fbm(xw * ridgeScale, zw * ridgeScale, seed + 911, 3, 2.0f, 0.5f) - 1f);
-
-                float heightF = baseHeight + baseNoise * baseAmp + ridgeNoise * ridgeAmp;
-                int h = Math.round(heightF);
-                if (h < 1) h = 1;
-                if (h >= HEIGHT) h = HEIGHT - 1;
-                heightMap[x][z] = h;
-
-                // Materiais: topo grama, subsuperfície dirt, abaixo stone
-                // Se muito alto, chance de topo rochoso (sem grama)
-                boolean rockyTop = (h >= baseHeight + (int) (baseAmp * 0.75f)) && (Noise2D.noise(wx * 0.1f, wz * 0.1f, seed + 7) > 0.6f);
+    /** Serializa blocos e meta na forma compacta das seções (ver {@link com.minecraftcopilot.world.RegionStore}). */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        // Seções só de ar no topo ficam de fora
+        int count = SECTIONS;
+        while (count > 0 && sections[count - 1].isBlank()) count--;
+        out.writeByte(count);
+        for (int i = 0; i < count; i++) sections[i].write(out);
+    }
 
-                for (int y = 0; y <= h; y++) {
-                    BlockType type;
-                    if (y == h) {
-                        type = rockyTop ? BlockType.STONE : BlockType.GRASS;
-                    } else if (y >= h - 3) {
-                        type = BlockType.DIRT;
-                    } else {
-                        type = BlockType.STONE;
-                    }
-                    set(x, y, z, type);
-                }
-            }
-        }
+    /** Recria um chunk gravado por {@link #writeTo}; sai sem a marca de modificado. */
+    public static Chunk readFrom(int cx, int cz, DataInput in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) throw new IOException("versão de chunk desconhecida: " + version);
+        int count = in.readUnsignedByte();
+        if (count > SECTIONS) throw new IOException("chunk com " + count + " seções (máximo " + SECTIONS + ")");
+        Chunk chunk = new Chunk(cx, cz);
+        for (int i = 0; i < count; i++) chunk.sections[i].read(in);
+        chunk.rebuildHeightmap();
+        return chunk;
+    }
 
-        // Preencher água em depressões até um nível (lagos/"mar")
-        final int WATER_LEVEL = baseHeight - 2; // nível d'água global simples
-        for (int x = 0; x < SIZE; x++) {
-            for (int z = 0; z < SIZE; z++) {
-                int h = heightMap[x][z];
-                if (h + 1 <= WATER_LEVEL) {
-                    for (int y = h + 1; y <= Math.min(WATER_LEVEL, HEIGHT - 1); y++) {
-                        set(x, y, z, BlockType.WATER);
-                        setMeta(x, y, z, 0); // fonte estática
-                    }
-                }
-            }
+    // Leitura para o mesher: fora do chunk em X/Z consulta a cópia das bordas vizinhas (se houver)
+    private int idAt(int x, int y, int z, ChunkNeighbors nb) {
+        if (nb != null && y >= 0 && y < HEIGHT && (x < 0 || x >= SIZE || z < 0 || z >= SIZE)) {
+            return nb.idAt(x, y, z) & 0xFF;
         }
+        return getId(x, y, z);
+    }
 
-        // Colocar árvores em alguns topos de grama (evitando água acima)
-        placeTrees(seed, heightMap);
+    private int metaAt(int x, int y, int z, ChunkNeighbors nb) {
+        if (nb != null && y >= 0 && y < HEIGHT && (x < 0 || x >= SIZE || z < 0 || z >= SIZE)) {
+            return nb.metaAt(x, y, z);
+        }
+        return getMeta(x, y, z);
     }
 
-    private void placeTrees(int seed, int[][] heightMap) {
-        int trees = 0;
-        for (int x = 0; x < SIZE; x++) {
-            for (int z = 0; z < SIZE; z++) {
-                int h = heightMap[x][z];
-                if (h <= 1 || h >= HEIGHT - 8) continue; // espaço mínimo para árvore
-                // precisa ser GRASS ou STONE no topo (permite pinheiros em áreas rochosas) e sem água acima
-                BlockType top = get(x, h, z);
-                if (top != BlockType.GRASS && top != BlockType.STONE) continue;
-                if (h + 1 < HEIGHT && get(x, h + 1, z) == BlockType.WATER) continue;
-
-                float wx = (cx * SIZE + x);
-                float wz = (cz * SIZE + z);
-                // probabilidade agrupada por ruído
-                float prob = Noise2D.noise(wx * 0.08f, wz * 0.08f, seed + 3001);
-                if (prob < 0.65f) continue; // ~35% em áreas favorecidas pelo ruído
-
-                // Variação de tamanho da árvore
-                float sizeN = Noise2D.noise(wx * 0.21f, wz * 0.21f, seed + 901); // 0..1
-                int trunkH = 4 + (int) Math.floor(sizeN * 5.0f); // 4..9
-                // conífera ocasional: mais alta e copa mais estreita
-                boolean tallNarrow = Noise2D.noise(wx * 0.09f, wz * 0.09f, seed + 1618) > 0.7f;
-                int r = (tallNarrow ? 2 : 2 + (int) Math.floor(Noise2D.noise(wx * 0.17f, wz * 0.17f, seed + 2718) * 2.5f)); // 2..3 (às vezes 4)
-                r = Math.min(r, 3);
-
-                // Permite árvores próximas à borda do chunk; copas serão "recortadas" nos limites
-
-                // tronco
-                for (int i = 1; i <= trunkH; i++) {
-                    if (h + i >= HEIGHT) break;
-                    set(x, h + i, z, BlockType.WOOD);
-                }
-                int topY = Math.min(HEIGHT - 1, h + trunkH);
-
-                // copa: volume arredondado com possível alongamento vertical
-                int yStretch = tallNarrow ? 2 : 1;
-                for (int dx = -r; dx <= r; dx++) {
-                    for (int dz = -r; dz <= r; dz++) {
-                        for (int dy = -r; dy <= r + (tallNarrow ? 1 : 0); dy++) {
-                            int xx = x + dx;
-                            int yy = topY + dy;
-                            int zz = z + dz;
-                            if (yy < 0 || yy >= HEIGHT) continue;
-                            if (xx < 0 || xx >= SIZE || zz < 0 || zz >= SIZE) continue;
-                            // distância elipsoidal
-                            float ndx = dx / (float) r;
-                            float ndz = dz / (float) r;
-                            float ndy = dy / (float) (r / (float) yStretch + 0.0001f);
-                            float d2 = ndx * ndx + ndz * ndz + ndy * ndy;
-                            if (d2 <= 1.0f) {
-                                BlockType cur = get(xx, yy, zz);
-                                if (cur == BlockType.AIR || cur == BlockType.GRASS) {
-                                    set(xx, yy, zz, BlockType.LEAVES);
-                                }
-                            }
-                        }
-                    }
-                }
-                // folha extra no topo para "finalizar" o formato
-                if (topY + 1 < HEIGHT) set(x, topY + 1, z, BlockType.LEAVES);
-                trees++;
+    /**
+     * Copia a fatia deste chunk que encosta num chunk vizinho (ver {@link ChunkNeighbors}):
+     * {@code side} é o lado em que ESTE chunk está em relação ao vizinho.
+     */
+    void copyBorder(int side, byte[] ids, byte[] metas) {
+        for (int y = 0; y < HEIGHT; y++) {
+            ChunkSection sec = sections[y / SECTION_HEIGHT];
+            if (sec.isBlank()) { // a fatia já está zerada
+                y += SECTION_HEIGHT - 1;
+                continue;
+            }
+            int ly = y & (SECTION_HEIGHT - 1);
+            for (int u = 0; u < SIZE; u++) {
+                int i = switch (side) {
+                    case ChunkNeighbors.POS_X -> ChunkSection.idx(0, ly, u);
+                    case ChunkNeighbors.NEG_X -> ChunkSection.idx(SIZE - 1, ly, u);
+                    case ChunkNeighbors.POS_Z -> ChunkSection.idx(u, ly, 0);
+                    default -> ChunkSection.idx(u, ly, SIZE - 1);
+                };
+                int o = ChunkNeighbors.sliceIdx(u, y);
+                ids[o] = sec.getId(i);
+                metas[o] = sec.getMeta(i);
             }
         }
-        // Fallback: se nenhum árvore foi plantada no chunk, planta uma próxima do centro (se possível)
-        if (trees == 0) {
-            int cxm = SIZE / 2;
-            int czm = SIZE / 2;
-            int h = heightMap[cxm][czm];
-            if (h > 1 && h < HEIGHT - 8) {
-                BlockType top = get(cxm, h, czm);
-                if (top == BlockType.GRASS || top == BlockType.STONE) {
-                    int trunkH = 6; // altura mediana
-                    int r = 2;
-                    // tronco
-                    for (int i = 1; i <= trunkH && h + i < HEIGHT; i++) {
-                        set(cxm, h + i, czm, BlockType.WOOD);
-                    }
-                    int topY = Math.min(HEIGHT - 1, h + trunkH);
-                    for (int dx = -r; dx <= r; dx++) {
-                        for (int dz = -r; dz <= r; dz++) {
-                            for (int dy = -r; dy <= r; dy++) {
-                                int xx = cxm + dx;
-                                int yy = topY + dy;
-                                int zz = czm + dz;
-                                if (yy < 0 || yy >= HEIGHT || xx < 0 || xx >= SIZE || zz < 0 || zz >= SIZE) continue;
-                                float d2 = (dx*dx + dz*dz + dy*dy);
-                                if (d2 <= (r*r + 1)) {
-                                    BlockType cur = get(xx, yy, zz);
-                                    if (cur == BlockType.AIR || cur == BlockType.GRASS) set(xx, yy, zz, BlockType.LEAVES);
-                                }
-                            }
-                        }
+    }
+
+    /**
+     * Seções (um bit por seção) com algum bloco que não é ar na fatia da borda voltada para o vizinho do lado
+     * {@code side} ({@link ChunkNeighbors#POS_X} = a fatia x = 15). Só elas têm faces que dependem desse vizinho.
+     */
+    public int borderSectionMask(int side) {
+        int mask = 0;
+        for (int sy = 0; sy < SECTIONS; sy++) {
+            ChunkSection sec = sections[sy];
+            if (sec.isEmpty()) continue;
+            if (sec.isUniform()) { // um bloco só, e não é ar
+                mask |= 1 << sy;
+                continue;
+            }
+            scan:
+            for (int ly = 0; ly < SECTION_HEIGHT; ly++) {
+                for (int u = 0; u < SIZE; u++) {
+                    int i = switch (side) {
+                        case ChunkNeighbors.POS_X -> ChunkSection.idx(SIZE - 1, ly, u);
+                        case ChunkNeighbors.NEG_X -> ChunkSection.idx(0, ly, u);
+                        case ChunkNeighbors.POS_Z -> ChunkSection.idx(u, ly, SIZE - 1);
+                        default -> ChunkSection.idx(u, ly, 0);
+                    };
+                    if (sec.getId(i) != BlockType.AIR.id) {
+                        mask |= 1 << sy;
+                        break scan;
                     }
                 }
             }
         }
+        return mask;
+    }
+
+    /** Seção só de ar: sem malha e sem draw call. */
+    public boolean isSectionEmpty(int sy) {
+        return sections[sy].isEmpty();
+    }
+
+    /** A seção pode ter blocos do tipo (pela paleta): false garante que não tem, e a busca pode pular a seção. */
+    public boolean sectionMayContain(int sy, BlockType type) {
+        return sections[sy].mayContain(type.id);
+    }
+
+    /** Seção só de ar e sem meta, como recém-criada. */
+    public boolean isSectionBlank(int sy) {
+        return sections[sy].isBlank();
+    }
+
+    /** Memória aproximada dos blocos/meta deste chunk em bytes (para a tela de depuração). */
+    public int memoryBytes() {
+        int total = 0;
+        for (ChunkSection sec : sections) total += sec.memoryBytes();
+        return total;
     }
 
     public void generateFlat(int heightY) {
@@ -259,51 +325,95 @@ public class Chunk {
     }
 
     public Node buildGeometryPair(Material solidMat, Material waterMat) {
-        List<Float> posSolid = new ArrayList<>();
-        List<Float> colSolid = new ArrayList<>();
-        List<Float> uvSolid = new ArrayList<>();
-        List<Integer> idxSolid = new ArrayList<>();
-
-        List<Float> posWater = new ArrayList<>();
-        List<Float> colWater = new ArrayList<>();
-        List<Float> uvWater = new ArrayList<>();
-        List<Integer> idxWater = new ArrayList<>();
-
-        // Direções: +X, -X, +Y, -Y, +Z, -Z
-        final int[][] DIRS = {
-                {1, 0, 0}, {-1, 0, 0},
-                {0, 1, 0}, {0, -1, 0},
-                {0, 0, 1}, {0, 0, -1}
-        };
+        return buildGeometryPair(solidMat, waterMat, MeshMode.NAIVE);
+    }
 
-        for (int y = 0; y < HEIGHT; y++) {
+    /**
+     * Gera o par sólido/água do chunk. No modo GREEDY a malha sólida usa quads mesclados com UV local +
+     * índice de tile (TexCoord2), então {@code solidMat} deve ser o material VoxelTiled.
+     */
+    public Node buildGeometryPair(Material solidMat, Material waterMat, MeshMode mode) {
+        return toNode(buildMeshes(mode), solidMat, waterMat);
+    }
+
+    /**
+     * Malhas prontas (buffers já preenchidos) de uma seção, ainda sem Geometry/scene graph.
+     * Qualquer uma das duas pode ser null quando não há faces daquele tipo.
+     * {@code visibility}: grafo de {@link SectionVisibility} da seção, calculado junto.
+     */
+    public record MeshPair(Mesh solid, Mesh water, long visibility) {
+        public boolean isEmpty() { return solid == null && water == null; }
+    }
+
+    public MeshPair[] buildMeshes(MeshMode mode) {
+        return buildMeshes(mode, null);
+    }
+
+    /** Malhas de todas as seções, indexadas por seção (de baixo para cima). */
+    public MeshPair[] buildMeshes(MeshMode mode, ChunkNeighbors nb) {
+        return buildMeshes(mode, nb, (1 << SECTIONS) - 1);
+    }
+
+    /** Malhas só das seções com o bit {@code 1 << sy} ligado em {@code sectionMask}; as demais ficam null. */
+    public MeshPair[] buildMeshes(MeshMode mode, ChunkNeighbors nb, int sectionMask) {
+        MeshPair[] out = new MeshPair[SECTIONS];
+        for (int sy = 0; sy < SECTIONS; sy++) {
+            if ((sectionMask & (1 << sy)) != 0) out[sy] = buildSectionMeshes(sy, mode, nb);
+        }
+        return out;
+    }
+
+    public MeshPair buildSectionMeshes(int sy, MeshMode mode) {
+        return buildSectionMeshes(sy, mode, null);
+    }
+
+    /**
+     * Parte pesada do meshing de uma seção: percorre os blocos e gera os buffers. Não toca no scene graph,
+     * então pode rodar numa thread de trabalho (cada thread tem seus próprios MeshBuilders).
+     * As coordenadas dos vértices são locais ao chunk (y absoluto), então todas as seções dividem o nó do chunk.
+     * Com {@code nb} as faces da borda contra blocos dos chunks vizinhos também são ocultadas.
+     */
+    public MeshPair buildSectionMeshes(int sy, MeshMode mode, ChunkNeighbors nb) {
+        ChunkSection sec = sections[sy];
+        if (sec.isEmpty()) return new MeshPair(null, null, SectionVisibility.ALL);
+        boolean greedy = (mode == MeshMode.GREEDY);
+        // Seção maciça de um bloco opaco: só a casca pode ter face exposta
+        boolean shellOnly = sec.isUniform() && BlockRegistry.isBlocking(sec.uniformId());
+        // Builders primitivos reaproveitados por thread: sem List<Float>/boxing nem cópia elemento a elemento
+        MeshBuilder solid = MeshBuilder.acquire(MeshBuilder.SLOT_SOLID);
+        MeshBuilder water = MeshBuilder.acquire(MeshBuilder.SLOT_WATER);
+
+        int y0 = sy * SECTION_HEIGHT;
+        for (int y = y0; y < y0 + SECTION_HEIGHT; y++) {
+            boolean edgeY = (y == y0 || y == y0 + SECTION_HEIGHT - 1);
             for (int z = 0; z < SIZE; z++) {
                 for (int x = 0; x < SIZE; x++) {
-                    BlockType t = get(x, y, z);
-                    if (!t.isSolid()) continue;
+                    if (shellOnly && !edgeY && z > 0 && z < SIZE - 1 && x > 0 && x < SIZE - 1) continue;
+                    int t = getId(x, y, z);
+                    if (!BlockRegistry.isSolid(t)) continue;
 
                     int meta = getMeta(x, y, z);
-                    boolean isWater = (t == BlockType.WATER);
+                    boolean isWater = (t == WATER_ID);
+                    if (greedy && !isWater) continue; // sólidos saem do passo greedy abaixo
                     for (int f = 0; f < 6; f++) {
                         int nx = x + DIRS[f][0];
                         int ny = y + DIRS[f][1];
                         int nz = z + DIRS[f][2];
-                        BlockType n = get(nx, ny, nz);
+                        int n = idAt(nx, ny, nz, nb);
                         if (!isWater) {
                             // Oculta face apenas contra blocos que realmente bloqueiam (não água)
-                            if (n.isBlocking()) continue;
-                            addFaceWithMeta(posSolid, colSolid, uvSolid, idxSolid, x, y, z, f, t, meta);
+                            if (BlockRegistry.isBlocking(n)) continue;
+                            addFaceWithMeta(solid, x, y, z, f, t, meta);
                         } else {
                             // Água: tratamento especial para diferenças de nível entre vizinhos de água
-                            if (n == BlockType.WATER) {
+                            if (n == WATER_ID) {
                                 // Para faces laterais, renderiza apenas a parte acima do nível do vizinho
                                 if (f == 0 || f == 1 || f == 4 || f == 5) {
-                                    int nMeta = getMeta(nx, ny, nz);
-                                    float hSelf = computeWaterHeight(x, y, z, meta);
-                                    float hNei = computeWaterHeight(nx, ny, nz, nMeta);
+                                    int nMeta = metaAt(nx, ny, nz, nb);
+                                    float hSelf = computeWaterHeight(x, y, z, meta, nb);
+                                    float hNei = computeWaterHeight(nx, ny, nz, nMeta, nb);
                                     if (hNei >= hSelf - 1e-4f) continue; // nada exposto
-                                    addWaterSideClipped(posWater, colWater, uvWater, idxWater,
-                                            x, y, z, f, t, hSelf, hNei);
+                                    addWaterSideClipped(water, x, y, z, f, t, hSelf, hNei);
                                 }
                                 // Topo/baixo continuam ocultos contra água
                                 else {
@@ -311,187 +421,259 @@ public class Chunk {
                                 }
                             } else {
                                 // Contra não-água: face completa normal
-                                addFaceWithMeta(posWater, colWater, uvWater, idxWater, x, y, z, f, t, meta);
+                                addFaceWithMeta(water, x, y, z, f, t, meta);
                             }
                         }
                     }
                 }
             }
         }
-        // SOLID mesh
-        Mesh meshS = new Mesh();
-        FloatBuffer posBufS = BufferUtils.createFloatBuffer(posSolid.size());
-        for (Float f : posSolid) posBufS.put(f); posBufS.flip();
-        FloatBuffer colBufS = BufferUtils.createFloatBuffer(colSolid.size());
-        for (Float f : colSolid) colBufS.put(f); colBufS.flip();
-        FloatBuffer uvBufS = BufferUtils.createFloatBuffer(uvSolid.size());
-        for (Float f : uvSolid) uvBufS.put(f); uvBufS.flip();
-        IntBuffer idxBufS = BufferUtils.createIntBuffer(idxSolid.size());
-        for (Integer v : idxSolid) idxBufS.put(v); idxBufS.flip();
-        meshS.setBuffer(VertexBuffer.Type.Position, 3, posBufS);
-        meshS.setBuffer(VertexBuffer.Type.Color, 4, colBufS);
-        meshS.setBuffer(VertexBuffer.Type.TexCoord, 2, uvBufS);
-        meshS.setBuffer(VertexBuffer.Type.Index, 3, idxBufS);
-        meshS.updateBound();
-        Geometry geomS = new Geometry("chunk-solid-" + cx + "," + cz, meshS);
-        geomS.setMaterial(solidMat);
-
-        // WATER mesh
-        Mesh meshW = new Mesh();
-        FloatBuffer posBufW = BufferUtils.createFloatBuffer(posWater.size());
-        for (Float f : posWater) posBufW.put(f); posBufW.flip();
-        FloatBuffer colBufW = BufferUtils.createFloatBuffer(colWater.size());
-        for (Float f : colWater) colBufW.put(f); colBufW.flip();
-        FloatBuffer uvBufW = BufferUtils.createFloatBuffer(uvWater.size());
-        for (Float f : uvWater) uvBufW.put(f); uvBufW.flip();
-        IntBuffer idxBufW = BufferUtils.createIntBuffer(idxWater.size());
-        for (Integer v : idxWater) idxBufW.put(v); idxBufW.flip();
-        meshW.setBuffer(VertexBuffer.Type.Position, 3, posBufW);
-        meshW.setBuffer(VertexBuffer.Type.Color, 4, colBufW);
-        meshW.setBuffer(VertexBuffer.Type.TexCoord, 2, uvBufW);
-        meshW.setBuffer(VertexBuffer.Type.Index, 3, idxBufW);
-        meshW.updateBound();
-        Geometry geomW = new Geometry("chunk-water-" + cx + "," + cz, meshW);
-        geomW.setMaterial(waterMat);
+        if (greedy) buildGreedySolid(solid, y0, nb);
+        // Buffers diretos do tamanho exato; nada de Mesh vazio
+        return new MeshPair(solid.isEmpty() ? null : solid.toMesh(), water.isEmpty() ? null : water.toMesh(),
+                SectionVisibility.compute(sec));
+    }
 
+    /** Nó do chunk (já posicionado no mundo), ainda sem seções. Deve rodar na thread do jME. */
+    public Node createNode() {
         Node node = new Node("chunk-" + cx + "," + cz);
-        node.attachChild(geomS);
-        node.attachChild(geomW);
         node.setLocalTranslation(new Vector3f(cx * SIZE, 0, cz * SIZE));
         return node;
     }
 
-    private void addFace(List<Float> positions, List<Float> colors, List<Float> uvs, List<Integer> indices,
-                                int x, int y, int z, int face, BlockType type) {
-        // Wrapper antigo mantido por compatibilidade; busca meta e delega
-        addFaceWithMeta(positions, colors, uvs, indices, x, y, z, face, type, 0);
+    /** Cria os Geometry de uma seção (null se ela não tem faces). Deve rodar na thread do jME. */
+    public Node toSectionNode(int sy, MeshPair meshes, Material solidMat, Material waterMat) {
+        if (meshes == null || meshes.isEmpty()) return null;
+        Node node = new Node("section-" + cx + "," + sy + "," + cz);
+        if (meshes.solid() != null) {
+            Geometry geomS = new Geometry("chunk-solid-" + cx + "," + sy + "," + cz, meshes.solid());
+            geomS.setMaterial(solidMat);
+            node.attachChild(geomS);
+        }
+        if (meshes.water() != null) {
+            Geometry geomW = new Geometry("chunk-water-" + cx + "," + sy + "," + cz, meshes.water());
+            geomW.setMaterial(waterMat);
+            node.attachChild(geomW);
+        }
+        return node;
     }
 
-    private void addFaceWithMeta(List<Float> positions, List<Float> colors, List<Float> uvs, List<Integer> indices,
-                                        int x, int y, int z, int face, BlockType type, int meta) {
-        // Define vértices da face com base no eixo
-        float[][] v = new float[4][3];
+    /** Nó do chunk com todas as seções não vazias. Deve rodar na thread do jME. */
+    public Node toNode(MeshPair[] meshes, Material solidMat, Material waterMat) {
+        Node node = createNode();
+        for (int sy = 0; sy < meshes.length; sy++) {
+            Node sec = toSectionNode(sy, meshes[sy], solidMat, waterMat);
+            if (sec != null) node.attachChild(sec);
+        }
+        return node;
+    }
+
+    private static float faceShade(int face) {
+        return switch (face) {
+            case 2 -> 1.00f; // topo
+            case 0, 1 -> 0.80f; // lados X
+            case 4, 5 -> 0.90f; // lados Z
+            default -> 0.70f; // baixo
+        };
+    }
+
+    private void addFaceWithMeta(MeshBuilder mb, int x, int y, int z, int face, int type, int meta) {
         // Altura do topo para água "reduzida" (meta 1..7). Fontes (0) e quedas (8) ficam 1.0
         float h = 1.0f;
-        boolean isWater = (type == BlockType.WATER);
+        boolean isWater = (type == WATER_ID);
         if (isWater) {
-            h = computeWaterHeight(x, y, z, meta);
+            h = computeWaterHeight(x, y, z, meta, null);
+        }
+
+        float shade = faceShade(face);
+        float r = BlockRegistry.color(type, 0) * shade;
+        float g = BlockRegistry.color(type, 1) * shade;
+        float b = BlockRegistry.color(type, 2) * shade;
+        // Água meio transparente
+        float a = isWater ? 0.65f : BlockRegistry.color(type, 3);
+
+        // UVs usando atlas (água sempre no frame 0; a animação fica no shader)
+        int tileIndex = isWater ? WATER_TILE : BlockRegistry.tile(type, face);
+        float u0 = 0f, v0 = 0f, u1 = 1f, v1 = 1f;
+        if (ATLAS != null) {
+            u0 = ATLAS.u0(tileIndex); v0 = ATLAS.v0(tileIndex);
+            u1 = ATLAS.u1(tileIndex); v1 = ATLAS.v1(tileIndex);
         }
+
+        // Vértices da face na mesma ordem de sempre; UV retangular (u0,v0) (u1,v0) (u1,v1) (u0,v1)
+        int base;
         switch (face) {
             // +X
             case 0 -> {
-                v[0] = new float[]{x + 1, y, z};
-                v[1] = new float[]{x + 1, y, z + 1};
-                v[2] = new float[]{x + 1, y + h, z + 1};
-                v[3] = new float[]{x + 1, y + h, z};
+                base = mb.vertex(x + 1, y, z, r, g, b, a, u0, v0);
+                mb.vertex(x + 1, y, z + 1, r, g, b, a, u1, v0);
+                mb.vertex(x + 1, y + h, z + 1, r, g, b, a, u1, v1);
+                mb.vertex(x + 1, y + h, z, r, g, b, a, u0, v1);
             }
             // -X
             case 1 -> {
-                v[0] = new float[]{x, y, z + 1};
-                v[1] = new float[]{x, y, z};
-                v[2] = new float[]{x, y + h, z};
-                v[3] = new float[]{x, y + h, z + 1};
+                base = mb.vertex(x, y, z + 1, r, g, b, a, u0, v0);
+                mb.vertex(x, y, z, r, g, b, a, u1, v0);
+                mb.vertex(x, y + h, z, r, g, b, a, u1, v1);
+                mb.vertex(x, y + h, z + 1, r, g, b, a, u0, v1);
             }
             // +Y (topo)
             case 2 -> {
                 float yt = y + (isWater ? h : 1.0f);
-                v[0] = new float[]{x, yt, z};
-                v[1] = new float[]{x + 1, yt, z};
-                v[2] = new float[]{x + 1, yt, z + 1};
-                v[3] = new float[]{x, yt, z + 1};
+                base = mb.vertex(x, yt, z, r, g, b, a, u0, v0);
+                mb.vertex(x + 1, yt, z, r, g, b, a, u1, v0);
+                mb.vertex(x + 1, yt, z + 1, r, g, b, a, u1, v1);
+                mb.vertex(x, yt, z + 1, r, g, b, a, u0, v1);
             }
             // -Y (baixo)
             case 3 -> {
-                v[0] = new float[]{x, y, z + 1};
-                v[1] = new float[]{x + 1, y, z + 1};
-                v[2] = new float[]{x + 1, y, z};
-                v[3] = new float[]{x, y, z};
+                base = mb.vertex(x, y, z + 1, r, g, b, a, u0, v0);
+                mb.vertex(x + 1, y, z + 1, r, g, b, a, u1, v0);
+                mb.vertex(x + 1, y, z, r, g, b, a, u1, v1);
+                mb.vertex(x, y, z, r, g, b, a, u0, v1);
             }
             // +Z
             case 4 -> {
-                v[0] = new float[]{x + 1, y, z + 1};
-                v[1] = new float[]{x, y, z + 1};
-                v[2] = new float[]{x, y + h, z + 1};
-                v[3] = new float[]{x + 1, y + h, z + 1};
+                base = mb.vertex(x + 1, y, z + 1, r, g, b, a, u0, v0);
+                mb.vertex(x, y, z + 1, r, g, b, a, u1, v0);
+                mb.vertex(x, y + h, z + 1, r, g, b, a, u1, v1);
+                mb.vertex(x + 1, y + h, z + 1, r, g, b, a, u0, v1);
             }
             // -Z
-            case 5 -> {
-                v[0] = new float[]{x, y, z};
-                v[1] = new float[]{x + 1, y, z};
-                v[2] = new float[]{x + 1, y + h, z};
-                v[3] = new float[]{x, y + h, z};
+            default -> {
+                base = mb.vertex(x, y, z, r, g, b, a, u0, v0);
+                mb.vertex(x + 1, y, z, r, g, b, a, u1, v0);
+                mb.vertex(x + 1, y + h, z, r, g, b, a, u1, v1);
+                mb.vertex(x, y + h, z, r, g, b, a, u0, v1);
             }
         }
 
-        float shade;
-        switch (face) {
-            case 2 -> shade = 1.00f; // topo
-            case 0, 1 -> shade = 0.80f; // lados X
-            case 4, 5 -> shade = 0.90f; // lados Z
-            default -> shade = 0.70f; // baixo
-        }
-        ColorRGBA c = type.color.clone();
-        c.r *= shade; c.g *= shade; c.b *= shade;
-        // Água meio transparente
-        if (type == BlockType.WATER) {
-            c.a = 0.65f;
+        // Triângulos (CCW)
+        mb.quad(base);
+    }
+    // --- Greedy meshing (apenas blocos opacos) ---
+    // Para cada direção de face percorre as fatias perpendiculares ao eixo, monta uma máscara 2D com o id do
+    // bloco de cada face visível e mescla retângulos de mesmo id (mesmo tile e mesma cor/sombra).
+    // Eixos da máscara por face: ±X -> (u=z, v=y); ±Y -> (u=x, v=z); ±Z -> (u=x, v=y).
+    // Restrito à seção que começa em y0: as fatias ±Y e o eixo v das demais cobrem só SECTION_HEIGHT camadas.
+    private void buildGreedySolid(MeshBuilder mb, int y0, ChunkNeighbors nb) {
+        int[] mask = new int[SIZE * SECTION_HEIGHT];
+        for (int f = 0; f < 6; f++) {
+            int s0, slices, du, dv, v0;
+            switch (f) {
+                case 0, 1 -> { s0 = 0; slices = SIZE; du = SIZE; dv = SECTION_HEIGHT; v0 = y0; }
+                case 2, 3 -> { s0 = y0; slices = SECTION_HEIGHT; du = SIZE; dv = SIZE; v0 = 0; }
+                default -> { s0 = 0; slices = SIZE; du = SIZE; dv = SECTION_HEIGHT; v0 = y0; }
+            }
+            for (int s = s0; s < s0 + slices; s++) {
+                // 1) máscara: id+1 do bloco cuja face f está exposta, 0 caso contrário
+                for (int v = 0; v < dv; v++) {
+                    for (int u = 0; u < du; u++) {
+                        int x, y, z;
+                        switch (f) {
+                            case 0, 1 -> { x = s; y = v0 + v; z = u; }
+                            case 2, 3 -> { x = u; y = s; z = v; }
+                            default -> { x = u; y = v0 + v; z = s; }
+                        }
+                        int t = getId(x, y, z);
+                        int m = 0;
+                        if (BlockRegistry.isSolid(t) && t != WATER_ID
+                                && !BlockRegistry.isBlocking(idAt(x + DIRS[f][0], y + DIRS[f][1], z + DIRS[f][2], nb))) {
+                            m = t + 1;
+                        }
+                        mask[u + v * du] = m;
+                    }
+                }
+                // 2) mescla retângulos máximos linha a linha
+                for (int v = 0; v < dv; v++) {
+                    for (int u = 0; u < du; ) {
+                        int m = mask[u + v * du];
+                        if (m == 0) { u++; continue; }
+                        int w = 1;
+                        while (u + w < du && mask[u + w + v * du] == m) w++;
+                        int h = 1;
+                        grow:
+                        while (v + h < dv) {
+                            for (int k = 0; k < w; k++) {
+                                if (mask[u + k + (v + h) * du] != m) break grow;
+                            }
+                            h++;
+                        }
+                        addGreedyQuad(mb, f, s, u, v0 + v, w, h, m - 1);
+                        for (int hh = 0; hh < h; hh++) {
+                            for (int k = 0; k < w; k++) mask[u + k + (v + hh) * du] = 0;
+                        }
+                        u += w;
+                    }
+                }
+            }
         }
+    }
 
-        int base = positions.size() / 3;
-        for (int i = 0; i < 4; i++) {
-            positions.add(v[i][0]);
-            positions.add(v[i][1]);
-            positions.add(v[i][2]);
-            colors.add(c.r);
-            colors.add(c.g);
-            colors.add(c.b);
-            colors.add(c.a);
-        }
+    // Quad w x h (em blocos) na fatia s; mesma ordem de vértices das faces unitárias de addFaceWithMeta
+    private void addGreedyQuad(MeshBuilder mb, int face, int s, int u, int v, int w, int h, int type) {
+        float shade = faceShade(face);
+        float r = BlockRegistry.color(type, 0) * shade;
+        float g = BlockRegistry.color(type, 1) * shade;
+        float b = BlockRegistry.color(type, 2) * shade;
+        float a = BlockRegistry.color(type, 3);
+        int tile = BlockRegistry.tile(type, face);
 
-        // UVs usando atlas (água usa frame animado)
-        int tileIndex = type.tileForFace(face);
-        if (type == BlockType.WATER) {
-            // base 7 + frame (0..2)
-            tileIndex = 7 + getWaterAnimFrame();
-        }
-        float[] uv = (ATLAS != null) ? ATLAS.getUV(tileIndex) : new float[]{0,0,1,1};
-        // ordem consistente com os vértices v[0..3]
-        // mapeamento retangular padrão
-        uvs.add(uv[0]); uvs.add(uv[0] == uv[1] ? uv[1] : uv[1]); // dummy avoided; set below properly
-        // Para clareza, definimos diretamente por face
-        uvs.remove(uvs.size()-1); uvs.remove(uvs.size()-1);
+        int base;
         switch (face) {
-            case 0,1,4,5 -> { // faces verticais: u ao longo de X/Z, v ao longo de Y
-                // v[0],v[1],v[2],v[3]
-                uvs.add(uv[0]); uvs.add(uv[1]); // 0
-                uvs.add(uv[2]); uvs.add(uv[1]); // 1
-                uvs.add(uv[2]); uvs.add(uv[3]); // 2
-                uvs.add(uv[0]); uvs.add(uv[3]); // 3
+            case 0 -> { // +X (x = s, z = u, y = v)
+                int x = s + 1;
+                base = mb.vertex(x, v, u, r, g, b, a, 0, 0, tile);
+                mb.vertex(x, v, u + w, r, g, b, a, w, 0, tile);
+                mb.vertex(x, v + h, u + w, r, g, b, a, w, h, tile);
+                mb.vertex(x, v + h, u, r, g, b, a, 0, h, tile);
             }
-            case 2,3 -> { // topo/baixo: u->x, v->z
-                uvs.add(uv[0]); uvs.add(uv[1]);
-                uvs.add(uv[2]); uvs.add(uv[1]);
-                uvs.add(uv[2]); uvs.add(uv[3]);
-                uvs.add(uv[0]); uvs.add(uv[3]);
+            case 1 -> { // -X
+                int x = s;
+                base = mb.vertex(x, v, u + w, r, g, b, a, 0, 0, tile);
+                mb.vertex(x, v, u, r, g, b, a, w, 0, tile);
+                mb.vertex(x, v + h, u, r, g, b, a, w, h, tile);
+                mb.vertex(x, v + h, u + w, r, g, b, a, 0, h, tile);
+            }
+            case 2 -> { // +Y (x = u, y = s, z = v)
+                int y = s + 1;
+                base = mb.vertex(u, y, v, r, g, b, a, 0, 0, tile);
+                mb.vertex(u + w, y, v, r, g, b, a, w, 0, tile);
+                mb.vertex(u + w, y, v + h, r, g, b, a, w, h, tile);
+                mb.vertex(u, y, v + h, r, g, b, a, 0, h, tile);
+            }
+            case 3 -> { // -Y
+                int y = s;
+                base = mb.vertex(u, y, v + h, r, g, b, a, 0, 0, tile);
+                mb.vertex(u + w, y, v + h, r, g, b, a, w, 0, tile);
+                mb.vertex(u + w, y, v, r, g, b, a, w, h, tile);
+                mb.vertex(u, y, v, r, g, b, a, 0, h, tile);
+            }
+            case 4 -> { // +Z (x = u, y = v, z = s)
+                int z = s + 1;
+                base = mb.vertex(u + w, v, z, r, g, b, a, 0, 0, tile);
+                mb.vertex(u, v, z, r, g, b, a, w, 0, tile);
+                mb.vertex(u, v + h, z, r, g, b, a, w, h, tile);
+                mb.vertex(u + w, v + h, z, r, g, b, a, 0, h, tile);
+            }
+            default -> { // -Z
+                int z = s;
+                base = mb.vertex(u, v, z, r, g, b, a, 0, 0, tile);
+                mb.vertex(u + w, v, z, r, g, b, a, w, 0, tile);
+                mb.vertex(u + w, v + h, z, r, g, b, a, w, h, tile);
+                mb.vertex(u, v + h, z, r, g, b, a, 0, h, tile);
             }
         }
-
-        // Triângulos (CCW)
-        indices.add(base);
-        indices.add(base + 1);
-        indices.add(base + 2);
-        indices.add(base);
-        indices.add(base + 2);
-        indices.add(base + 3);
+        mb.quad(base);
     }
 
     // Altura da água por nível, estilo MC: 0 (fonte) e 8 (queda) = 1.0; 1..7 = 1.0 - level*(1/8)
     // Se estiver acima de ar/queda, considera coluna cheia (1.0)
-    private float computeWaterHeight(int x, int y, int z, int meta) {
+    private float computeWaterHeight(int x, int y, int z, int meta, ChunkNeighbors nb) {
         if (meta <= 0 || meta == 8) return 1.0f;
         // níveis 1..7
-        BlockType below = get(x, y - 1, z);
-        if (below == BlockType.AIR || (below == BlockType.WATER && getMeta(x, y - 1, z) == 8)) {
+        int below = idAt(x, y - 1, z, nb);
+        if (below == 0 || (below == WATER_ID && metaAt(x, y - 1, z, nb) == 8)) {
             return 1.0f; // coluna/sobre queda: altura cheia
         }
         int level = Math.max(1, Math.min(7, meta));
@@ -499,62 +681,56 @@ public class Chunk {
     }
 
     // Renderiza face lateral de água recortada de y+hFrom até y+hTo (mostra apenas a "parede" exposta)
-    private void addWaterSideClipped(List<Float> positions, List<Float> colors, List<Float> uvs, List<Integer> indices,
-                                     int x, int y, int z, int face, BlockType type, float hTo, float hFrom) {
+    private void addWaterSideClipped(MeshBuilder mb, int x, int y, int z, int face, int type, float hTo, float hFrom) {
         // Segurança
         if (hTo <= hFrom + 1e-5f) return;
 
         float y0 = y + hFrom;
         float y1 = y + hTo;
 
-        float[][] v = new float[4][3];
+        float shade = (face == 0 || face == 1) ? 0.80f : 0.90f;
+        float r = BlockRegistry.color(type, 0) * shade;
+        float g = BlockRegistry.color(type, 1) * shade;
+        float b = BlockRegistry.color(type, 2) * shade;
+        float a = 0.65f;
+
+        int tileIndex = WATER_TILE;
+        float u0 = 0f, v0 = 0f, u1 = 1f, v1 = 1f;
+        if (ATLAS != null) {
+            u0 = ATLAS.u0(tileIndex); v0 = ATLAS.v0(tileIndex);
+            u1 = ATLAS.u1(tileIndex); v1 = ATLAS.v1(tileIndex);
+        }
+
+        // Mapeamento vertical padrão
+        int base;
         switch (face) {
             case 0 -> { // +X
-                v[0] = new float[]{x + 1, y0, z};
-                v[1] = new float[]{x + 1, y0, z + 1};
-                v[2] = new float[]{x + 1, y1, z + 1};
-                v[3] = new float[]{x + 1, y1, z};
+                base = mb.vertex(x + 1, y0, z, r, g, b, a, u0, v0);
+                mb.vertex(x + 1, y0, z + 1, r, g, b, a, u1, v0);
+                mb.vertex(x + 1, y1, z + 1, r, g, b, a, u1, v1);
+                mb.vertex(x + 1, y1, z, r, g, b, a, u0, v1);
             }
             case 1 -> { // -X
-                v[0] = new float[]{x, y0, z + 1};
-                v[1] = new float[]{x, y0, z};
-                v[2] = new float[]{x, y1, z};
-                v[3] = new float[]{x, y1, z + 1};
+                base = mb.vertex(x, y0, z + 1, r, g, b, a, u0, v0);
+                mb.vertex(x, y0, z, r, g, b, a, u1, v0);
+                mb.vertex(x, y1, z, r, g, b, a, u1, v1);
+                mb.vertex(x, y1, z + 1, r, g, b, a, u0, v1);
             }
             case 4 -> { // +Z
-                v[0] = new float[]{x + 1, y0, z + 1};
-                v[1] = new float[]{x, y0, z + 1};
-                v[2] = new float[]{x, y1, z + 1};
-                v[3] = new float[]{x + 1, y1, z + 1};
+                base = mb.vertex(x + 1, y0, z + 1, r, g, b, a, u0, v0);
+                mb.vertex(x, y0, z + 1, r, g, b, a, u1, v0);
+                mb.vertex(x, y1, z + 1, r, g, b, a, u1, v1);
+                mb.vertex(x + 1, y1, z + 1, r, g, b, a, u0, v1);
             }
             case 5 -> { // -Z
-                v[0] = new float[]{x, y0, z};
-                v[1] = new float[]{x + 1, y0, z};
-                v[2] = new float[]{x + 1, y1, z};
-                v[3] = new float[]{x, y1, z};
+                base = mb.vertex(x, y0, z, r, g, b, a, u0, v0);
+                mb.vertex(x + 1, y0, z, r, g, b, a, u1, v0);
+                mb.vertex(x + 1, y1, z, r, g, b, a, u1, v1);
+                mb.vertex(x, y1, z, r, g, b, a, u0, v1);
             }
             default -> { return; }
         }
 
-        float shade = (face == 0 || face == 1) ? 0.80f : 0.90f;
-        ColorRGBA c = type.color.clone();
-        c.r *= shade; c.g *= shade; c.b *= shade; c.a = 0.65f;
-
-        int base = positions.size() / 3;
-        for (int i = 0; i < 4; i++) {
-            positions.add(v[i][0]); positions.add(v[i][1]); positions.add(v[i][2]);
-            colors.add(c.r); colors.add(c.g); colors.add(c.b); colors.add(c.a);
-        }
-
-        int tileIndex = 7 + getWaterAnimFrame();
-        float[] uv = (ATLAS != null) ? ATLAS.getUV(tileIndex) : new float[]{0,0,1,1};
-        // Mapeamento vertical padrão
-        uvs.add(uv[0]); uvs.add(uv[1]);
-        uvs.add(uv[2]); uvs.add(uv[1]);
-        uvs.add(uv[2]); uvs.add(uv[3]);
-        uvs.add(uv[0]); uvs.add(uv[3]);
-
-        indices.add(base); indices.add(base + 1); indices.add(base + 2);
-        indices.add(base); indices.add(base + 2); indices.add(base + 3);
+        mb.quad(base);
     }
 }
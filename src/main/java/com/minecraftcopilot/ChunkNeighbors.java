@@ -0,0 +1,68 @@
+package com.minecraftcopilot;
+
+/**
+ * Cópia somente leitura das fatias de borda dos 4 chunks vizinhos (coluna inteira), usada pelo mesher para
+ * ocultar faces entre dois chunks sólidos. É capturada na thread do jME, então pode ir para uma thread de
+ * trabalho sem que edições posteriores nos vizinhos interfiram.
+ * Vizinho ausente (não carregado) conta como ar, como antes.
+ */
+public final class ChunkNeighbors {
+
+    // Lados na ordem das faces horizontais: +X, -X, +Z, -Z
+    public static final int POS_X = 0, NEG_X = 1, POS_Z = 2, NEG_Z = 3;
+    private static final int SLICE = Chunk.SIZE * Chunk.HEIGHT;
+
+    private final byte[][] ids = new byte[4][];
+    private final byte[][] metas = new byte[4][];
+    private final int presentMask;
+
+    /** Argumentos null = vizinho não carregado. */
+    public static ChunkNeighbors capture(Chunk posX, Chunk negX, Chunk posZ, Chunk negZ) {
+        return new ChunkNeighbors(posX, negX, posZ, negZ);
+    }
+
+    private ChunkNeighbors(Chunk posX, Chunk negX, Chunk posZ, Chunk negZ) {
+        int mask = 0;
+        Chunk[] src = {posX, negX, posZ, negZ};
+        for (int side = 0; side < 4; side++) {
+            if (src[side] == null) continue;
+            ids[side] = new byte[SLICE];
+            metas[side] = new byte[SLICE];
+            src[side].copyBorder(side, ids[side], metas[side]);
+            mask |= 1 << side;
+        }
+        this.presentMask = mask;
+    }
+
+    /** Bit {@code 1 << lado} ligado para cada vizinho presente na captura. */
+    public int presentMask() {
+        return presentMask;
+    }
+
+    /**
+     * Fatia do vizinho encostada na borda {@code side} de um chunk, indexada por {@code u + SIZE * y}
+     * (u = z para os lados X, u = x para os lados Z).
+     */
+    static int sliceIdx(int u, int y) {
+        return u + Chunk.SIZE * y;
+    }
+
+    // Coordenadas locais do chunk central com x ou z fora de [0, SIZE)
+    byte idAt(int x, int y, int z) {
+        int side = sideOf(x, z);
+        byte[] s = ids[side];
+        return s == null ? 0 : s[sliceIdx(side < 2 ? z : x, y)];
+    }
+
+    byte metaAt(int x, int y, int z) {
+        int side = sideOf(x, z);
+        byte[] s = metas[side];
+        return s == null ? 0 : s[sliceIdx(side < 2 ? z : x, y)];
+    }
+
+    private static int sideOf(int x, int z) {
+        if (x >= Chunk.SIZE) return POS_X;
+        if (x < 0) return NEG_X;
+        return z >= Chunk.SIZE ? POS_Z : NEG_Z;
+    }
+}
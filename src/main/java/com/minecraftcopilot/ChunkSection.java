@@ -0,0 +1,205 @@
+package com.minecraftcopilot;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Fatia de 16 blocos de altura de um {@link Chunk}.
+ * Os blocos ficam numa paleta (ids distintos da seção) mais um array de índices empacotados em bits:
+ * 0 bits enquanto a seção é uniforme (ex.: céu só de ar, subsolo só de pedra), depois 1, 2, 4 ou 8 bits
+ * por bloco conforme a paleta cresce. Tamanhos potência de 2 fazem cada índice caber inteiro num long.
+ * O meta (nível da água) é quase todo zero e fica em {@link SparseMeta}.
+ */
+final class ChunkSection {
+
+    static final int HEIGHT = 16;
+    static final int VOLUME = Chunk.SIZE * Chunk.SIZE * HEIGHT;
+
+    private byte[] palette = new byte[4];
+    private int paletteSize = 1;       // palette[0] = AIR na seção nova
+    private int bits = 0;              // bits por índice: 0 (uniforme), 1, 2, 4 ou 8
+    private long[] data;               // null enquanto bits == 0
+    private SparseMeta meta = new SparseMeta(VOLUME);
+    private int nonAir;                // contagem de blocos != AIR
+
+    static int idx(int x, int ly, int z) {
+        return x + Chunk.SIZE * (z + Chunk.SIZE * ly);
+    }
+
+    byte getId(int i) {
+        if (bits == 0) return palette[0];
+        int bit = i * bits;
+        return palette[(int) (data[bit >>> 6] >>> (bit & 63)) & ((1 << bits) - 1)];
+    }
+
+    void setId(int i, byte id) {
+        byte old = getId(i);
+        if (old == id) return;
+        int p = paletteIndex(id);
+        if (p < 0) p = addToPalette(id);
+        writeIndex(i, p);
+        if (old == 0) nonAir++;
+        else if (id == 0) nonAir--;
+        // Voltou a ser só ar sem meta: libera a memória
+        if (nonAir == 0 && meta.isEmpty()) clearToAir();
+    }
+
+    byte getMeta(int i) {
+        return meta.get(i);
+    }
+
+    void setMeta(int i, byte value) {
+        meta.set(i, value);
+    }
+
+    /** Só ar: não gera malha nem draw call. */
+    boolean isEmpty() {
+        return nonAir == 0;
+    }
+
+    /** Só ar e sem meta: igual a uma seção nova, não precisa ser gravada nem copiada. */
+    boolean isBlank() {
+        return nonAir == 0 && bits == 0 && meta.isEmpty();
+    }
+
+    /** Todos os blocos iguais (sem array de índices). */
+    boolean isUniform() {
+        return bits == 0;
+    }
+
+    byte uniformId() {
+        return palette[0];
+    }
+
+    /** O id está na paleta. Sem falso negativo; pode dar falso positivo para um id que já saiu da seção. */
+    boolean mayContain(byte id) {
+        return paletteIndex(id) >= 0;
+    }
+
+    int paletteSize() {
+        return paletteSize;
+    }
+
+    /** Bits por índice no array empacotado (0 enquanto uniforme). */
+    int bits() {
+        return bits;
+    }
+
+    /** Bytes aproximados ocupados por esta seção (arrays + cabeçalhos). */
+    int memoryBytes() {
+        int bytes = 48 + 16 + palette.length; // objeto + array da paleta
+        if (data != null) bytes += 16 + data.length * 8;
+        return bytes + meta.memoryBytes();
+    }
+
+    /** Cópia independente; como a seção é compacta, custa poucos KB de arraycopy. */
+    ChunkSection copy() {
+        ChunkSection c = new ChunkSection();
+        c.palette = palette.clone();
+        c.paletteSize = paletteSize;
+        c.bits = bits;
+        c.data = data == null ? null : data.clone();
+        c.meta = meta.copy();
+        c.nonAir = nonAir;
+        return c;
+    }
+
+    /** Grava a forma compacta (paleta + índices empacotados + meta esparso), sem expandir para 1 byte/bloco. */
+    void write(DataOutput out) throws IOException {
+        out.writeShort(nonAir);
+        out.writeShort(paletteSize);
+        out.write(palette, 0, paletteSize);
+        out.writeByte(bits);
+        if (data != null) {
+            for (long w : data) out.writeLong(w);
+        }
+        meta.write(out);
+    }
+
+    /** Lê o que {@link #write} gravou para dentro desta seção, que deve estar recém-criada. */
+    void read(DataInput in) throws IOException {
+        int na = in.readUnsignedShort();
+        int ps = in.readUnsignedShort();
+        if (na > VOLUME || ps < 1 || ps > 256) throw new IOException("seção inválida: paleta " + ps);
+        byte[] pal = new byte[ps];
+        in.readFully(pal);
+        int b = in.readUnsignedByte();
+        if ((b != 0 && b != 1 && b != 2 && b != 4 && b != 8) || ps > (1 << b)) {
+            throw new IOException("seção inválida: " + b + " bits para paleta " + ps);
+        }
+        // Capacidade igual à que a seção teria crescendo normalmente
+        if (pal.length < Math.max(4, 1 << b)) pal = Arrays.copyOf(pal, Math.max(4, 1 << b));
+        long[] d = null;
+        if (b != 0) {
+            d = new long[VOLUME * b / 64];
+            for (int w = 0; w < d.length; w++) d[w] = in.readLong();
+        }
+        palette = pal;
+        paletteSize = ps;
+        bits = b;
+        data = d;
+        nonAir = na;
+        meta.read(in);
+    }
+
+    /** Todos os blocos passam a ser {@code id}, sem meta; a seção fica uniforme. */
+    void fill(byte id) {
+        clearToAir();
+        palette[0] = id;
+        nonAir = id == 0 ? 0 : VOLUME;
+        meta = new SparseMeta(VOLUME);
+    }
+
+    private int paletteIndex(byte id) {
+        for (int p = 0; p < paletteSize; p++) {
+            if (palette[p] == id) return p;
+        }
+        return -1;
+    }
+
+    private int addToPalette(byte id) {
+        if (paletteSize == palette.length) {
+            byte[] np = new byte[Math.min(256, palette.length * 2)];
+            System.arraycopy(palette, 0, np, 0, paletteSize);
+            palette = np;
+        }
+        int p = paletteSize++;
+        palette[p] = id;
+        if (paletteSize > (1 << bits)) resize(bits == 0 ? 1 : bits * 2);
+        return p;
+    }
+
+    // Reempacota todos os índices com mais bits por entrada
+    private void resize(int newBits) {
+        long[] nd = new long[VOLUME * newBits / 64];
+        if (bits != 0) {
+            int mask = (1 << bits) - 1;
+            for (int i = 0; i < VOLUME; i++) {
+                int bit = i * bits;
+                long p = (data[bit >>> 6] >>> (bit & 63)) & mask;
+                int nbit = i * newBits;
+                nd[nbit >>> 6] |= p << (nbit & 63);
+            }
+        }
+        // Vindo de 0 bits todos os índices são 0 = palette[0], que é o que o array zerado já diz
+        data = nd;
+        bits = newBits;
+    }
+
+    private void writeIndex(int i, int p) {
+        int bit = i * bits;
+        int w = bit >>> 6;
+        int shift = bit & 63;
+        long mask = (long) ((1 << bits) - 1) << shift;
+        data[w] = (data[w] & ~mask) | ((long) p << shift);
+    }
+
+    private void clearToAir() {
+        palette = new byte[4];
+        paletteSize = 1;
+        bits = 0;
+        data = null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.minecraftcopilot;
+
+/**
+ * Estratégia de malha para a geometria opaca dos chunks.
+ * NAIVE: um quad por face visível (UV direto no atlas).
+ * GREEDY: mescla faces coplanares do mesmo bloco/tile em quads maiores; exige o material VoxelTiled.
+ * A água é sempre gerada face a face (níveis e recortes variam por bloco).
+ */
+public enum MeshMode {
+    NAIVE,
+    GREEDY
+}
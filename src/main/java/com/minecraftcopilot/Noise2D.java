@@ -19,8 +19,8 @@ public final class Noise2D {
 
     private static float rand2D(int x, int z, int seed) {
         int h = hash(x, z, seed);
-        // Mapear para [0,1)
-        return (h & 0x7fffffff) / (float) 0x80000000;
+        // Mapear para [0,1) dividindo por 2^31 (o int 0x80000000 é negativo)
+        return (h & 0x7fffffff) / 2147483648f;
     }
 
     public static float noise(float x, float z, int seed) {
@@ -55,4 +55,114 @@ public final class Noise2D {
         }
         return sum / Math.max(norm, 1e-6f);
     }
+
+    /**
+     * {@link #fbm} numa grade de w x h pontos inteiros do mundo, {@code out[j * w + i]} para a coluna
+     * {@code x0 + i} e a linha {@code z0 + j}. Cada ponto é {@code fbm((x0 + i) * scale + offX, (z0 + j) * scale + offZ)},
+     * com resultado idêntico bit a bit ao escalar: a mesma aritmética na mesma ordem, só que a parte inteira e o
+     * smoothstep saem uma vez por coluna/linha e cada canto do reticulado é sorteado uma vez por oitava.
+     */
+    public static void fillFbmGrid(float[] out, int x0, int z0, int w, int h, float scale, float offX, float offZ,
+                                   int seed, int octaves, float lacunarity, float gain) {
+        int n = w * h;
+        float[] sum = new float[n];
+        int[] lx = new int[w], lz = new int[h];
+        float[] sx = new float[w], sz = new float[h];
+        float[] table = new float[0];
+        float amp = 0.5f;
+        float freq = 1.0f;
+        float norm = 0f;
+        for (int o = 0; o < octaves; o++) {
+            for (int i = 0; i < w; i++) {
+                float x = ((float) (x0 + i) * scale + offX) * freq;
+                lx[i] = (int) Math.floor(x);
+                sx[i] = smooth(x - lx[i]);
+            }
+            for (int j = 0; j < h; j++) {
+                float z = ((float) (z0 + j) * scale + offZ) * freq;
+                lz[j] = (int) Math.floor(z);
+                sz[j] = smooth(z - lz[j]);
+            }
+            // Escala negativa inverte a ordem: pega os extremos em vez do primeiro/último
+            int minX = Math.min(lx[0], lx[w - 1]), maxX = Math.max(lx[0], lx[w - 1]) + 1;
+            int minZ = Math.min(lz[0], lz[h - 1]), maxZ = Math.max(lz[0], lz[h - 1]) + 1;
+            int tw = maxX - minX + 1;
+            table = lattice(table, minX, minZ, tw, maxZ - minZ + 1, seed + o * 1013);
+            for (int j = 0; j < h; j++) {
+                int row = (lz[j] - minZ) * tw;
+                float fz = sz[j];
+                for (int i = 0; i < w; i++) {
+                    int t = row + lx[i] - minX;
+                    sum[j * w + i] += lerp2(table[t], table[t + 1], table[t + tw], table[t + tw + 1], sx[i], fz) * amp;
+                }
+            }
+            norm += amp;
+            freq *= lacunarity;
+            amp *= gain;
+        }
+        float d = Math.max(norm, 1e-6f);
+        for (int c = 0; c < n; c++) out[c] = sum[c] / d;
+    }
+
+    /**
+     * {@link #fbm} em n pontos soltos ({@code xs[c]}, {@code zs[c]}), para coordenadas já distorcidas (domain warp)
+     * que não formam grade. Resultado idêntico bit a bit ao escalar; os cantos do reticulado são sorteados uma vez
+     * por oitava quando os pontos ficam numa área pequena (o caso de um chunk), senão cai no sorteio por ponto.
+     */
+    public static void fillFbm(float[] out, float[] xs, float[] zs, int n,
+                               int seed, int octaves, float lacunarity, float gain) {
+        float[] sum = new float[n];
+        int[] lx = new int[n], lz = new int[n];
+        float[] table = new float[0];
+        float amp = 0.5f;
+        float freq = 1.0f;
+        float norm = 0f;
+        for (int o = 0; o < octaves; o++) {
+            int s = seed + o * 1013;
+            int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, minZ = Integer.MAX_VALUE, maxZ = Integer.MIN_VALUE;
+            for (int c = 0; c < n; c++) {
+                int ix = (int) Math.floor(xs[c] * freq);
+                int iz = (int) Math.floor(zs[c] * freq);
+                lx[c] = ix;
+                lz[c] = iz;
+                if (ix < minX) minX = ix;
+                if (ix > maxX) maxX = ix;
+                if (iz < minZ) minZ = iz;
+                if (iz > maxZ) maxZ = iz;
+            }
+            long tw = (long) maxX - minX + 2, th = (long) maxZ - minZ + 2;
+            if (n > 0 && tw * th <= 4L * n) {
+                table = lattice(table, minX, minZ, (int) tw, (int) th, s);
+                for (int c = 0; c < n; c++) {
+                    float x = xs[c] * freq, z = zs[c] * freq;
+                    int t = (lz[c] - minZ) * (int) tw + lx[c] - minX;
+                    sum[c] += lerp2(table[t], table[t + 1], table[t + (int) tw], table[t + (int) tw + 1],
+                            smooth(x - lx[c]), smooth(z - lz[c])) * amp;
+                }
+            } else {
+                for (int c = 0; c < n; c++) sum[c] += noise(xs[c] * freq, zs[c] * freq, s) * amp;
+            }
+            norm += amp;
+            freq *= lacunarity;
+            amp *= gain;
+        }
+        float d = Math.max(norm, 1e-6f);
+        for (int c = 0; c < n; c++) out[c] = sum[c] / d;
+    }
+
+    // Valores dos cantos do reticulado de (minX, minZ) a (minX + tw - 1, minZ + th - 1), linha a linha em z
+    private static float[] lattice(float[] table, int minX, int minZ, int tw, int th, int seed) {
+        if (table.length < tw * th) table = new float[tw * th];
+        for (int z = 0; z < th; z++) {
+            for (int x = 0; x < tw; x++) table[z * tw + x] = rand2D(minX + x, minZ + z, seed);
+        }
+        return table;
+    }
+
+    // Mesma interpolação de noise(), na mesma ordem
+    private static float lerp2(float v00, float v10, float v01, float v11, float sx, float sz) {
+        float ix0 = v00 + (v10 - v00) * sx;
+        float ix1 = v01 + (v11 - v01) * sx;
+        return ix0 + (ix1 - ix0) * sz;
+    }
 }
@@ -0,0 +1,139 @@
+package com.minecraftcopilot;
+
+import com.minecraftcopilot.world.ChunkMap;
+import com.minecraftcopilot.world.RegionStore;
+import com.minecraftcopilot.world.WorldGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pré-geração sem janela de uma área N x N chunks em volta da origem, para servidores de demonstração:
+ * o jogador entra e a área de spawn sai do disco em vez de ser gerada.
+ * Uso: {@code PreGenerate <seed> <N> [pasta das regiões]} (padrão: a mesma pasta do jogo,
+ * {@code saves/world-<seed>/region}).
+ * Um ForkJoinPool com todos os núcleos gera os chunks ({@link WorldGenerator}, o mesmo do ChunkManager);
+ * cada arquivo de região é escrito por uma tarefa própria, então regiões diferentes gravam em paralelo, e de uma
+ * vez ({@link RegionStore#saveAll}): a tabela é sincronizada com o disco uma vez por região, não por chunk.
+ * Chunks que já estão no disco (mundo com edições) são mantidos.
+ */
+public final class PreGenerate {
+
+    private static final AtomicInteger GENERATED = new AtomicInteger();
+    private static final AtomicInteger SKIPPED = new AtomicInteger();
+    private static final AtomicLong BYTES = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Uso: PreGenerate <seed> <N> [pasta das regiões]");
+            System.exit(2);
+        }
+        int seed = Integer.parseInt(args[0]);
+        int n = Integer.parseInt(args[1]);
+        Path dir = args.length > 2 ? Paths.get(args[2]) : Paths.get("saves", "world-" + seed, "region");
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        int min = -n / 2, max = min + n - 1;
+        int rMin = min >> RegionStore.REGION_SHIFT, rMax = max >> RegionStore.REGION_SHIFT;
+        List<RegionTask> regions = new ArrayList<>();
+        for (int rz = rMin; rz <= rMax; rz++) {
+            for (int rx = rMin; rx <= rMax; rx++) {
+                regions.add(new RegionTask(dir, seed, rx, rz, min, max));
+            }
+        }
+        System.out.printf("Pré-gerando %dx%d chunks (seed %d) em %s com %d threads, %d regiões%n",
+                n, n, seed, dir.toAbsolutePath(), threads, regions.size());
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long t0 = System.nanoTime();
+        ForkJoinTask<?> all = pool.submit(() -> ForkJoinTask.invokeAll(regions));
+        int total = n * n;
+        while (!all.isDone()) {
+            Thread.sleep(1000);
+            int done = GENERATED.get() + SKIPPED.get();
+            double s = (System.nanoTime() - t0) / 1e9;
+            System.out.printf("  %d/%d chunks (%.0f%%), %.0f chunks/s%n", done, total, 100.0 * done / total,
+                    GENERATED.get() / s);
+        }
+        all.get(); // propaga erro de alguma tarefa
+        pool.shutdown();
+        double s = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("Pronto: %d chunks gerados, %d já existiam, %.1f s, %.0f chunks/s, %.1f MB gravados%n",
+                GENERATED.get(), SKIPPED.get(), s, GENERATED.get() / s, BYTES.get() / (1024.0 * 1024.0));
+    }
+
+    // Uma região: gera os chunks dela em paralelo e grava tudo num RegionStore só dela (FULL: o objetivo é
+    // carregar sem gerar, e um delta de chunk intocado obrigaria a gerar de novo)
+    private static final class RegionTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Path dir;
+        private final int seed, rx, rz, min, max;
+
+        RegionTask(Path dir, int seed, int rx, int rz, int min, int max) {
+            this.dir = dir;
+            this.seed = seed;
+            this.rx = rx;
+            this.rz = rz;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        protected void compute() {
+            int x0 = Math.max(min, rx << RegionStore.REGION_SHIFT);
+            int x1 = Math.min(max, ((rx + 1) << RegionStore.REGION_SHIFT) - 1);
+            int z0 = Math.max(min, rz << RegionStore.REGION_SHIFT);
+            int z1 = Math.min(max, ((rz + 1) << RegionStore.REGION_SHIFT) - 1);
+            try (RegionStore store = new RegionStore(dir, RegionStore.Mode.FULL, seed)) {
+                List<ChunkTask> tasks = new ArrayList<>();
+                for (int cz = z0; cz <= z1; cz++) {
+                    for (int cx = x0; cx <= x1; cx++) {
+                        if (store.contains(cx, cz)) {
+                            SKIPPED.incrementAndGet();
+                            continue;
+                        }
+                        tasks.add(new ChunkTask(cx, cz, seed));
+                    }
+                }
+                invokeAll(tasks);
+                ChunkMap<Chunk> chunks = new ChunkMap<>(tasks.size());
+                for (ChunkTask t : tasks) chunks.put(ChunkMap.key(t.cx, t.cz), t.getRawResult());
+                BYTES.addAndGet(store.saveAll(chunks));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class ChunkTask extends RecursiveTask<Chunk> {
+        private static final long serialVersionUID = 1L;
+
+        final int cx, cz, seed;
+
+        ChunkTask(int cx, int cz, int seed) {
+            this.cx = cx;
+            this.cz = cz;
+            this.seed = seed;
+        }
+
+        @Override
+        protected Chunk compute() {
+            Chunk c = WorldGenerator.generate(cx, cz, seed);
+            GENERATED.incrementAndGet();
+            return c;
+        }
+    }
+
+    private PreGenerate() {}
+}
@@ -0,0 +1,90 @@
+package com.minecraftcopilot;
+
+import java.util.Arrays;
+
+/**
+ * Grafo de visibilidade de uma seção de 16x16x16: quais pares de faces da seção se ligam por um caminho de
+ * células que não bloqueiam (ar, água, itens). Calculado junto com a malha por um flood fill, como o
+ * "chunk visibility graph" do Minecraft; o {@code ChunkManager} usa para não desenhar seções que a câmera não
+ * alcança (soterradas ou atrás do terreno).
+ * <p>
+ * Faces na ordem de {@link Chunk}: 0 +X, 1 -X, 2 +Y, 3 -Y, 4 +Z, 5 -Z. O grafo é um long com o bit
+ * {@code a * 6 + b} ligado (e o simétrico) quando as faces a e b se enxergam.
+ */
+public final class SectionVisibility {
+
+    public static final int FACES = 6;
+    /** Todas as faces ligadas entre si (seção vazia, ou ainda sem grafo calculado). */
+    public static final long ALL = (1L << (FACES * FACES)) - 1;
+    /** Nenhuma ligação (seção maciça). */
+    public static final long NONE = 0L;
+
+    private static final int S = Chunk.SIZE, H = ChunkSection.HEIGHT;
+    // Fila e visitados reaproveitados por thread (o meshing roda nas threads de trabalho)
+    private static final ThreadLocal<int[]> QUEUE = ThreadLocal.withInitial(() -> new int[ChunkSection.VOLUME]);
+    private static final ThreadLocal<long[]> SEEN = ThreadLocal.withInitial(() -> new long[ChunkSection.VOLUME / 64]);
+
+    private SectionVisibility() {}
+
+    /** As faces {@code from} e {@code to} se ligam pelo grafo {@code vis}. */
+    public static boolean connects(long vis, int from, int to) {
+        return (vis & (1L << (from * FACES + to))) != 0;
+    }
+
+    /** Face do lado oposto (+X <-> -X etc.). */
+    public static int opposite(int face) {
+        return face ^ 1;
+    }
+
+    static long compute(ChunkSection sec) {
+        if (sec.isEmpty()) return ALL;
+        if (sec.isUniform()) return BlockRegistry.isBlocking(sec.uniformId()) ? NONE : ALL;
+        int[] queue = QUEUE.get();
+        long[] seen = SEEN.get();
+        Arrays.fill(seen, 0L);
+        // Cada região aberta que toca a borda liga todas as faces que ela toca; só vale começar pela borda
+        long vis = NONE;
+        for (int i = 0; i < ChunkSection.VOLUME; i++) {
+            if ((seen[i >>> 6] & (1L << i)) != 0) continue;
+            int x = i & (S - 1), z = (i >> 4) & (S - 1), y = i >> 8;
+            if (x != 0 && x != S - 1 && z != 0 && z != S - 1 && y != 0 && y != H - 1) continue;
+            if (BlockRegistry.isBlocking(sec.getId(i))) continue;
+            int faces = fill(sec, i, queue, seen);
+            for (int a = 0; a < FACES; a++) {
+                if ((faces & (1 << a)) == 0) continue;
+                for (int b = 0; b < FACES; b++) {
+                    if ((faces & (1 << b)) != 0) vis |= 1L << (a * FACES + b);
+                }
+            }
+            if (vis == ALL) break;
+        }
+        return vis;
+    }
+
+    // Flood fill a partir da célula aberta start (índice x + 16 * (z + 16 * y)); retorna as faces tocadas
+    private static int fill(ChunkSection sec, int start, int[] queue, long[] seen) {
+        int head = 0, tail = 0, faces = 0;
+        seen[start >>> 6] |= 1L << start;
+        queue[tail++] = start;
+        while (head < tail) {
+            int i = queue[head++];
+            int x = i & (S - 1), z = (i >> 4) & (S - 1), y = i >> 8;
+            if (x == S - 1) faces |= 1; else tail = visit(sec, i + 1, queue, tail, seen);
+            if (x == 0) faces |= 1 << 1; else tail = visit(sec, i - 1, queue, tail, seen);
+            if (y == H - 1) faces |= 1 << 2; else tail = visit(sec, i + S * S, queue, tail, seen);
+            if (y == 0) faces |= 1 << 3; else tail = visit(sec, i - S * S, queue, tail, seen);
+            if (z == S - 1) faces |= 1 << 4; else tail = visit(sec, i + S, queue, tail, seen);
+            if (z == 0) faces |= 1 << 5; else tail = visit(sec, i - S, queue, tail, seen);
+        }
+        return faces;
+    }
+
+    private static int visit(ChunkSection sec, int i, int[] queue, int tail, long[] seen) {
+        long bit = 1L << i;
+        if ((seen[i >>> 6] & bit) != 0) return tail;
+        seen[i >>> 6] |= bit;
+        if (BlockRegistry.isBlocking(sec.getId(i))) return tail;
+        queue[tail] = i;
+        return tail + 1;
+    }
+}
@@ -0,0 +1,178 @@
+package com.minecraftcopilot;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Metadados por bloco guardados só onde são diferentes de zero (na prática, água corrente).
+ * Tabela hash de sondagem linear posição -> valor; passa para um array denso quando as entradas
+ * passam de 1/8 do volume, ponto em que a tabela já gastaria mais que o array, e solta o array quando todos os
+ * valores voltam a zero.
+ */
+final class SparseMeta {
+
+    private final int volume;
+    private short[] keys;   // posição + 1 (0 = slot vazio)
+    private byte[] vals;
+    private int count;      // valores != 0, nos dois modos
+    private byte[] dense;   // não null depois de densificar
+
+    SparseMeta(int volume) {
+        this.volume = volume;
+    }
+
+    boolean isEmpty() {
+        return dense == null && count == 0;
+    }
+
+    byte get(int i) {
+        if (dense != null) return dense[i];
+        if (count == 0) return 0;
+        short k = (short) (i + 1);
+        int mask = keys.length - 1;
+        for (int s = hash(i) & mask; ; s = (s + 1) & mask) {
+            short cur = keys[s];
+            if (cur == 0) return 0;
+            if (cur == k) return vals[s];
+        }
+    }
+
+    void set(int i, byte value) {
+        if (dense != null) {
+            byte old = dense[i];
+            dense[i] = value;
+            if (old == 0 && value != 0) count++;
+            else if (old != 0 && value == 0 && --count == 0) dense = null; // tudo zerado: volta à tabela vazia
+            return;
+        }
+        if (value == 0) {
+            remove(i);
+            return;
+        }
+        if (keys == null) {
+            keys = new short[16];
+            vals = new byte[16];
+        }
+        short k = (short) (i + 1);
+        int mask = keys.length - 1;
+        int s = hash(i) & mask;
+        while (keys[s] != 0) {
+            if (keys[s] == k) {
+                vals[s] = value;
+                return;
+            }
+            s = (s + 1) & mask;
+        }
+        keys[s] = k;
+        vals[s] = value;
+        count++;
+        if (count > volume / 8) densify();
+        else if (count * 2 > keys.length) rehash(keys.length * 2);
+    }
+
+    /** Bytes aproximados ocupados (0 quando não há nenhum meta). */
+    int memoryBytes() {
+        if (dense != null) return 16 + dense.length;
+        if (keys == null) return 0;
+        return 32 + keys.length * 3;
+    }
+
+    /** Cópia independente (para snapshots de gravação). */
+    SparseMeta copy() {
+        SparseMeta c = new SparseMeta(volume);
+        c.keys = keys == null ? null : keys.clone();
+        c.vals = vals == null ? null : vals.clone();
+        c.count = count;
+        c.dense = dense == null ? null : dense.clone();
+        return c;
+    }
+
+    // Gravação: quantidade de valores != 0 e pares (posição, valor), tanto no modo tabela quanto denso
+    void write(DataOutput out) throws IOException {
+        if (dense != null) {
+            out.writeShort(count);
+            for (int i = 0; i < volume; i++) {
+                if (dense[i] == 0) continue;
+                out.writeShort(i);
+                out.writeByte(dense[i]);
+            }
+            return;
+        }
+        out.writeShort(count);
+        if (count == 0) return;
+        for (int j = 0; j < keys.length; j++) {
+            if (keys[j] == 0) continue;
+            out.writeShort(keys[j] - 1);
+            out.writeByte(vals[j]);
+        }
+    }
+
+    // Lê o que write() gravou para dentro deste objeto (que deve estar vazio)
+    void read(DataInput in) throws IOException {
+        int n = in.readUnsignedShort();
+        if (n > volume) throw new IOException("meta inválido: " + n + " entradas");
+        for (int e = 0; e < n; e++) {
+            int i = in.readUnsignedShort();
+            if (i >= volume) throw new IOException("meta inválido: posição " + i);
+            set(i, in.readByte());
+        }
+    }
+
+    private void remove(int i) {
+        if (count == 0) return;
+        short k = (short) (i + 1);
+        int mask = keys.length - 1;
+        int s = hash(i) & mask;
+        while (keys[s] != k) {
+            if (keys[s] == 0) return;
+            s = (s + 1) & mask;
+        }
+        // Deslocamento para trás: mantém os clusters contíguos sem lápides
+        int hole = s;
+        for (int j = (s + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = hash(keys[j] - 1) & mask;
+            boolean movable = (hole <= j) ? (home <= hole || home > j) : (home <= hole && home > j);
+            if (movable) {
+                keys[hole] = keys[j];
+                vals[hole] = vals[j];
+                hole = j;
+            }
+        }
+        keys[hole] = 0;
+        if (--count == 0) {
+            keys = null;
+            vals = null;
+        }
+    }
+
+    private void rehash(int cap) {
+        short[] ok = keys;
+        byte[] ov = vals;
+        keys = new short[cap];
+        vals = new byte[cap];
+        int mask = cap - 1;
+        for (int j = 0; j < ok.length; j++) {
+            if (ok[j] == 0) continue;
+            int s = hash(ok[j] - 1) & mask;
+            while (keys[s] != 0) s = (s + 1) & mask;
+            keys[s] = ok[j];
+            vals[s] = ov[j];
+        }
+    }
+
+    private void densify() {
+        byte[] d = new byte[volume];
+        for (int j = 0; j < keys.length; j++) {
+            if (keys[j] != 0) d[keys[j] - 1] = vals[j];
+        }
+        dense = d;
+        keys = null;
+        vals = null;
+    }
+
+    private static int hash(int i) {
+        return i * 0x9E3779B1 >>> 16;
+    }
+}
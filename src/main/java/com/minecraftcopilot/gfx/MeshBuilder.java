@@ -0,0 +1,129 @@
+package com.minecraftcopilot.gfx;
+
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.util.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Construtor de malhas sem boxing: escreve vértices direto em arrays primitivos que crescem sob demanda
+ * e só no final copia para buffers diretos do tamanho exato.
+ * Instâncias são reaproveitadas por thread (ver {@link #acquire(int)}), então os arrays internos
+ * sobrevivem entre rebuilds e o custo de alocação some depois do primeiro chunk.
+ */
+public final class MeshBuilder {
+
+    // Slots do pool por thread (um builder por malha construída ao mesmo tempo)
+    public static final int SLOT_SOLID = 0;
+    public static final int SLOT_WATER = 1;
+    private static final int SLOTS = 2;
+
+    private static final ThreadLocal<MeshBuilder[]> POOL = ThreadLocal.withInitial(() -> {
+        MeshBuilder[] arr = new MeshBuilder[SLOTS];
+        for (int i = 0; i < SLOTS; i++) arr[i] = new MeshBuilder();
+        return arr;
+    });
+
+    /** Builder reaproveitado da thread atual, já zerado. Não guardar a referência entre rebuilds. */
+    public static MeshBuilder acquire(int slot) {
+        MeshBuilder b = POOL.get()[slot];
+        b.reset();
+        return b;
+    }
+
+    private float[] pos = new float[3 * 1024];
+    private float[] col = new float[4 * 1024];
+    private float[] uv = new float[2 * 1024];
+    private float[] tile = new float[1024]; // índice do tile por vértice (TexCoord2), só no modo greedy
+    private boolean hasTile = false;
+    private int[] idx = new int[6 * 256];
+    private int vertexCount = 0;
+    private int indexCount = 0;
+
+    public MeshBuilder() {}
+
+    public void reset() {
+        vertexCount = 0;
+        indexCount = 0;
+        hasTile = false;
+    }
+
+    public int vertexCount() { return vertexCount; }
+    public int indexCount() { return indexCount; }
+    public boolean isEmpty() { return indexCount == 0; }
+
+    /** Adiciona um vértice e retorna o seu índice. */
+    public int vertex(float x, float y, float z, float r, float g, float b, float a, float u, float v) {
+        ensureVertexCapacity(vertexCount + 1);
+        int p = vertexCount * 3;
+        pos[p] = x; pos[p + 1] = y; pos[p + 2] = z;
+        int c = vertexCount * 4;
+        col[c] = r; col[c + 1] = g; col[c + 2] = b; col[c + 3] = a;
+        int t = vertexCount * 2;
+        uv[t] = u; uv[t + 1] = v;
+        return vertexCount++;
+    }
+
+    /**
+     * Vértice com UV local (em blocos) e índice do tile no atlas, para o material VoxelTiled.
+     * Não misturar com {@link #vertex(float, float, float, float, float, float, float, float, float)} na mesma malha.
+     */
+    public int vertex(float x, float y, float z, float r, float g, float b, float a, float u, float v, int tileIndex) {
+        int i = vertex(x, y, z, r, g, b, a, u, v);
+        tile[i] = tileIndex;
+        hasTile = true;
+        return i;
+    }
+
+    /** Dois triângulos (CCW) para os quatro últimos vértices a partir de {@code base}. */
+    public void quad(int base) {
+        ensureIndexCapacity(indexCount + 6);
+        idx[indexCount++] = base;
+        idx[indexCount++] = base + 1;
+        idx[indexCount++] = base + 2;
+        idx[indexCount++] = base;
+        idx[indexCount++] = base + 2;
+        idx[indexCount++] = base + 3;
+    }
+
+    private void ensureVertexCapacity(int vertices) {
+        if (vertices * 3 <= pos.length) return;
+        int cap = Math.max(vertices, (pos.length / 3) * 2);
+        pos = Arrays.copyOf(pos, cap * 3);
+        col = Arrays.copyOf(col, cap * 4);
+        uv = Arrays.copyOf(uv, cap * 2);
+        tile = Arrays.copyOf(tile, cap);
+    }
+
+    private void ensureIndexCapacity(int indices) {
+        if (indices <= idx.length) return;
+        idx = Arrays.copyOf(idx, Math.max(indices, idx.length * 2));
+    }
+
+    /** Cria um Mesh do jME com buffers diretos do tamanho exato do conteúdo atual. */
+    public Mesh toMesh() {
+        Mesh mesh = new Mesh();
+        FloatBuffer posBuf = BufferUtils.createFloatBuffer(vertexCount * 3);
+        posBuf.put(pos, 0, vertexCount * 3).flip();
+        FloatBuffer colBuf = BufferUtils.createFloatBuffer(vertexCount * 4);
+        colBuf.put(col, 0, vertexCount * 4).flip();
+        FloatBuffer uvBuf = BufferUtils.createFloatBuffer(vertexCount * 2);
+        uvBuf.put(uv, 0, vertexCount * 2).flip();
+        IntBuffer idxBuf = BufferUtils.createIntBuffer(indexCount);
+        idxBuf.put(idx, 0, indexCount).flip();
+        mesh.setBuffer(VertexBuffer.Type.Position, 3, posBuf);
+        mesh.setBuffer(VertexBuffer.Type.Color, 4, colBuf);
+        mesh.setBuffer(VertexBuffer.Type.TexCoord, 2, uvBuf);
+        if (hasTile) {
+            FloatBuffer tileBuf = BufferUtils.createFloatBuffer(vertexCount);
+            tileBuf.put(tile, 0, vertexCount).flip();
+            mesh.setBuffer(VertexBuffer.Type.TexCoord2, 1, tileBuf);
+        }
+        mesh.setBuffer(VertexBuffer.Type.Index, 3, idxBuf);
+        mesh.updateBound();
+        return mesh;
+    }
+}
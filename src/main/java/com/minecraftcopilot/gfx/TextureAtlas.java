@@ -17,6 +17,8 @@ public class TextureAtlas {
     private final BufferedImage atlas;
     private final float uvInsetU;
     private final float uvInsetV;
+    // UVs pré-calculados por tile (u0, v0, u1, v1) para o mesher não alocar arrays por face
+    private final float[] uvTable;
 
     public TextureAtlas(int tileSize, int tiles) {
         this.tileSize = tileSize;
@@ -27,6 +29,11 @@ public class TextureAtlas {
         // inset de meia célula de pixel para evitar bleeding entre tiles
         this.uvInsetU = 0.5f / (float) width;
         this.uvInsetV = 0.5f / (float) height;
+        this.uvTable = new float[tiles * 4];
+        for (int t = 0; t < tiles; t++) {
+            float[] uv = getUV(t);
+            System.arraycopy(uv, 0, uvTable, t * 4, 4);
+        }
         buildDefaultTiles();
     }
 
@@ -446,6 +453,15 @@ public class TextureAtlas {
         return new float[]{u0, v0, u1, v1};
     }
 
+    public int getTileCount() { return tiles; }
+    public int getTileSize() { return tileSize; }
+
+    // Acesso sem alocação aos UVs do tile (mesmo resultado de getUV)
+    public float u0(int tileIndex) { return uvTable[tileIndex * 4]; }
+    public float v0(int tileIndex) { return uvTable[tileIndex * 4 + 1]; }
+    public float u1(int tileIndex) { return uvTable[tileIndex * 4 + 2]; }
+    public float v1(int tileIndex) { return uvTable[tileIndex * 4 + 3]; }
+
     public Texture2D buildTexture(AssetManager assetManager) {
         AWTLoader loader = new AWTLoader();
         Image img = loader.load(atlas, true);
@@ -220,6 +220,10 @@ public class MobManager extends BaseAppState {
         int wx = (int)Math.floor(x);
         int wz = (int)Math.floor(z);
         int wy = Math.min(Chunk.HEIGHT - 1, (int)Math.floor(startY + 3));
+        // Caso comum: nada bloqueante acima do ponto de partida, então o chão é o topo da coluna
+        int surface = chunkManager.getSurfaceY(wx, wz);
+        if (surface <= wy) return Math.max(0, surface);
+        // Debaixo de copa ou teto: desce a partir do ponto de partida
         for (int y = wy; y >= 0; y--) {
             if (chunkManager.isBlockingAtWorld(wx, y, wz)) return y;
         }
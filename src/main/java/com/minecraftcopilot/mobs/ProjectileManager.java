@@ -16,6 +16,7 @@ import com.jme3.scene.Mesh;
 import com.jme3.scene.VertexBuffer;
 import com.jme3.scene.shape.Box;
 import com.minecraftcopilot.world.ChunkManager;
+import com.minecraftcopilot.world.VoxelHit;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -150,19 +151,9 @@ public class ProjectileManager extends BaseAppState {
                 }
             }
 
-            // Colisão com mundo: amostragem ao longo do segmento (passos ~0.15m)
-            float segLen = to.subtract(from).length();
-            int samples = Math.max(1, (int) FastMath.ceil(segLen / 0.15f));
-            Vector3f stepVec = to.subtract(from).divide(samples);
-            Vector3f p = from.clone();
-            for (int i = 0; i < samples; i++) {
-                p = p.add(stepVec);
-                int wx = (int) FastMath.floor(p.x);
-                int wy = (int) FastMath.floor(p.y);
-                int wz = (int) FastMath.floor(p.z);
-                if (cm.isBlockingAtWorld(wx, wy, wz)) {
-                    done = true; break;
-                }
+            // Colisão com mundo: varredura do segmento voxel a voxel
+            if (cm.sweep(from, to) != null) {
+                done = true;
             }
 
             // Atualiza pose e tempo de vida
@@ -305,25 +296,18 @@ public class ProjectileManager extends BaseAppState {
                 }
             }
 
-            // colisão com mundo por amostragem
-            float segLen = to.subtract(from).length();
-            int samples = Math.max(1, (int) FastMath.ceil(segLen / 0.1f));
-            Vector3f p = from.clone();
-            Vector3f inc = to.subtract(from).divide(samples);
-            for (int i = 0; i < samples; i++) {
-                p = p.add(inc);
-                int wx = (int) FastMath.floor(p.x);
-                int wy = (int) FastMath.floor(p.y);
-                int wz = (int) FastMath.floor(p.z);
-                if (cm.isBlockingAtWorld(wx, wy, wz)) {
-                    // grudar na superfície e ficar por alguns segundos
-                    pos.set(p);
-                    geo.setLocalTranslation(pos);
-                    alignToVelocity();
-                    stuck = true;
-                    stuckTimer = 6.0f;
-                    return false;
-                }
+            // colisão com mundo: varredura do segmento voxel a voxel
+            VoxelHit hit = cm.sweep(from, to);
+            if (hit != null) {
+                // grudar na superfície (ponto de entrada na face) e ficar por alguns segundos
+                float len = step.length();
+                float f = len > 1e-6f ? hit.distance() / len : 0f;
+                pos.set(from).addLocal(step.x * f, step.y * f, step.z * f);
+                geo.setLocalTranslation(pos);
+                alignToVelocity();
+                stuck = true;
+                stuckTimer = 6.0f;
+                return false;
             }
 
             // atualiza pose
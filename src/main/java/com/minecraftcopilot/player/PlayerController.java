@@ -14,7 +14,6 @@ import com.jme3.math.Quaternion;
 import com.jme3.math.Vector3f;
 import com.minecraftcopilot.world.ChunkManager;
 import com.minecraftcopilot.BlockType;
-import com.minecraftcopilot.Chunk;
 import com.minecraftcopilot.ui.ChatState;
 import com.jme3.math.Vector2f;
 
@@ -479,16 +478,12 @@ public class PlayerController extends BaseAppState {
     // --- Correção de spawn ---
     private void tryAlignToGround() {
         if (chunkManager == null) return;
-        // Procura solo em (x,z) atual descendo do topo do mundo
-        int wx = floor(position.x);
-        int wz = floor(position.z);
-        int top = Chunk.HEIGHT - 1;
-        for (int y = top; y >= 0; y--) {
-            if (chunkManager.isBlockingAtWorld(wx, y, wz)) {
-                float feet = y + 1 + EPS;
-                position.y = feet + eyeHeight;
-                return;
-            }
+        // Solo em (x,z) atual: bloco bloqueante mais alto da coluna
+        int y = chunkManager.getSurfaceY(floor(position.x), floor(position.z));
+        if (y >= 0) {
+            float feet = y + 1 + EPS;
+            position.y = feet + eyeHeight;
+            return;
         }
         // Se não encontrou (chunks não carregados), deixa para o ensureNotInsideSolidOrAlign()
     }
@@ -505,18 +500,14 @@ public class PlayerController extends BaseAppState {
             }
         }
         // 2) se não estiver colidindo, tenta alinhar exatamente acima do solo (caso esteja no vazio)
-        int wx = floor(position.x);
-        int wz = floor(position.z);
-        int top = Chunk.HEIGHT - 1;
-        for (int y = top; y >= 0; y--) {
-            if (chunkManager.isBlockingAtWorld(wx, y, wz)) {
-                float feet = y + 1 + EPS;
-                // Se já estamos acima, não desce, apenas confirma
-                if (position.y - eyeHeight < feet) {
-                    position.y = feet + eyeHeight;
-                }
-                return true;
+        int y = chunkManager.getSurfaceY(floor(position.x), floor(position.z));
+        if (y >= 0) {
+            float feet = y + 1 + EPS;
+            // Se já estamos acima, não desce, apenas confirma
+            if (position.y - eyeHeight < feet) {
+                position.y = feet + eyeHeight;
             }
+            return true;
         }
         // Se ainda não há informação de terreno (nenhum bloco bloqueante encontrado), continua tentando posteriormente
         return false;
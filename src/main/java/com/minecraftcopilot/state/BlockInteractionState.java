@@ -3,8 +3,6 @@ package com.minecraftcopilot.state;
 import com.jme3.app.Application;
 import com.jme3.app.SimpleApplication;
 import com.jme3.app.state.BaseAppState;
-import com.jme3.collision.CollisionResult;
-import com.jme3.collision.CollisionResults;
 import com.jme3.input.MouseInput;
 import com.jme3.input.controls.ActionListener;
 import com.jme3.input.controls.MouseButtonTrigger;
@@ -12,34 +10,31 @@ import com.jme3.material.Material;
 import com.jme3.material.RenderState;
 import com.jme3.math.ColorRGBA;
 import com.jme3.math.FastMath;
-import com.jme3.math.Ray;
 import com.jme3.math.Vector3f;
 import com.jme3.renderer.queue.RenderQueue;
 import com.jme3.scene.Geometry;
-import com.jme3.scene.Node;
 import com.jme3.scene.debug.WireBox;
 import com.jme3.scene.shape.Box;
 import com.minecraftcopilot.BlockType;
-import com.minecraftcopilot.Chunk;
 import com.minecraftcopilot.world.ChunkManager;
 import com.minecraftcopilot.ui.HotbarState;
 import com.minecraftcopilot.mobs.MobManager;
 import com.minecraftcopilot.world.DevFestBuilder;
+import com.minecraftcopilot.world.VoxelHit;
 
 public class BlockInteractionState extends BaseAppState {
 
     private static final String MAP_BREAK = "BI_Break";
 
     private SimpleApplication app;
-    private final Node worldNode;
     private final ChunkManager chunkManager;
     private final HotbarState hotbar;
 
     // highlight
     private Geometry outline;
     private int selWx, selWy, selWz;
+    private int selNx, selNy, selNz; // normal da face mirada (lado onde um bloco novo é colocado)
     private boolean hasSelection = false;
-    private Vector3f lastHitContact;
     private Vector3f lastRayDir;
     // AABB do jogador (deve bater com PlayerController)
     private static final float PC_HALF_WIDTH = 0.3f;
@@ -63,8 +58,7 @@ public class BlockInteractionState extends BaseAppState {
     private static final float BREAK_REPEAT_PERIOD = 0.12f; // segundos entre ações
     private static final float PLACE_REPEAT_PERIOD = 0.10f;
 
-    public BlockInteractionState(Node worldNode, ChunkManager chunkManager, HotbarState hotbar) {
-        this.worldNode = worldNode;
+    public BlockInteractionState(ChunkManager chunkManager, HotbarState hotbar) {
         this.chunkManager = chunkManager;
         this.hotbar = hotbar;
     }
@@ -96,45 +90,17 @@ public class BlockInteractionState extends BaseAppState {
 
     @Override
     public void update(float tpf) {
-        // Ray a partir da câmera
-    Vector3f origin = app.getCamera().getLocation();
-    Vector3f dir = app.getCamera().getDirection().normalize();
-        Ray ray = new Ray(origin, dir);
-        ray.setLimit(6f); // alcance de mineração curto
-
-        CollisionResults results = new CollisionResults();
-        worldNode.collideWith(ray, results);
-        if (results.size() == 0) {
+        // Raio a partir da câmera direto nos dados de blocos (sem colisão com triângulos das malhas)
+        Vector3f origin = app.getCamera().getLocation();
+        Vector3f dir = app.getCamera().getDirection().normalize();
+        VoxelHit hit = chunkManager.raycast(origin, dir, 6f); // alcance de mineração curto
+        if (hit == null) {
             clearSelection();
             return;
         }
-        CollisionResult hit = results.getClosestCollision();
-        if (hit == null) { clearSelection(); return; }
-
-        Geometry geom = hit.getGeometry();
-        if (geom == null) { clearSelection(); return; }
-
-    Vector3f contact = hit.getContactPoint();
-    // Usar a direção do raio para decidir o lado: avançar levemente "para dentro" do bloco atingido
-    // Isso evita depender do sentido do normal do triângulo (que pode estar invertido em algumas faces)
-    Vector3f chunkOrigin = geom.getWorldTranslation();
-    Vector3f local = contact.subtract(chunkOrigin).add(dir.mult(1e-3f));
 
-        int lx = (int) Math.floor(local.x);
-        int ly = (int) Math.floor(local.y);
-        int lz = (int) Math.floor(local.z);
-
-        if (lx < 0 || lx >= Chunk.SIZE || lz < 0 || lz >= Chunk.SIZE || ly < 0 || ly >= Chunk.HEIGHT) {
-            clearSelection();
-            return;
-        }
-
-        int wx = (int) (chunkOrigin.x + lx);
-        int wy = ly;
-        int wz = (int) (chunkOrigin.z + lz);
-
-        setSelection(wx, wy, wz);
-        lastHitContact = contact;
+        setSelection(hit.x(), hit.y(), hit.z());
+        selNx = hit.normalX(); selNy = hit.normalY(); selNz = hit.normalZ();
         lastRayDir = dir;
 
         // Atualiza partículas de detrito
@@ -175,7 +141,6 @@ public class BlockInteractionState extends BaseAppState {
         hasSelection = false;
         if (outline != null) outline.removeFromParent();
         outline = null;
-        lastHitContact = null;
         lastRayDir = null;
     }
 
@@ -306,23 +271,13 @@ public class BlockInteractionState extends BaseAppState {
     private void performPlaceAtSelection() {
         if (!hasSelection || hotbar == null) return;
         BlockType toPlace = hotbar.getSelectedBlock();
-        if (toPlace == null || toPlace == BlockType.AIR || lastHitContact == null || lastRayDir == null) return;
+        if (toPlace == null || toPlace == BlockType.AIR || lastRayDir == null) return;
     if (toPlace == BlockType.SWORD || toPlace == BlockType.SWORD2 || toPlace == BlockType.BOW || toPlace == BlockType.ARROW) return; // não coloca itens de arma/munição
 
-        Vector3f outside = lastHitContact.subtract(lastRayDir.mult(1e-3f));
-        int pwx = (int) Math.floor(outside.x);
-        int pwy = (int) Math.floor(outside.y);
-        int pwz = (int) Math.floor(outside.z);
-        if (pwx == selWx && pwy == selWy && pwz == selWz) {
-            Vector3f d = lastRayDir;
-            if (Math.abs(d.x) >= Math.abs(d.y) && Math.abs(d.x) >= Math.abs(d.z)) {
-                pwx += (d.x > 0 ? -1 : 1);
-            } else if (Math.abs(d.y) >= Math.abs(d.x) && Math.abs(d.y) >= Math.abs(d.z)) {
-                pwy += (d.y > 0 ? -1 : 1);
-            } else {
-                pwz += (d.z > 0 ? -1 : 1);
-            }
-        }
+        // Célula vizinha pela face atingida
+        int pwx = selWx + selNx;
+        int pwy = selWy + selNy;
+        int pwz = selWz + selNz;
         if (wouldIntersectPlayer(pwx, pwy, pwz)) return;
 
         if (toPlace == BlockType.EGG) {
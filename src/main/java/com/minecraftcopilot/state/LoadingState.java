@@ -93,11 +93,8 @@ public class LoadingState extends BaseAppState {
         ChunkManager cm = vgs.getChunkManager();
         if (cm == null) return;
 
-        // Progresso estimado: chunks carregados / (2r+1)^2
-        int loaded = cm.getLoadedChunkCount();
-        int r = cm.getViewRadius();
-        int expected = (2 * r + 1) * (2 * r + 1);
-        float progress = Math.max(0.02f, Math.min(1f, (float) loaded / (float) expected));
+        // Progresso real da fila de carregamento (fila + em geração contam como faltando)
+        float progress = Math.max(0.02f, cm.getLoadProgress());
 
     // Atualiza barra
     float bw = ((Quad) barBg.getMesh()).getWidth();
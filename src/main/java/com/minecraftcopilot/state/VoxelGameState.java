@@ -12,6 +12,7 @@ import com.jme3.math.Vector3f;
 import com.jme3.scene.Node;
 import com.jme3.input.controls.ActionListener;
 import com.minecraftcopilot.world.ChunkManager;
+import com.minecraftcopilot.world.RegionStore;
 import com.minecraftcopilot.player.PlayerController;
 import com.minecraftcopilot.gfx.TextureAtlas;
 import com.minecraftcopilot.ui.HotbarState;
@@ -20,16 +21,21 @@ import com.minecraftcopilot.ui.InventoryState;
 import com.minecraftcopilot.Chunk;
 import com.minecraftcopilot.ui.ChatState;
 import com.minecraftcopilot.mobs.MobManager;
+import com.minecraftcopilot.ui.DebugOverlayState;
 import com.minecraftcopilot.ui.WaterFXState;
 import com.jme3.scene.plugins.OBJLoader;
 import com.jme3.scene.plugins.gltf.GltfLoader;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 public class VoxelGameState extends BaseAppState {
 
     private SimpleApplication app;
     private Node worldNode;
     private Material chunkMaterialSolid;
     private Material chunkMaterialWater;
+    private Material chunkMaterialTiled;
     private ChunkManager chunkManager;
     private BitmapText crosshair;
     private BitmapFont font;
@@ -40,6 +46,7 @@ public class VoxelGameState extends BaseAppState {
     private com.minecraftcopilot.mobs.ProjectileManager projectileManager;
     private BlockInteractionState blockInteraction;
     private InventoryState inventory;
+    private DebugOverlayState debugOverlay;
     private int worldSeed = 1337;
     private GameMode gameMode = GameMode.CREATIVE;
     private static final String MAP_INV = "VG_Inventory";
@@ -94,8 +101,10 @@ public class VoxelGameState extends BaseAppState {
     Chunk.ATLAS = atlas;
     var tex = atlas.buildTexture(app.getAssetManager());
     this.chunkMaterialSolid.setTexture("ColorMap", tex);
-    // Água: material clonado com blend ativado
-    this.chunkMaterialWater = this.chunkMaterialSolid.clone();
+    // Água: material próprio que anima os tiles 7..9 no shader (sem remesh), com blend ativado
+    this.chunkMaterialWater = new Material(app.getAssetManager(), "MatDefs/VoxelWater.j3md");
+    this.chunkMaterialWater.setTexture("ColorMap", tex);
+    this.chunkMaterialWater.setFloat("TileCount", atlas.getTileCount());
     this.chunkMaterialWater.getAdditionalRenderState().setBlendMode(
         com.jme3.material.RenderState.BlendMode.Alpha);
         // Podemos manter culling Off por robustez no protótipo
@@ -104,7 +113,32 @@ public class VoxelGameState extends BaseAppState {
     this.chunkMaterialWater.getAdditionalRenderState().setFaceCullMode(
         com.jme3.material.RenderState.FaceCullMode.Off);
 
+    // Material do modo greedy: repete o tile do atlas dentro de quads mesclados (UV local + índice do tile)
+    this.chunkMaterialTiled = new Material(app.getAssetManager(), "MatDefs/VoxelTiled.j3md");
+    this.chunkMaterialTiled.setTexture("ColorMap", tex);
+    this.chunkMaterialTiled.setFloat("TileCount", atlas.getTileCount());
+    this.chunkMaterialTiled.setFloat("TileInset", 0.5f / atlas.getTileSize());
+    this.chunkMaterialTiled.getAdditionalRenderState().setFaceCullMode(
+        com.jme3.material.RenderState.FaceCullMode.Off);
+
     this.chunkManager = new ChunkManager(worldNode, chunkMaterialSolid, worldSeed, 6);
+    this.chunkManager.setTiledMaterial(chunkMaterialTiled);
+    this.chunkManager.setWaterMaterial(chunkMaterialWater);
+    // Chunks editados persistem entre descarregamentos/sessões em saves/world-<seed>/region, como delta
+    // sobre o terreno gerado pela seed. Problema na abertura vai para o chat, não só para o console
+    String saveWarning = null;
+    try {
+        this.chunkManager.setRegionStore(new RegionStore(Paths.get("saves", "world-" + worldSeed, "region"),
+                RegionStore.Mode.DELTA, worldSeed));
+        int kept = chunkManager.getKeptJournalChunks();
+        if (kept > 0) {
+            saveWarning = kept + " chunk(s) salvos não puderam ser lidos (terreno de outra versão?); "
+                    + "as edições deles ficaram guardadas no journal";
+        }
+    } catch (IOException e) {
+        e.printStackTrace(); // segue sem persistência
+        saveWarning = "Salvamento desativado nesta sessão: " + e.getMessage();
+    }
         app.getRootNode().attachChild(worldNode);
 
         app.getCamera().setLocation(new Vector3f(16, 30, 48));
@@ -124,7 +158,7 @@ public class VoxelGameState extends BaseAppState {
         getStateManager().attach(hotbar);
 
     // Interação com blocos: contorno + destruir com clique esquerdo + colocar com direito
-        blockInteraction = new BlockInteractionState(worldNode, chunkManager, hotbar);
+        blockInteraction = new BlockInteractionState(chunkManager, hotbar);
         getStateManager().attach(blockInteraction);
 
         // Mapeia tecla do inventário (E)
@@ -142,6 +176,7 @@ public class VoxelGameState extends BaseAppState {
         // Chat: abre com T e permite comandos (ex.: /cleanwater)
         chat = new ChatState(chunkManager);
         getStateManager().attach(chat);
+        if (saveWarning != null) chat.systemMessage(saveWarning);
 
     // Mobs
         mobManager = new MobManager(chunkManager);
@@ -153,6 +188,10 @@ public class VoxelGameState extends BaseAppState {
 
     // Efeito visual de água (overlay quando submerso)
     getStateManager().attach(new WaterFXState());
+
+        // Overlay de depuração (F3): seções desenhadas/ocultas pela oclusão
+        debugOverlay = new DebugOverlayState(chunkManager);
+        getStateManager().attach(debugOverlay);
     }
 
     @Override
@@ -162,7 +201,8 @@ public class VoxelGameState extends BaseAppState {
             worldNode.detachAllChildren();
         }
         if (chunkManager != null) {
-            chunkManager.clearAll();
+            // Flush na saída: snapshot dos chunks modificados, espera a fila de gravação e fecha journal/regiões
+            chunkManager.shutdown();
         }
         if (crosshair != null) {
             crosshair.removeFromParent();
@@ -185,6 +225,10 @@ public class VoxelGameState extends BaseAppState {
             getStateManager().detach(projectileManager);
             projectileManager = null;
         }
+        if (debugOverlay != null) {
+            getStateManager().detach(debugOverlay);
+            debugOverlay = null;
+        }
         if (app != null && app.getInputManager() != null) {
             app.getInputManager().setCursorVisible(true);
             var im = app.getInputManager();
@@ -208,16 +252,27 @@ public class VoxelGameState extends BaseAppState {
     @Override
     public void update(float tpf) {
         if (chunkManager != null) {
-            // Ajusta orçamento de geração de chunks: menor durante o LoadingState para suavizar
-            int genBudget = 4;
+            // Orçamento (ms) para anexar chunks gerados pelas threads de trabalho; na tela de carregamento
+            // o jogador não está jogando, então pode gastar mais do frame para encher o mundo mais rápido
+            float integrateBudgetMs = 3f;
             if (getStateManager().getState(LoadingState.class) != null) {
-                genBudget = 2; // reduzir durante a tela de carregamento
+                integrateBudgetMs = 10f;
             }
-            chunkManager.update(app.getCamera().getLocation(), tpf, genBudget);
+            chunkManager.update(app.getCamera().getLocation(), app.getCamera().getDirection(), tpf, integrateBudgetMs);
         }
         centerCrosshair();
     }
 
+    @Override
+    public void postRender() {
+        // Fim do frame: todas as edições (jogador, água, comandos) já foram feitas, então cada seção suja
+        // é remeshada uma única vez. Mudanças no scene graph aqui entram no próximo frame.
+        if (chunkManager != null) {
+            float remeshBudgetMs = getStateManager().getState(LoadingState.class) != null ? 8f : 2f;
+            chunkManager.flushDirty(remeshBudgetMs);
+        }
+    }
+
     private void centerCrosshair() {
         if (crosshair == null) return;
         float w = app.getCamera().getWidth();
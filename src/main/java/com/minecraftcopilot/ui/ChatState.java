@@ -17,6 +17,7 @@ import com.jme3.scene.Geometry;
 import com.jme3.scene.Node;
 import com.jme3.scene.shape.Quad;
 import com.jme3.renderer.queue.RenderQueue;
+import com.minecraftcopilot.MeshMode;
 import com.minecraftcopilot.player.PlayerController;
 import com.minecraftcopilot.state.BlockInteractionState;
 import com.minecraftcopilot.world.ChunkManager;
@@ -246,6 +247,52 @@ public class ChatState extends BaseAppState {
             Vector3f camDir = app.getCamera().getDirection().clone();
             DevFestBuilder.placeDevFest(chunkManager, camPos, camDir);
             addMessage("[Sistema] DevFest instalado! 🎉");
+        } else if (c.equals("mesher") || c.startsWith("mesher ")) {
+            // /mesher [naive|greedy]: alterna o mesher dos sólidos e mostra a contagem de vértices (A/B)
+            if (chunkManager != null) {
+                String arg = c.length() > 6 ? c.substring(6).trim() : "";
+                if (arg.equals("greedy")) chunkManager.setMeshMode(MeshMode.GREEDY);
+                else if (arg.equals("naive")) chunkManager.setMeshMode(MeshMode.NAIVE);
+                int[] verts = chunkManager.countVertices();
+                addMessage("[Sistema] Mesher " + chunkManager.getMeshMode().name().toLowerCase()
+                        + ": " + verts[0] + " vértices sólidos, " + verts[1] + " de água.");
+            }
+        } else if (c.equals("occlusion") || c.startsWith("occlusion ")) {
+            // /occlusion [on|off]: liga/desliga a oclusão por grafo de visibilidade e mostra o efeito (A/B)
+            if (chunkManager != null) {
+                String arg = c.length() > 9 ? c.substring(9).trim() : "";
+                if (arg.equals("on")) chunkManager.setOcclusionCulling(true);
+                else if (arg.equals("off")) chunkManager.setOcclusionCulling(false);
+                addMessage("[Sistema] Oclusão " + (chunkManager.isOcclusionCulling() ? "ligada" : "desligada")
+                        + ": " + chunkManager.getDrawnSectionCount() + " seções desenhadas, "
+                        + chunkManager.getCulledSectionCount() + " ocultas.");
+            }
+        } else if (c.equals("save")) {
+            // /save: enfileira os chunks modificados e mostra a vazão da gravação em segundo plano
+            if (chunkManager != null) {
+                int n = chunkManager.saveAll();
+                var st = chunkManager.getSaveStats();
+                if (st == null) {
+                    addMessage("[Sistema] Mundo sem persistência.");
+                } else {
+                    addMessage(String.format("[Sistema] %d chunks na fila. Gravados: %d (%.1f KB), %.0f chunks/s, %.0f KB/s; journal %.1f KB.",
+                            n, st.chunksWritten(), st.bytesWritten() / 1024f, st.chunksPerSecond(), st.kbPerSecond(),
+                            st.journalBytes() / 1024f));
+                }
+            }
+        } else if (c.equals("mem")) {
+            // /mem: memória de blocos/meta dos chunks carregados (antes eram 32 KB fixos por chunk)
+            if (chunkManager != null) {
+                int n = chunkManager.getLoadedChunkCount();
+                long bytes = chunkManager.getLoadedMemoryBytes();
+                addMessage(String.format("[Sistema] %d chunks, %.1f KB no total, %.2f KB por chunk.",
+                        n, bytes / 1024f, n == 0 ? 0f : bytes / 1024f / n));
+                addMessage(String.format("[Sistema] %d seções com malha (raio vertical de %d seções).",
+                        chunkManager.getMeshedSectionCount(), chunkManager.getVerticalRadius()));
+                addMessage(String.format("[Sistema] Cache de descarregados: %d chunks, %.1f KB, %d acertos, %d falhas.",
+                        chunkManager.getUnloadCacheCount(), chunkManager.getUnloadCacheBytes() / 1024f,
+                        chunkManager.getUnloadCacheHits(), chunkManager.getUnloadCacheMisses()));
+            }
         } else if (c.equals("dummy") || c.equals("boneco")) {
             var mm = getStateManager().getState(com.minecraftcopilot.mobs.MobManager.class);
             if (mm != null) {
@@ -0,0 +1,91 @@
+package com.minecraftcopilot.ui;
+
+import com.jme3.app.Application;
+import com.jme3.app.SimpleApplication;
+import com.jme3.app.state.BaseAppState;
+import com.jme3.font.BitmapFont;
+import com.jme3.font.BitmapText;
+import com.jme3.input.KeyInput;
+import com.jme3.input.controls.ActionListener;
+import com.jme3.input.controls.KeyTrigger;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.queue.RenderQueue;
+import com.minecraftcopilot.world.ChunkManager;
+
+/**
+ * Overlay de depuração (F3) no canto superior esquerdo: posição da câmera, chunks carregados e seções
+ * desenhadas/ocultas pela oclusão do {@link ChunkManager}.
+ */
+public class DebugOverlayState extends BaseAppState {
+
+    private static final String MAP_TOGGLE = "DEBUG_OVERLAY_TOGGLE";
+    private static final float REFRESH_SECONDS = 0.25f; // texto novo a cada frame custa mais que a informação vale
+
+    private final ChunkManager chunkManager;
+
+    private SimpleApplication app;
+    private BitmapText text;
+    private boolean visible = false;
+    private float sinceRefresh = REFRESH_SECONDS;
+
+    public DebugOverlayState(ChunkManager cm) {
+        this.chunkManager = cm;
+    }
+
+    @Override
+    protected void initialize(Application application) {
+        this.app = (SimpleApplication) application;
+        BitmapFont font = app.getAssetManager().loadFont("Interface/Fonts/Default.fnt");
+        text = new BitmapText(font);
+        text.setColor(ColorRGBA.White);
+        text.setQueueBucket(RenderQueue.Bucket.Gui);
+
+        var im = app.getInputManager();
+        if (!im.hasMapping(MAP_TOGGLE)) {
+            im.addMapping(MAP_TOGGLE, new KeyTrigger(KeyInput.KEY_F3));
+        }
+        im.addListener(toggleListener, MAP_TOGGLE);
+    }
+
+    private final ActionListener toggleListener = (name, isPressed, tpf) -> {
+        if (!isPressed) return;
+        visible = !visible;
+        if (visible) {
+            sinceRefresh = REFRESH_SECONDS;
+            app.getGuiNode().attachChild(text);
+        } else {
+            text.removeFromParent();
+        }
+    };
+
+    @Override
+    public void update(float tpf) {
+        if (!visible || chunkManager == null) return;
+        sinceRefresh += tpf;
+        if (sinceRefresh < REFRESH_SECONDS) return;
+        sinceRefresh = 0f;
+        Vector3f p = app.getCamera().getLocation();
+        text.setText(String.format("XYZ %.1f / %.1f / %.1f%n"
+                        + "Chunks: %d carregados%n"
+                        + "Seções: %d desenhadas, %d ocultas (oclusão %s)",
+                p.x, p.y, p.z,
+                chunkManager.getLoadedChunkCount(),
+                chunkManager.getDrawnSectionCount(), chunkManager.getCulledSectionCount(),
+                chunkManager.isOcclusionCulling() ? "ligada" : "desligada"));
+        text.setLocalTranslation(6, app.getCamera().getHeight() - 6, 0);
+    }
+
+    @Override
+    protected void cleanup(Application application) {
+        var im = app.getInputManager();
+        if (im != null) {
+            if (im.hasMapping(MAP_TOGGLE)) im.deleteMapping(MAP_TOGGLE);
+            im.removeListener(toggleListener);
+        }
+        if (text != null) text.removeFromParent();
+    }
+
+    @Override protected void onEnable() {}
+    @Override protected void onDisable() {}
+}
@@ -0,0 +1,75 @@
+package com.minecraftcopilot.world;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache LRU dos chunks descarregados recentemente, guardados comprimidos ({@link ChunkCodec}, ~1-3 KB cada).
+ * Andar para lá e para cá na borda de descarregamento vira uma descompressão em vez de gerar o terreno de novo.
+ * As malhas não entram: dependem das bordas dos vizinhos no momento do remesh, que roda na thread de trabalho.
+ * Guarda só os bytes: um chunk com edições já foi para a fila de gravação antes de entrar aqui (e a
+ * {@link SavePipeline} refaz gravações que falharam); sem persistência não há o que marcar.
+ * Só a thread do jME usa esta classe.
+ */
+final class ChunkCache {
+
+    private final LinkedHashMap<Long, byte[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long capacityBytes;
+    private long usedBytes;
+    private long hits, misses;
+
+    ChunkCache(int capacityMb) {
+        setCapacityMb(capacityMb);
+    }
+
+    /** Capacidade em MB (0 desliga o cache); reduzir descarta os mais antigos na hora. */
+    void setCapacityMb(int mb) {
+        capacityBytes = Math.max(0, mb) * 1024L * 1024L;
+        evict();
+    }
+
+    int getCapacityMb() { return (int) (capacityBytes / (1024L * 1024L)); }
+
+    /** @param data chunk comprimido por {@link ChunkCodec#encode} */
+    void put(long key, byte[] data) {
+        if (data.length > capacityBytes) return;
+        byte[] old = entries.put(key, data);
+        if (old != null) usedBytes -= old.length;
+        usedBytes += data.length;
+        evict();
+    }
+
+    /** Consulta que conta acerto/falha; não remove (ver {@link #remove}). */
+    byte[] get(long key) {
+        byte[] e = entries.get(key);
+        if (e != null) hits++;
+        else misses++;
+        return e;
+    }
+
+    /** Tira a entrada (o chunk voltou a ficar carregado e o cache não deve guardar cópia antiga). */
+    byte[] remove(long key) {
+        byte[] e = entries.remove(key);
+        if (e != null) usedBytes -= e.length;
+        return e;
+    }
+
+    void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    int size() { return entries.size(); }
+    long getUsedBytes() { return usedBytes; }
+    long getHits() { return hits; }
+    long getMisses() { return misses; }
+
+    private void evict() {
+        Iterator<Map.Entry<Long, byte[]>> it = entries.entrySet().iterator();
+        while (usedBytes > capacityBytes && it.hasNext()) {
+            usedBytes -= it.next().getValue().length;
+            it.remove();
+        }
+    }
+}
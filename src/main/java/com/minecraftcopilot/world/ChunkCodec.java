@@ -0,0 +1,142 @@
+package com.minecraftcopilot.world;
+
+import com.minecraftcopilot.BlockRegistry;
+import com.minecraftcopilot.Chunk;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Chunk comprimido em bytes: um byte com o tipo do registro e depois o conteúdo passado por Deflate.
+ * Completo: {@link Chunk#writeTo}. Delta: só as células (bloco + meta) que diferem do chunk recém-gerado pela
+ * seed, que é determinístico; para ler, gera de novo e reaplica as células. O delta leva antes do Deflate a
+ * {@link WorldGenerator#version() versão} do terreno de base, e só vale sobre o terreno dessa versão.
+ * Usado pelo disco ({@link RegionStore}) e pelo cache de descarregados ({@link ChunkCache}, sempre completo).
+ */
+final class ChunkCodec {
+    private static final byte COMPRESSION_DEFLATE = 1;
+    private static final byte DELTA_DEFLATE = 2; // int com a versão do gerador e depois o Deflate
+    private static final int DELTA_HEADER = 5;
+
+    private ChunkCodec() {}
+
+    static byte[] encode(Chunk chunk) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        bytes.write(COMPRESSION_DEFLATE);
+        Deflater def = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, def))) {
+            chunk.writeTo(out);
+        } finally {
+            def.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    static boolean isDelta(byte[] data) {
+        return data.length > 0 && data[0] == DELTA_DEFLATE;
+    }
+
+    /** Versão do gerador do terreno de base de um delta. */
+    static int deltaVersion(byte[] data) throws IOException {
+        if (!isDelta(data)) throw new IOException("registro não é delta");
+        if (data.length < DELTA_HEADER) throw new IOException("delta truncado");
+        return ((data[1] & 0xFF) << 24) | ((data[2] & 0xFF) << 16) | ((data[3] & 0xFF) << 8) | (data[4] & 0xFF);
+    }
+
+    /**
+     * Células de {@code chunk} diferentes de {@code base} (o mesmo chunk recém-gerado).
+     * @param version {@link WorldGenerator#version()} do gerador que produziu {@code base}
+     */
+    static byte[] encodeDelta(Chunk chunk, Chunk base, int version) throws IOException {
+        int n = 0;
+        short[] pos = new short[256];
+        for (int y = 0; y < Chunk.HEIGHT; y++) {
+            // Seção vazia nos dois (o céu, quase sempre): nada a comparar
+            if (chunk.isSectionBlank(y / Chunk.SECTION_HEIGHT) && base.isSectionBlank(y / Chunk.SECTION_HEIGHT)) {
+                y += Chunk.SECTION_HEIGHT - 1;
+                continue;
+            }
+            for (int z = 0; z < Chunk.SIZE; z++) {
+                for (int x = 0; x < Chunk.SIZE; x++) {
+                    if (chunk.getId(x, y, z) == base.getId(x, y, z)
+                            && chunk.getMeta(x, y, z) == base.getMeta(x, y, z)) continue;
+                    if (n == pos.length) pos = Arrays.copyOf(pos, n * 2);
+                    pos[n++] = (short) cell(x, y, z);
+                }
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + n * 2);
+        bytes.write(DELTA_DEFLATE);
+        bytes.write(version >>> 24);
+        bytes.write(version >>> 16);
+        bytes.write(version >>> 8);
+        bytes.write(version);
+        Deflater def = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, def))) {
+            out.writeInt(n);
+            for (int i = 0; i < n; i++) {
+                int c = pos[i] & 0xFFFF;
+                int x = c & 15, z = (c >> 4) & 15, y = c >> 8;
+                out.writeShort(c);
+                out.writeByte(chunk.getId(x, y, z));
+                out.writeByte(chunk.getMeta(x, y, z));
+            }
+        } finally {
+            def.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reaplica um delta de {@link #encodeDelta} sobre o chunk recém-gerado; ele sai sem a marca de modificado.
+     * Não confere a versão: quem chama compara {@link #deltaVersion} com a do gerador.
+     */
+    static void applyDelta(Chunk base, byte[] data) throws IOException {
+        if (!isDelta(data)) throw new IOException("registro não é delta");
+        if (data.length < DELTA_HEADER) throw new IOException("delta truncado");
+        Inflater inf = new Inflater();
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(
+                new ByteArrayInputStream(data, DELTA_HEADER, data.length - DELTA_HEADER), inf))) {
+            int n = in.readInt();
+            if (n < 0 || n > Chunk.SIZE * Chunk.SIZE * Chunk.HEIGHT) throw new IOException("delta inválido: " + n);
+            for (int i = 0; i < n; i++) {
+                int c = in.readUnsignedShort();
+                int id = in.readUnsignedByte();
+                int meta = in.readByte();
+                int x = c & 15, z = (c >> 4) & 15, y = c >> 8;
+                if (y >= Chunk.HEIGHT) throw new IOException("delta inválido: célula " + c);
+                base.set(x, y, z, BlockRegistry.byId(id));
+                base.setMeta(x, y, z, meta);
+            }
+        } finally {
+            inf.end();
+        }
+        base.clearModified();
+    }
+
+    // Célula do chunk em 16 bits: x e z (4 bits cada) e y (até 255) acima
+    private static int cell(int x, int y, int z) {
+        return x | (z << 4) | (y << 8);
+    }
+
+    static Chunk decode(int cx, int cz, byte[] data) throws IOException {
+        if (data.length < 1 || data[0] != COMPRESSION_DEFLATE) {
+            throw new IOException("registro inválido no chunk " + cx + "," + cz);
+        }
+        Inflater inf = new Inflater();
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(
+                new ByteArrayInputStream(data, 1, data.length - 1), inf))) {
+            return Chunk.readFrom(cx, cz, in);
+        } finally {
+            inf.end();
+        }
+    }
+}
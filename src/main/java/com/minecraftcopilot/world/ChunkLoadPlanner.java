@@ -0,0 +1,128 @@
+package com.minecraftcopilot.world;
+
+import com.jme3.math.Vector3f;
+import com.minecraftcopilot.world.ChunkManager.ChunkCoord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Planejador incremental de carregamento de chunks.
+ * Só recalcula a lista quando o jogador cruza a borda de um chunk; entre recálculos apenas entrega o próximo
+ * chunk da fila. A fila é ordenada pela distância ao centro, com peso menor para o que está à frente da câmera,
+ * e é reordenada quando a direção da câmera gira bastante.
+ */
+public class ChunkLoadPlanner {
+
+    // Reordena a fila quando a câmera gira mais que ~30° desde a última ordenação
+    private static final float REPRIORITIZE_COS = 0.866f;
+
+    private final int viewRadius;
+    private final int unloadRadius;
+    private boolean hasCenter = false;
+    private int centerX, centerZ;
+    private float dirX = 0f, dirZ = 1f; // direção (XZ normalizada) usada na última ordenação
+
+    private final List<ChunkCoord> queue = new ArrayList<>();
+    private int cursor = 0;
+    private int wantedCount = 0;
+
+    public ChunkLoadPlanner(int viewRadius, int unloadRadius) {
+        this.viewRadius = viewRadius;
+        this.unloadRadius = unloadRadius;
+    }
+
+    /** Esquece o centro e a fila; a próxima chamada a {@link #recenter} replaneja tudo. */
+    public void reset() {
+        hasCenter = false;
+        queue.clear();
+        cursor = 0;
+        wantedCount = 0;
+    }
+
+    /** Atualiza o chunk central. Retorna true se mudou (primeira chamada ou borda cruzada). */
+    public boolean recenter(int ccx, int ccz) {
+        if (hasCenter && ccx == centerX && ccz == centerZ) return false;
+        hasCenter = true;
+        centerX = ccx;
+        centerZ = ccz;
+        return true;
+    }
+
+    public boolean isInView(int cx, int cz) {
+        return Math.abs(cx - centerX) <= viewRadius && Math.abs(cz - centerZ) <= viewRadius;
+    }
+
+    public boolean isInKeepRange(int cx, int cz) {
+        return Math.abs(cx - centerX) <= unloadRadius && Math.abs(cz - centerZ) <= unloadRadius;
+    }
+
+    /**
+     * Remonta a fila com os chunks do raio de visão que ainda faltam ({@code satisfied} diz quais já estão
+     * carregados ou em geração) e ordena por prioridade.
+     */
+    public void rebuild(Predicate<ChunkCoord> satisfied, Vector3f camDir) {
+        queue.clear();
+        cursor = 0;
+        wantedCount = (2 * viewRadius + 1) * (2 * viewRadius + 1);
+        for (int dz = -viewRadius; dz <= viewRadius; dz++) {
+            for (int dx = -viewRadius; dx <= viewRadius; dx++) {
+                ChunkCoord c = new ChunkCoord(centerX + dx, centerZ + dz);
+                if (!satisfied.test(c)) queue.add(c);
+            }
+        }
+        setDirection(camDir);
+        sortRemaining();
+    }
+
+    /** Reordena o que falta se a câmera girou o suficiente. */
+    public void reprioritize(Vector3f camDir) {
+        if (cursor >= queue.size()) return;
+        float len = (float) Math.sqrt(camDir.x * camDir.x + camDir.z * camDir.z);
+        if (len < 1e-4f) return;
+        float nx = camDir.x / len, nz = camDir.z / len;
+        if (nx * dirX + nz * dirZ >= REPRIORITIZE_COS) return;
+        dirX = nx;
+        dirZ = nz;
+        sortRemaining();
+    }
+
+    /** Próximo chunk a gerar (ou null se a fila acabou). */
+    public ChunkCoord next() {
+        return cursor < queue.size() ? queue.get(cursor++) : null;
+    }
+
+    /** Recoloca um chunk no fim da fila (ex.: geração falhou). */
+    public void requeue(ChunkCoord c) {
+        if (isInView(c.x(), c.z())) queue.add(c);
+    }
+
+    /** Quantidade de chunks ainda não despachados. */
+    public int remaining() { return queue.size() - cursor; }
+
+    /** Total de chunks desejados no raio de visão atual. */
+    public int wantedCount() { return wantedCount; }
+
+    private void setDirection(Vector3f camDir) {
+        float len = (float) Math.sqrt(camDir.x * camDir.x + camDir.z * camDir.z);
+        if (len < 1e-4f) return;
+        dirX = camDir.x / len;
+        dirZ = camDir.z / len;
+    }
+
+    private void sortRemaining() {
+        queue.subList(cursor, queue.size()).sort((a, b) -> Float.compare(priority(a), priority(b)));
+    }
+
+    // Menor = antes. Distância ao centro, reduzida à frente da câmera e aumentada atrás.
+    // O anel imediato (d <= 1.5) ignora a direção: é onde o jogador está pisando.
+    private float priority(ChunkCoord c) {
+        float dx = c.x() - centerX;
+        float dz = c.z() - centerZ;
+        float d = (float) Math.sqrt(dx * dx + dz * dz);
+        if (d <= 1.5f) return d;
+        float facing = (dx * dirX + dz * dirZ) / d; // -1 (atrás) .. 1 (à frente)
+        return d * (1.25f - 0.5f * facing);
+    }
+}
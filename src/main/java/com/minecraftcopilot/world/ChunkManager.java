@@ -7,9 +7,21 @@ import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
 import com.jme3.renderer.queue.RenderQueue;
 import com.minecraftcopilot.Chunk;
+import com.minecraftcopilot.ChunkNeighbors;
+import com.minecraftcopilot.BlockRegistry;
 import com.minecraftcopilot.BlockType;
+import com.minecraftcopilot.MeshMode;
+import com.minecraftcopilot.SectionVisibility;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
 
 public class ChunkManager {
 
@@ -17,25 +29,106 @@ public class ChunkManager {
 
     private final Node worldNode;
     private final Material chunkMaterialSolid;
-    private final Material chunkMaterialWater;
+    private Material chunkMaterialWater;
+    // Material VoxelTiled (UV local + índice do tile) exigido pelo modo GREEDY
+    private Material chunkMaterialTiled;
+    private MeshMode meshMode = MeshMode.NAIVE;
     private final int seed;
     private final int viewRadius; // em chunks
+    private static final int ALL_SECTIONS = (1 << Chunk.SECTIONS) - 1;
+    // Streaming vertical: só as seções a até verticalRadius seções da câmera têm malha (padrão: o raio de visão,
+    // -DverticalSections=N). As demais guardam só os blocos, em paleta compacta, e ganham malha quando a câmera
+    // chega perto; então o custo de malha e de draw calls acompanha o volume ocupado perto da câmera, não a
+    // altura do mundo
+    private final int verticalRadius;
+    private int activeSections = ALL_SECTIONS; // bit por seção com malha; recalculado a cada update
+
+    // Oclusão: a cada frame uma busca em largura a partir da seção da câmera, atravessando só pares de faces
+    // que o grafo de visibilidade de cada seção liga e nunca voltando numa direção já percorrida. Seção não
+    // alcançada fica oculta (CullHint.Always). -DocclusionCulling=false desliga
+    private boolean occlusionCulling = !"false".equals(System.getProperty("occlusionCulling"));
+    private int cullFrame;
+    // A busca só é refeita quando a câmera muda de seção ou alguma seção/chunk muda (malha nova, descarga...)
+    private boolean cullStale = true;
+    private int cullCamX, cullCamZ, cullCamSection;
+    private int drawnSections, culledSections;
+    private LoadedChunk[] bfsChunks = new LoadedChunk[256];
+    private int[] bfsEntries = new int[256]; // seção | face de entrada << 4 | direções percorridas << 8
 
     private static class LoadedChunk {
+        final int cx, cz;
         final Chunk chunk;
-        Node geom; // nó com dois filhos: sólidos (Opaque) e água (Transparent)
-        LoadedChunk(Chunk c, Node g) { this.chunk = c; this.geom = g; }
+        final Node geom; // nó do chunk; um filho por seção não vazia
+        // Nó de cada seção (sólidos Opaque + água Transparent) ou null se a seção não tem faces
+        final Node[] sections = new Node[Chunk.SECTIONS];
+        int dirtySections; // bit por seção aguardando remesh (chunk está em dirtyQueue se != 0)
+        // Remesh de borda nas threads de trabalho: seções a pedir no fim do update (chunk está em borderQueue se
+        // != 0), seções do trabalho em voo e o número dele (resultado de um trabalho anterior é descartado)
+        int borderSections, asyncSections, remeshTicket;
+        // Grafo de visibilidade de cada seção (da última malha) e o frame da busca que a alcançou por último
+        final long[] visibility = new long[Chunk.SECTIONS];
+        final int[] reached = new int[Chunk.SECTIONS];
+        LoadedChunk(int cx, int cz, Chunk c) {
+            this.cx = cx;
+            this.cz = cz;
+            this.chunk = c;
+            this.geom = c.createNode();
+            Arrays.fill(visibility, SectionVisibility.ALL); // sem malha ainda: não esconde nada atrás
+        }
     }
 
-    private final Map<ChunkCoord, LoadedChunk> loaded = new HashMap<>();
+    // Chave long (cx, cz empacotados): consultas voxel a voxel não alocam ChunkCoord nem fazem boxing
+    private final ChunkMap<LoadedChunk> loaded = new ChunkMap<>();
+    // Cache de uma entrada para consultas seguidas no mesmo chunk (colisão, água, mobs)
+    private long lastKey;
+    private LoadedChunk lastChunk;
+
+    // Geração de terreno + meshing em threads de trabalho. A thread do jME só cria os Geometry e anexa
+    // ao worldNode, drenando os prontos em update() dentro de um orçamento em milissegundos.
+    // neighborMask: vizinhos presentes na cópia de bordas usada pelo mesher (ver ChunkNeighbors)
+    // sectionMask: seções que o trabalho meshou (as ativas quando foi despachado)
+    // job: o trabalho que produziu o resultado, comparado com o de pending ao drenar
+    private record ReadyChunk(Future<?> job, ChunkCoord coord, Chunk chunk, Chunk.MeshPair[] meshes, MeshMode mode,
+                              int neighborMask, int sectionMask) {}
+    private final ForkJoinPool workers;
+    private final ChunkMap<Future<?>> pending = new ChunkMap<>(); // só acessado na thread do jME
+    private final Queue<ReadyChunk> ready = new ConcurrentLinkedQueue<>();
+    private final ChunkLoadPlanner planner;
+    // Falhas seguidas de geração/carga por chunk (só thread do jME). Depois de MAX_LOAD_ATTEMPTS o chunk fica de
+    // fora até o clearAll, em vez de voltar à fila e ocupar uma thread de trabalho a cada frame
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+    private final ChunkMap<Integer> loadFailures = new ChunkMap<>();
     private final WaterSimulator waterSim = new WaterSimulator(this);
-    // Animação simples da água e orçamento de rebuilds para atualizar UVs
-    private float waterAnimAccum = 0f;
-    private int waterAnimFrame = 0;
-    private final List<ChunkCoord> animKeys = new ArrayList<>();
-    private int waterAnimCursor = 0;
+    // Conjunto sujo: edições e bordas afetadas só marcam seções; flushDirty() (fim do frame) remesha cada
+    // seção uma vez. Cada chunk entra uma vez na fila e acumula em dirtySections as seções pedidas
+    private final ArrayDeque<LoadedChunk> dirtyQueue = new ArrayDeque<>();
+    private int dirtySectionCount = 0;
+    // Vizinho chegou: as seções com blocos na borda voltada para ele são remeshadas nas threads de trabalho,
+    // sobre um snapshot, como a malha inicial. Marcar uma delas no conjunto sujo (edição) cancela o trabalho em
+    // voo do chunk e devolve as seções dele ao caminho síncrono, que sempre vê os dados atuais
+    private record ReadyRemesh(LoadedChunk lc, int ticket, Chunk.MeshPair[] meshes, int sectionMask) {}
+    private final Queue<ReadyRemesh> remeshed = new ConcurrentLinkedQueue<>();
+    private final ArrayList<LoadedChunk> borderQueue = new ArrayList<>();
+    private final BatchEditor editor = new BatchEditor();
+    // Chunks modificados vão para o disco ao descarregar e no autosave, sem travar o frame, e voltam de lá
+    // antes de regerar (null = sem persistência)
+    private SavePipeline saver;
+    private float autosaveSeconds = Integer.getInteger("autosaveSeconds", 30);
+    private float autosaveTimer = 0f;
+    // Descarregados recentes, comprimidos: voltar a eles é descomprimir em vez de gerar. -DchunkCacheMB=N
+    private final ChunkCache unloadCache = new ChunkCache(Integer.getInteger("chunkCacheMB", 32));
+
+    // Padrão: deixa um núcleo livre para a thread do jME. Pode ser trocado com -DchunkWorkers=N
+    public static int defaultWorkerThreads() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Integer.getInteger("chunkWorkers", cores - 1));
+    }
 
     public ChunkManager(Node worldNode, Material chunkMaterialSolid, int seed, int viewRadius) {
+        this(worldNode, chunkMaterialSolid, seed, viewRadius, defaultWorkerThreads());
+    }
+
+    public ChunkManager(Node worldNode, Material chunkMaterialSolid, int seed, int viewRadius, int workerThreads) {
         this.worldNode = worldNode;
         this.chunkMaterialSolid = chunkMaterialSolid;
         // Cria um material para água com alpha blend baseado no material sólido
@@ -44,12 +137,343 @@ public class ChunkManager {
                 com.jme3.material.RenderState.BlendMode.Alpha);
         this.seed = seed;
         this.viewRadius = Math.max(1, viewRadius);
+        this.planner = new ChunkLoadPlanner(this.viewRadius, this.viewRadius + 1);
+        this.verticalRadius = Math.max(1, Integer.getInteger("verticalSections", this.viewRadius));
+        this.workers = new ForkJoinPool(Math.max(1, workerThreads), pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName("chunk-worker-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, true);
     }
 
     // Expor quantidade de chunks carregados e o raio de visão para telas de loading
     public int getLoadedChunkCount() { return loaded.size(); }
+    public int getPendingChunkCount() { return pending.size(); }
+    public int getWorkerThreads() { return workers.getParallelism(); }
+
+    /** Memória aproximada de blocos/meta de todos os chunks carregados, em bytes. */
+    public long getLoadedMemoryBytes() {
+        long total = 0;
+        for (LoadedChunk lc : loaded) total += lc.chunk.memoryBytes();
+        return total;
+    }
+
+    /**
+     * Progresso real do carregamento do raio de visão atual (0..1): o que ainda está na fila do planejador,
+     * em geração ou aguardando integração conta como faltando.
+     */
+    public float getLoadProgress() {
+        int total = planner.wantedCount();
+        if (total == 0) return 0f;
+        int remaining = planner.remaining() + pending.size();
+        return Math.max(0f, Math.min(1f, 1f - remaining / (float) total));
+    }
     public int getViewRadius() { return viewRadius; }
 
+    /** Raio vertical, em seções de {@link Chunk#SECTION_HEIGHT} blocos, das malhas em volta da câmera. */
+    public int getVerticalRadius() { return verticalRadius; }
+
+    /** Seções com malha no mundo (não vazias e dentro do raio vertical). */
+    public int getMeshedSectionCount() {
+        int n = 0;
+        for (LoadedChunk lc : loaded) {
+            for (Node sec : lc.sections) if (sec != null) n++;
+        }
+        return n;
+    }
+
+    public MeshMode getMeshMode() { return meshMode; }
+
+    public void setTiledMaterial(Material tiled) { this.chunkMaterialTiled = tiled; }
+
+    /**
+     * Material da água (ex.: VoxelWater, que anima os tiles 7..9 no shader). Sem ele a água usa um clone
+     * do material sólido com alpha blend e fica parada no primeiro frame. Definir antes de carregar chunks.
+     */
+    public void setWaterMaterial(Material water) { this.chunkMaterialWater = water; }
+
+    /**
+     * Onde gravar os chunks modificados; fechado em {@link #shutdown}. Definir antes de carregar chunks.
+     * Reaplica o journal de uma sessão que não fechou direito.
+     */
+    public void setRegionStore(RegionStore store) throws IOException { this.saver = new SavePipeline(store); }
+
+    /** Intervalo do salvamento automático dos chunks modificados (-DautosaveSeconds=N, padrão 30). */
+    public void setAutosaveSeconds(float seconds) { this.autosaveSeconds = Math.max(1f, seconds); }
+
+    /** Chunks cujas edições do journal a abertura guardou sem aplicar (ver {@link SavePipeline#getKeptJournalChunks}). */
+    public int getKeptJournalChunks() { return saver == null ? 0 : saver.getKeptJournalChunks(); }
+
+    /** Métricas da gravação em segundo plano, ou null sem persistência. */
+    public SavePipeline.Stats getSaveStats() { return saver == null ? null : saver.getStats(); }
+
+    /**
+     * Enfileira um snapshot de cada chunk carregado com alterações e fecha o segmento do journal.
+     * Só copia na thread do jME; serializar e escrever ficam para a thread de gravação.
+     * @return quantos chunks foram enfileirados
+     */
+    public int saveAll() {
+        if (saver == null) return 0;
+        int n = 0;
+        for (LoadedChunk lc : loaded) {
+            if (!lc.chunk.isModified()) continue;
+            saver.save(lc.cx, lc.cz, lc.chunk.snapshot(), null);
+            lc.chunk.clearModified();
+            n++;
+        }
+        saver.checkpoint();
+        autosaveTimer = 0f;
+        return n;
+    }
+
+    /** Capacidade do cache de chunks descarregados, em MB de dados comprimidos (0 desliga). */
+    public void setUnloadCacheMb(int mb) { unloadCache.setCapacityMb(mb); }
+    public int getUnloadCacheCount() { return unloadCache.size(); }
+    public long getUnloadCacheBytes() { return unloadCache.getUsedBytes(); }
+    public long getUnloadCacheHits() { return unloadCache.getHits(); }
+    public long getUnloadCacheMisses() { return unloadCache.getMisses(); }
+
+    /**
+     * Alterna o mesher da geometria opaca e reconstrói os chunks carregados (para comparar A/B).
+     * GREEDY sem material VoxelTiled configurado cai para NAIVE.
+     */
+    public void setMeshMode(MeshMode mode) {
+        MeshMode m = (mode == MeshMode.GREEDY && chunkMaterialTiled == null) ? MeshMode.NAIVE : mode;
+        if (m == meshMode) return;
+        meshMode = m;
+        for (LoadedChunk lc : loaded) rebuild(lc);
+    }
+
+    // Soma de vértices das malhas carregadas: [0] sólidos, [1] água
+    public int[] countVertices() {
+        int[] out = new int[2];
+        for (LoadedChunk lc : loaded) {
+            for (Node sec : lc.sections) {
+                if (sec == null) continue;
+                for (Spatial s : sec.getChildren()) {
+                    if (!(s instanceof Geometry g)) continue;
+                    if (s.getName().contains("water")) out[1] += g.getVertexCount();
+                    else out[0] += g.getVertexCount();
+                }
+            }
+        }
+        return out;
+    }
+
+    // Troca o nó de uma seção pelas malhas dadas, configurando os buckets (sólidos Opaque, água Transparent)
+    private void setSection(LoadedChunk lc, int sy, Chunk.MeshPair meshes) {
+        Material solid = (meshMode == MeshMode.GREEDY) ? chunkMaterialTiled : chunkMaterialSolid;
+        Node node = lc.chunk.toSectionNode(sy, meshes, solid, chunkMaterialWater);
+        if (lc.sections[sy] != null) lc.sections[sy].removeFromParent();
+        lc.sections[sy] = node;
+        lc.visibility[sy] = meshes == null ? SectionVisibility.ALL : meshes.visibility();
+        cullStale = true;
+        if (node == null) return;
+        for (Spatial s : node.getChildren()) {
+            if (s.getName().contains("water")) s.setQueueBucket(RenderQueue.Bucket.Transparent);
+            else s.setQueueBucket(RenderQueue.Bucket.Opaque);
+        }
+        lc.geom.attachChild(node);
+    }
+
+    private void rebuildSection(LoadedChunk lc, int sy, ChunkNeighbors nb) {
+        setSection(lc, sy, lc.chunk.buildSectionMeshes(sy, meshMode, nb));
+    }
+
+    // Refaz as seções ativas de um chunk carregado (troca de modo ou material)
+    private void rebuild(LoadedChunk lc) {
+        lc.asyncSections = 0; // refeito aqui com os dados atuais: resultado em voo fica obsoleto
+        lc.remeshTicket++;
+        ChunkNeighbors nb = neighborsOf(lc.cx, lc.cz);
+        for (int sy = 0; sy < Chunk.SECTIONS; sy++) {
+            if ((activeSections & (1 << sy)) != 0) rebuildSection(lc, sy, nb);
+            else setSection(lc, sy, null);
+        }
+    }
+
+    // Seções a até verticalRadius da seção da câmera
+    private int sectionsAround(int camSection) {
+        int lo = Math.max(0, camSection - verticalRadius);
+        int hi = Math.min(Chunk.SECTIONS - 1, camSection + verticalRadius);
+        return ALL_SECTIONS >>> (Chunk.SECTIONS - 1 - hi) & ~((1 << lo) - 1);
+    }
+
+    // Câmera mudou de seção: malhas que saíram do raio são soltas (os blocos ficam) e as que entraram vão
+    // para o conjunto sujo. Seção vazia não tem faces, com ou sem vizinhos, então nem entra na fila
+    private void setActiveSections(int active) {
+        int entering = active & ~activeSections, leaving = activeSections & ~active;
+        activeSections = active;
+        cullStale = true;
+        for (LoadedChunk lc : loaded) {
+            int mesh = entering;
+            for (int sy = 0; sy < Chunk.SECTIONS; sy++) {
+                int bit = 1 << sy;
+                if ((leaving & bit) != 0 && lc.sections[sy] != null) setSection(lc, sy, null);
+                if ((mesh & bit) != 0 && lc.chunk.isSectionEmpty(sy)) mesh &= ~bit;
+            }
+            markDirty(lc, mesh);
+        }
+    }
+
+    // Cópia das bordas dos vizinhos carregados. Thread do jME (lê chunks que só ela edita).
+    private ChunkNeighbors neighborsOf(int cx, int cz) {
+        return ChunkNeighbors.capture(chunkOrNull(cx + 1, cz), chunkOrNull(cx - 1, cz),
+                chunkOrNull(cx, cz + 1), chunkOrNull(cx, cz - 1));
+    }
+
+    private Chunk chunkOrNull(int cx, int cz) {
+        LoadedChunk lc = loaded.get(ChunkMap.key(cx, cz));
+        return lc == null ? null : lc.chunk;
+    }
+
+    private int neighborMask(int cx, int cz) {
+        int mask = 0;
+        if (loaded.containsKey(ChunkMap.key(cx + 1, cz))) mask |= 1 << ChunkNeighbors.POS_X;
+        if (loaded.containsKey(ChunkMap.key(cx - 1, cz))) mask |= 1 << ChunkNeighbors.NEG_X;
+        if (loaded.containsKey(ChunkMap.key(cx, cz + 1))) mask |= 1 << ChunkNeighbors.POS_Z;
+        if (loaded.containsKey(ChunkMap.key(cx, cz - 1))) mask |= 1 << ChunkNeighbors.NEG_Z;
+        return mask;
+    }
+
+    // Marca seções (bits de sectionMask) de um chunk carregado para remesh no fim do frame
+    private void markDirty(int cx, int cz, int sectionMask) {
+        LoadedChunk lc = loaded.get(ChunkMap.key(cx, cz));
+        if (lc != null) markDirty(lc, sectionMask);
+    }
+
+    private void markDirty(LoadedChunk lc, int sectionMask) {
+        if ((sectionMask & lc.asyncSections) != 0) cancelBorderRemesh(lc);
+        int added = sectionMask & activeSections & ~lc.dirtySections; // fora do raio: malha feita ao voltar
+        if (added == 0) return;
+        if (lc.dirtySections == 0) dirtyQueue.add(lc);
+        lc.dirtySections |= added;
+        dirtySectionCount += Integer.bitCount(added);
+    }
+
+    // Descarta o remesh de borda em voo do chunk; as seções dele vão para o conjunto sujo
+    private void cancelBorderRemesh(LoadedChunk lc) {
+        int sections = lc.asyncSections;
+        lc.asyncSections = 0;
+        lc.remeshTicket++;
+        markDirty(lc, sections);
+    }
+
+    // Voxel alterado: sua seção, a de cima/baixo se ele estiver na borda vertical e a seção do chunk
+    // vizinho se ele estiver na borda horizontal (faces adjacentes aparecem/somem)
+    private void markDirtyAround(LoadedChunk lc, int lx, int wy, int lz) {
+        int sy = wy / Chunk.SECTION_HEIGHT;
+        int ly = wy % Chunk.SECTION_HEIGHT;
+        int bit = 1 << sy;
+        int mask = bit;
+        if (ly == 0 && sy > 0) mask |= bit >> 1;
+        if (ly == Chunk.SECTION_HEIGHT - 1 && sy < Chunk.SECTIONS - 1) mask |= bit << 1;
+        markDirty(lc, mask);
+        if (lx == 0) markDirty(lc.cx - 1, lc.cz, bit);
+        if (lx == Chunk.SIZE - 1) markDirty(lc.cx + 1, lc.cz, bit);
+        if (lz == 0) markDirty(lc.cx, lc.cz - 1, bit);
+        if (lz == Chunk.SIZE - 1) markDirty(lc.cx, lc.cz + 1, bit);
+    }
+
+    /** Seções marcadas e ainda não remeshadas. */
+    public int getDirtySectionCount() { return dirtySectionCount; }
+
+    /**
+     * Passo único de remesh do conjunto sujo; chamar no fim do frame, depois de todas as edições.
+     * Cada seção suja é refeita uma vez, em ordem de marcação, até o orçamento acabar (ao menos uma seção
+     * por chamada para sempre avançar); o que sobrar fica para o próximo frame.
+     */
+    public void flushDirty(float budgetMs) {
+        long deadline = System.nanoTime() + (long) (budgetMs * 1_000_000f);
+        boolean first = true;
+        LoadedChunk lc;
+        while ((lc = dirtyQueue.peek()) != null) {
+            if (loaded.get(ChunkMap.key(lc.cx, lc.cz)) != lc) { // descarregado nesse meio tempo
+                dirtyQueue.poll();
+                dirtySectionCount -= Integer.bitCount(lc.dirtySections);
+                lc.dirtySections = 0;
+                continue;
+            }
+            ChunkNeighbors nb = neighborsOf(lc.cx, lc.cz);
+            for (int sy = 0; sy < Chunk.SECTIONS && lc.dirtySections != 0; sy++) {
+                int bit = 1 << sy;
+                if ((lc.dirtySections & bit) == 0) continue;
+                if ((activeSections & bit) == 0) { // saiu do raio vertical depois de marcada
+                    lc.dirtySections &= ~bit;
+                    dirtySectionCount--;
+                    continue;
+                }
+                if (!first && System.nanoTime() >= deadline) return;
+                first = false;
+                lc.dirtySections &= ~bit;
+                dirtySectionCount--;
+                rebuildSection(lc, sy, nb);
+            }
+            dirtyQueue.poll();
+        }
+    }
+
+    /**
+     * Edição em lote (construções, comandos): as escritas feitas pelo {@link WorldEditor} só marcam as
+     * seções afetadas, e {@link #flushDirty} remesha cada uma uma única vez no fim do frame.
+     * @return quantidade de voxels que realmente mudaram
+     */
+    public int edit(Consumer<WorldEditor> ops) {
+        int before = editor.changed;
+        ops.accept(editor);
+        return editor.changed - before;
+    }
+
+    private final class BatchEditor implements WorldEditor {
+        int changed = 0;
+
+        @Override public BlockType getBlock(int wx, int wy, int wz) { return getBlockAtWorld(wx, wy, wz); }
+        @Override public int getMeta(int wx, int wy, int wz) { return getMetaAtWorld(wx, wy, wz); }
+
+        @Override
+        public boolean setBlock(int wx, int wy, int wz, BlockType type) {
+            return write(wx, wy, wz, type, -1);
+        }
+
+        @Override
+        public boolean setBlockAndMeta(int wx, int wy, int wz, BlockType type, int meta) {
+            return write(wx, wy, wz, type, meta);
+        }
+
+        @Override
+        public void setMeta(int wx, int wy, int wz, int meta) {
+            write(wx, wy, wz, null, meta);
+        }
+
+        // type null = mantém o bloco; meta < 0 = mantém o meta
+        private boolean write(int wx, int wy, int wz, BlockType type, int meta) {
+            if (wy < 0 || wy >= Chunk.HEIGHT) return false;
+            int cx = worldToChunk(wx);
+            int cz = worldToChunk(wz);
+            LoadedChunk lc = chunkAt(cx, cz);
+            if (lc == null) return false;
+            int lx = wx - cx * Chunk.SIZE;
+            int lz = wz - cz * Chunk.SIZE;
+            Chunk ch = lc.chunk;
+            boolean modified = false;
+            if (type != null && ch.get(lx, wy, lz) != type) {
+                ch.set(lx, wy, lz, type);
+                modified = true;
+            }
+            if (meta >= 0) {
+                int old = ch.getMeta(lx, wy, lz);
+                ch.setMeta(lx, wy, lz, meta);
+                modified |= ch.getMeta(lx, wy, lz) != old;
+            }
+            if (modified) {
+                changed++;
+                markDirtyAround(lc, lx, wy, lz);
+                if (saver != null) saver.journal(wx, wy, wz, ch.getId(lx, wy, lz), ch.getMeta(lx, wy, lz));
+            }
+            return true;
+        }
+    }
+
     private static int worldToChunk(float world) {
         return (int) Math.floor(world / Chunk.SIZE);
     }
@@ -58,192 +482,424 @@ public class ChunkManager {
         return Math.floorDiv(world, Chunk.SIZE);
     }
 
-    private static Set<ChunkCoord> computeNeededAround(int ccx, int ccz, int radius) {
-        Set<ChunkCoord> needed = new HashSet<>();
-        for (int dz = -radius; dz <= radius; dz++) {
-            for (int dx = -radius; dx <= radius; dx++) {
-                int x = ccx + dx;
-                int z = ccz + dz;
-                needed.add(new ChunkCoord(x, z));
-            }
+    private static long key(ChunkCoord c) {
+        return ChunkMap.key(c.x, c.z);
+    }
+
+    // Chunk carregado em (cx, cz) ou null, passando pelo cache da última consulta
+    private LoadedChunk chunkAt(int cx, int cz) {
+        long k = ChunkMap.key(cx, cz);
+        LoadedChunk lc = lastChunk;
+        if (lc != null && lastKey == k) return lc;
+        lc = loaded.get(k);
+        if (lc != null) {
+            lastKey = k;
+            lastChunk = lc;
         }
-        return needed;
+        return lc;
     }
 
-    public void update(Vector3f camPos, float tpf, int genBudgetPerFrame) {
+    /**
+     * @param camDir direção da câmera, usada para priorizar o que está à frente
+     * @param integrateBudgetMs tempo máximo por frame para transformar chunks prontos em Geometry e anexá-los
+     */
+    public void update(Vector3f camPos, Vector3f camDir, float tpf, float integrateBudgetMs) {
         int ccx = worldToChunk(camPos.x);
         int ccz = worldToChunk(camPos.z);
+        int camSection = Math.max(0, Math.min(Chunk.SECTIONS - 1, (int) Math.floor(camPos.y / Chunk.SECTION_HEIGHT)));
+        int active = sectionsAround(camSection);
+        if (active != activeSections) setActiveSections(active);
 
-        Set<ChunkCoord> needed = computeNeededAround(ccx, ccz, viewRadius);
-
-        // Descarregar os que estão fora de alcance (com uma margem)
-        int unloadRadius = viewRadius + 1;
-        Set<ChunkCoord> keep = computeNeededAround(ccx, ccz, unloadRadius);
-        Iterator<Map.Entry<ChunkCoord, LoadedChunk>> it = loaded.entrySet().iterator();
-        while (it.hasNext()) {
-            Map.Entry<ChunkCoord, LoadedChunk> e = it.next();
-            if (!keep.contains(e.getKey())) {
-                e.getValue().geom.removeFromParent();
-                it.remove();
+        if (planner.recenter(ccx, ccz)) {
+            // Cruzou a borda de um chunk: descarrega o que saiu do alcance (com uma margem),
+            // cancela gerações enfileiradas que não servem mais e refaz a fila por prioridade
+            for (long k : loaded.keys()) {
+                if (!planner.isInKeepRange(ChunkMap.keyX(k), ChunkMap.keyZ(k))) {
+                    unload(loaded.remove(k));
+                }
             }
+            lastChunk = null;
+            for (long k : pending.keys()) {
+                if (!planner.isInKeepRange(ChunkMap.keyX(k), ChunkMap.keyZ(k))) {
+                    pending.remove(k).cancel(false); // se já estiver rodando, o resultado é descartado ao chegar
+                }
+            }
+            planner.rebuild(c -> loaded.containsKey(key(c)) || pending.containsKey(key(c)) || gaveUp(c), camDir);
+        } else {
+            planner.reprioritize(camDir);
         }
 
-        // Gerar alguns por frame para evitar travas
-        int budget = genBudgetPerFrame;
-        for (ChunkCoord c : needed) {
-            if (budget <= 0) break;
-            if (!loaded.containsKey(c)) {
-                generateChunk(c);
-                budget--;
+        // Integra chunks prontos vindos das threads de trabalho, respeitando o orçamento de tempo. Os remeshes de
+        // borda vêm antes: são poucas seções, e atrasá-los deixaria paredes entre chunks à mostra
+        long deadline = System.nanoTime() + (long) (integrateBudgetMs * 1_000_000f);
+        ReadyRemesh rm;
+        while ((rm = remeshed.poll()) != null) {
+            applyBorderRemesh(rm);
+            if (System.nanoTime() >= deadline) break;
+        }
+        ReadyChunk r;
+        while ((r = ready.poll()) != null) {
+            // Resultado de um pedido cancelado e refeito: o pendente é o novo, que ainda vai chegar
+            Future<?> current = pending.get(key(r.coord()));
+            if (current != null && current != r.job()) continue;
+            pending.remove(key(r.coord()));
+            if (r.chunk() == null) { // falhou na thread de trabalho: volta para a fila algumas vezes
+                Integer failures = loadFailures.get(key(r.coord()));
+                int attempts = failures == null ? 1 : failures + 1;
+                loadFailures.put(key(r.coord()), attempts);
+                if (attempts < MAX_LOAD_ATTEMPTS) {
+                    planner.requeue(r.coord());
+                } else {
+                    System.err.println("[Chunks] " + r.coord().x + "," + r.coord().z + " falhou " + attempts
+                            + " vezes; fica sem carregar");
+                }
+                continue;
             }
+            loadFailures.remove(key(r.coord()));
+            if (!planner.isInKeepRange(r.coord().x, r.coord().z) || loaded.containsKey(key(r.coord()))) continue;
+            integrate(r);
+            if (System.nanoTime() >= deadline) break;
+        }
+
+        submitBorderRemeshes();
+
+        // Despacha os próximos da fila, mantendo poucos em voo para que a ordem/cancelamento tenham efeito
+        int maxInFlight = workers.getParallelism() * 2;
+        while (pending.size() < maxInFlight) {
+            ChunkCoord c = planner.next();
+            if (c == null) break;
+            if (loaded.containsKey(key(c)) || pending.containsKey(key(c)) || gaveUp(c)) continue;
+            submitGeneration(c);
         }
 
     // Passo da simulação de água por frame em ticks discretos
     waterSim.step(tpf);
 
-        // Avança animação da água e reconstrói gradualmente os chunks para aplicar novo frame de UV
-        waterAnimAccum += tpf;
-        if (waterAnimAccum >= 0.6f) {
-            waterAnimAccum = 0f;
-            waterAnimFrame = (waterAnimFrame + 1) % 3;
-            Chunk.setWaterAnimFrame(waterAnimFrame);
-            // Prepara a lista de chunks a atualizar UVs
-            animKeys.clear();
-            animKeys.addAll(loaded.keySet());
-            waterAnimCursor = 0;
+        cullOccluded(camPos);
+
+        if (saver != null) {
+            saver.update(tpf);
+            autosaveTimer += tpf;
+            if (autosaveTimer >= autosaveSeconds) saveAll();
         }
-        // Rebuild orçamento pequeno por frame para aplicar o novo frame
-        int animBudget = 2;
-        while (animBudget > 0 && waterAnimCursor < animKeys.size()) {
-            ChunkCoord k = animKeys.get(waterAnimCursor++);
-            LoadedChunk lc = loaded.get(k);
-            if (lc != null) {
-                Node n = lc.chunk.buildGeometryPair(chunkMaterialSolid, chunkMaterialWater);
-                // Configura buckets
-                for (Spatial s : n.getChildren()) {
-                    if (s.getName().contains("water")) {
-                        s.setQueueBucket(RenderQueue.Bucket.Transparent);
-                    } else {
-                        s.setQueueBucket(RenderQueue.Bucket.Opaque);
+    }
+
+    public boolean isOcclusionCulling() { return occlusionCulling; }
+
+    /** Liga/desliga a oclusão por grafo de visibilidade; desligada, toda seção com malha é desenhada. */
+    public void setOcclusionCulling(boolean on) {
+        this.occlusionCulling = on;
+        cullStale = true;
+    }
+
+    /** Seções com malha desenhadas no último frame (ainda sujeitas ao frustum culling do jME). */
+    public int getDrawnSectionCount() { return drawnSections; }
+
+    /** Seções com malha ocultas pela oclusão no último frame. */
+    public int getCulledSectionCount() { return culledSections; }
+
+    // Busca a partir da seção da câmera e esconde as seções com malha que ela não alcança. Câmera fora do mundo
+    // ou em chunk não carregado: desenha tudo
+    private void cullOccluded(Vector3f camPos) {
+        int ccx = worldToChunk(camPos.x), ccz = worldToChunk(camPos.z);
+        int camSection = (int) Math.floor(camPos.y / Chunk.SECTION_HEIGHT);
+        if (!cullStale && ccx == cullCamX && ccz == cullCamZ && camSection == cullCamSection) return;
+        cullStale = false;
+        cullCamX = ccx;
+        cullCamZ = ccz;
+        cullCamSection = camSection;
+        cullFrame++;
+        LoadedChunk start = chunkAt(ccx, ccz);
+        boolean search = occlusionCulling && start != null && camSection >= 0 && camSection < Chunk.SECTIONS;
+        if (search) {
+            int need = loaded.size() * Chunk.SECTIONS;
+            if (bfsChunks.length < need) {
+                bfsChunks = new LoadedChunk[need];
+                bfsEntries = new int[need];
+            }
+            int head = 0, tail = 0;
+            start.reached[camSection] = cullFrame;
+            bfsChunks[tail] = start;
+            bfsEntries[tail++] = camSection | (SectionVisibility.FACES << 4); // sem face de entrada
+            while (head < tail) {
+                LoadedChunk lc = bfsChunks[head];
+                int e = bfsEntries[head++];
+                int sy = e & 15, in = (e >> 4) & 7, dirs = e >> 8;
+                long vis = lc.visibility[sy];
+                for (int out = 0; out < SectionVisibility.FACES; out++) {
+                    // Não volta em direção já percorrida (a busca só se afasta da câmera)
+                    if ((dirs & (1 << SectionVisibility.opposite(out))) != 0) continue;
+                    if (in < SectionVisibility.FACES && !SectionVisibility.connects(vis, in, out)) continue;
+                    LoadedChunk next = lc;
+                    int nsy = sy;
+                    switch (out) {
+                        case 0 -> next = chunkAt(lc.cx + 1, lc.cz);
+                        case 1 -> next = chunkAt(lc.cx - 1, lc.cz);
+                        case 2 -> nsy = sy + 1;
+                        case 3 -> nsy = sy - 1;
+                        case 4 -> next = chunkAt(lc.cx, lc.cz + 1);
+                        default -> next = chunkAt(lc.cx, lc.cz - 1);
                     }
+                    // Fora do raio vertical nada tem malha, e a busca não volta de lá
+                    if (next == null || (activeSections & (1 << nsy)) == 0 || next.reached[nsy] == cullFrame) continue;
+                    next.reached[nsy] = cullFrame;
+                    bfsChunks[tail] = next;
+                    bfsEntries[tail++] = nsy | (SectionVisibility.opposite(out) << 4) | ((dirs | (1 << out)) << 8);
                 }
-                lc.geom.removeFromParent();
-                worldNode.attachChild(n);
-                lc.geom = n;
             }
-            animBudget--;
+            Arrays.fill(bfsChunks, 0, tail, null);
         }
+        int drawn = 0, culled = 0;
+        for (LoadedChunk lc : loaded) {
+            for (int sy = 0; sy < Chunk.SECTIONS; sy++) {
+                Node node = lc.sections[sy];
+                if (node == null) continue;
+                boolean visible = !search || lc.reached[sy] == cullFrame;
+                node.setCullHint(visible ? Spatial.CullHint.Inherit : Spatial.CullHint.Always);
+                if (visible) drawn++;
+                else culled++;
+            }
+        }
+        drawnSections = drawn;
+        culledSections = culled;
     }
 
-    private void generateChunk(ChunkCoord c) {
-        Chunk chunk = new Chunk(c.x, c.z);
-        // Terreno procedural com morros usando seed
-        chunk.generateTerrain(seed);
-        Node geom = chunk.buildGeometryPair(chunkMaterialSolid, chunkMaterialWater);
-        for (Spatial s : geom.getChildren()) {
-            if (s.getName().contains("water")) s.setQueueBucket(RenderQueue.Bucket.Transparent);
-            else s.setQueueBucket(RenderQueue.Bucket.Opaque);
+    // Falhou MAX_LOAD_ATTEMPTS vezes seguidas: não é mais pedido
+    private boolean gaveUp(ChunkCoord c) {
+        Integer failures = loadFailures.get(key(c));
+        return failures != null && failures >= MAX_LOAD_ATTEMPTS;
+    }
+
+    private void submitGeneration(ChunkCoord c) {
+        final MeshMode mode = meshMode;
+        final int sections = activeSections;
+        // Sai do cache só ao integrar: se a geração for cancelada, a cópia continua lá
+        final byte[] cached = unloadCache.get(key(c));
+        // Bordas dos vizinhos copiadas aqui, na thread do jME; a thread de trabalho só lê a cópia
+        final ChunkNeighbors nb = neighborsOf(c.x, c.z);
+        ForkJoinTask<?> job = new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                try {
+                    // Descarregado há pouco volta do cache; já editado, do disco; os demais são regerados pela seed
+                    Chunk chunk = cached != null ? decodeCached(c, cached) : null;
+                    if (chunk == null) chunk = loadStored(c.x, c.z);
+                    if (chunk == null) chunk = WorldGenerator.generate(c.x, c.z, seed);
+                    ready.add(new ReadyChunk(this, c, chunk, chunk.buildMeshes(mode, nb, sections), mode,
+                            nb.presentMask(), sections));
+                } catch (Throwable t) {
+                    t.printStackTrace();
+                    ready.add(new ReadyChunk(this, c, null, null, mode, 0, 0));
+                }
+            }
+        };
+        workers.execute(job);
+        pending.put(key(c), job);
+    }
+
+    // Thread de trabalho. Registro ilegível (ou delta de outra versão do terreno) é falha, não chunk ausente:
+    // regerar e depois gravar por cima apagaria as edições
+    private Chunk loadStored(int cx, int cz) throws IOException {
+        SavePipeline s = saver;
+        return s == null ? null : s.load(cx, cz);
+    }
+
+    private static Chunk decodeCached(ChunkCoord c, byte[] data) {
+        try {
+            return ChunkCodec.decode(c.x, c.z, data);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+
+    // Thread do jME: chunk saindo do alcance vai comprimido para o cache e, se tiver edições, para a fila de
+    // gravação (ele mesmo, sem cópia: ninguém mais o altera)
+    private void unload(LoadedChunk lc) {
+        lc.geom.removeFromParent();
+        cullStale = true;
+        Chunk ch = lc.chunk;
+        boolean toDisk = saver != null && ch.isModified();
+        if (!toDisk && unloadCache.getCapacityMb() == 0) return;
+        byte[] data;
+        try {
+            data = ChunkCodec.encode(ch);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
         }
-        worldNode.attachChild(geom);
-        loaded.put(c, new LoadedChunk(chunk, geom));
+        if (toDisk) {
+            saver.save(lc.cx, lc.cz, ch, data);
+            ch.clearModified();
+        }
+        unloadCache.put(ChunkMap.key(lc.cx, lc.cz), data);
+    }
 
+    // Thread do jME: cria Geometry/Node a partir das malhas prontas e anexa ao mundo
+    private void integrate(ReadyChunk r) {
+        int cx = r.coord().x, cz = r.coord().z;
+        LoadedChunk lc = new LoadedChunk(cx, cz, r.chunk());
+        unloadCache.remove(key(r.coord()));
+        if (r.mode() == meshMode) {
+            // Só as que continuam no raio vertical; as que entraram nele durante a geração vão para o conjunto sujo
+            int keep = r.sectionMask() & activeSections;
+            for (int sy = 0; sy < Chunk.SECTIONS; sy++) {
+                if ((keep & (1 << sy)) != 0) setSection(lc, sy, r.meshes()[sy]);
+            }
+            markDirty(lc, activeSections & ~r.sectionMask());
+        } else {
+            rebuild(lc); // modo mudou enquanto gerava: refaz a malha com o material certo
+        }
+        worldNode.attachChild(lc.geom);
+        int mask = neighborMask(cx, cz);
+        loaded.put(key(r.coord()), lc);
+        // Vizinhos que chegaram (ou saíram) depois da cópia de bordas: a malha deste chunk ainda mostra a parede
+        // entre eles. Só a fatia da borda muda, então só as seções com blocos nela
+        int changed = mask ^ r.neighborMask();
+        for (int side = 0; side < 4; side++) {
+            if ((changed & (1 << side)) != 0) queueBorderRemesh(lc, lc.chunk.borderSectionMask(side));
+        }
+        // E os vizinhos carregados ainda mostram faces voltadas para este chunk
+        queueBorderRemesh(cx + 1, cz, ChunkNeighbors.NEG_X);
+        queueBorderRemesh(cx - 1, cz, ChunkNeighbors.POS_X);
+        queueBorderRemesh(cx, cz + 1, ChunkNeighbors.NEG_Z);
+        queueBorderRemesh(cx, cz - 1, ChunkNeighbors.POS_Z);
+    }
+
+    // Seções do chunk (cx, cz), se carregado, com blocos na borda voltada para side: as únicas cujas faces
+    // dependem do vizinho daquele lado. Vão para as threads de trabalho no fim do update
+    private void queueBorderRemesh(int cx, int cz, int side) {
+        LoadedChunk lc = chunkAt(cx, cz);
+        if (lc != null) queueBorderRemesh(lc, lc.chunk.borderSectionMask(side));
+    }
+
+    private void queueBorderRemesh(LoadedChunk lc, int sectionMask) {
+        int mask = sectionMask & activeSections;
+        if (mask == 0) return;
+        if (lc.borderSections == 0) borderQueue.add(lc);
+        lc.borderSections |= mask;
+    }
+
+    // Um trabalho por chunk com tudo o que ele tem pendente, inclusive o que já estava em voo (que fica obsoleto).
+    // Seções já no conjunto sujo ficam com ele
+    private void submitBorderRemeshes() {
+        for (LoadedChunk lc : borderQueue) {
+            int sections = (lc.borderSections | lc.asyncSections) & activeSections & ~lc.dirtySections;
+            lc.borderSections = 0;
+            if (sections == 0 || loaded.get(ChunkMap.key(lc.cx, lc.cz)) != lc) continue;
+            final int ticket = ++lc.remeshTicket;
+            lc.asyncSections = sections;
+            final Chunk snapshot = lc.chunk.snapshot();
+            final ChunkNeighbors nb = neighborsOf(lc.cx, lc.cz);
+            final MeshMode mode = meshMode;
+            workers.submit(() -> {
+                Chunk.MeshPair[] meshes = null;
+                try {
+                    meshes = snapshot.buildMeshes(mode, nb, sections);
+                } catch (Throwable t) {
+                    t.printStackTrace();
+                }
+                remeshed.add(new ReadyRemesh(lc, ticket, meshes, sections));
+            });
+        }
+        borderQueue.clear();
+    }
+
+    private void applyBorderRemesh(ReadyRemesh rm) {
+        LoadedChunk lc = rm.lc();
+        // Superado por outro trabalho, cancelado por edição/troca de modo, ou o chunk já saiu
+        if (rm.ticket() != lc.remeshTicket || loaded.get(ChunkMap.key(lc.cx, lc.cz)) != lc) return;
+        lc.asyncSections = 0;
+        if (rm.meshes() == null) { // falhou na thread de trabalho: refaz pelo caminho síncrono
+            markDirty(lc, rm.sectionMask());
+            return;
+        }
+        int keep = rm.sectionMask() & activeSections;
+        for (int sy = 0; sy < Chunk.SECTIONS; sy++) {
+            if ((keep & (1 << sy)) != 0) setSection(lc, sy, rm.meshes()[sy]);
+        }
     }
 
     public void clearAll() {
-        for (LoadedChunk lc : loaded.values()) {
+        for (Future<?> f : pending) f.cancel(false);
+        pending.clear();
+        ready.clear();
+        for (LoadedChunk lc : dirtyQueue) lc.dirtySections = 0;
+        dirtyQueue.clear();
+        dirtySectionCount = 0;
+        borderQueue.clear();
+        remeshed.clear();
+        planner.reset();
+        for (LoadedChunk lc : loaded) {
             lc.geom.removeFromParent();
         }
         loaded.clear();
+        loadFailures.clear();
+        lastChunk = null;
+        cullStale = true;
+        unloadCache.clear();
+    }
+
+    /**
+     * Grava os chunks modificados, espera a fila de gravação esvaziar e encerra as threads (chamar ao sair
+     * do mundo).
+     */
+    public void shutdown() {
+        saveAll();
+        clearAll();
+        workers.shutdownNow();
+        if (saver != null) {
+            try {
+                saver.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            saver = null;
+        }
     }
 
     // Remove toda a água carregada e reconstrói os chunks; reseta a simulação
     public void clearAllWater() {
-        for (Map.Entry<ChunkCoord, LoadedChunk> e : loaded.entrySet()) {
-            LoadedChunk lc = e.getValue();
-            Chunk ch = lc.chunk;
-            boolean modified = false;
-            for (int y = 0; y < Chunk.HEIGHT; y++) {
-                for (int z = 0; z < Chunk.SIZE; z++) {
-                    for (int x = 0; x < Chunk.SIZE; x++) {
-                        if (ch.get(x, y, z) == BlockType.WATER) {
-                            ch.set(x, y, z, BlockType.AIR);
-                            ch.setMeta(x, y, z, 0);
-                            modified = true;
+        // Pelo editor em lote: cada bloco trocado vai para o journal e as seções são remeshadas uma vez
+        edit(ed -> {
+            for (LoadedChunk lc : loaded) {
+                Chunk ch = lc.chunk;
+                int x0 = lc.cx * Chunk.SIZE, z0 = lc.cz * Chunk.SIZE;
+                for (int sy = 0; sy < Chunk.SECTIONS; sy++) {
+                    if (!ch.sectionMayContain(sy, BlockType.WATER)) continue; // paleta sem água
+                    int y0 = sy * Chunk.SECTION_HEIGHT;
+                    for (int y = y0; y < y0 + Chunk.SECTION_HEIGHT; y++) {
+                        for (int z = 0; z < Chunk.SIZE; z++) {
+                            for (int x = 0; x < Chunk.SIZE; x++) {
+                                if (ch.get(x, y, z) == BlockType.WATER) {
+                                    ed.setBlockAndMeta(x0 + x, y, z0 + z, BlockType.AIR, 0);
+                                }
+                            }
                         }
                     }
                 }
             }
-            if (modified) {
-                Node newGeom = ch.buildGeometryPair(chunkMaterialSolid, chunkMaterialWater);
-                for (Spatial s : newGeom.getChildren()) {
-                    if (s.getName().contains("water")) s.setQueueBucket(RenderQueue.Bucket.Transparent);
-                    else s.setQueueBucket(RenderQueue.Bucket.Opaque);
-                }
-                lc.geom.removeFromParent();
-                worldNode.attachChild(newGeom);
-                lc.geom = newGeom;
-            }
-        }
-        // Reset animação e simulação
-        waterAnimAccum = 0f;
-        waterAnimFrame = 0;
-        Chunk.setWaterAnimFrame(0);
-        animKeys.clear();
-        waterAnimCursor = 0;
+        });
         waterSim.reset();
     }
 
+    /** Troca um bloco; o remesh fica para {@link #flushDirty}. Para muitas escritas prefira {@link #edit}. */
     public boolean setBlockAtWorld(int wx, int wy, int wz, BlockType type) {
-        int cx = worldToChunk(wx);
-        int cz = worldToChunk(wz);
-        ChunkCoord key = new ChunkCoord(cx, cz);
-        LoadedChunk lc = loaded.get(key);
-        if (lc == null) return false;
-        int lx = wx - cx * Chunk.SIZE;
-        int lz = wz - cz * Chunk.SIZE;
-        if (wy < 0 || wy >= Chunk.HEIGHT || lx < 0 || lx >= Chunk.SIZE || lz < 0 || lz >= Chunk.SIZE) return false;
-        lc.chunk.set(lx, wy, lz, type);
-        // Reconstroi apenas este chunk
-        Node newGeom = lc.chunk.buildGeometryPair(chunkMaterialSolid, chunkMaterialWater);
-        for (Spatial s : newGeom.getChildren()) {
-            if (s.getName().contains("water")) s.setQueueBucket(RenderQueue.Bucket.Transparent);
-            else s.setQueueBucket(RenderQueue.Bucket.Opaque);
-        }
-        lc.geom.removeFromParent();
-        worldNode.attachChild(newGeom);
-        lc.geom = newGeom;
-
-        // Se o voxel alterado estiver na borda do chunk, reconstruir vizinhos para expor/ocultar faces adjacentes
-        if (lx == 0) rebuildNeighbor(cx - 1, cz);
-        if (lx == Chunk.SIZE - 1) rebuildNeighbor(cx + 1, cz);
-        if (lz == 0) rebuildNeighbor(cx, cz - 1);
-        if (lz == Chunk.SIZE - 1) rebuildNeighbor(cx, cz + 1);
-        return true;
-    }
-
-    private void rebuildNeighbor(int ncx, int ncz) {
-        LoadedChunk nlc = loaded.get(new ChunkCoord(ncx, ncz));
-        if (nlc == null) return;
-        Node g = nlc.chunk.buildGeometryPair(chunkMaterialSolid, chunkMaterialWater);
-        for (Spatial s : g.getChildren()) {
-            if (s.getName().contains("water")) s.setQueueBucket(RenderQueue.Bucket.Transparent);
-            else s.setQueueBucket(RenderQueue.Bucket.Opaque);
-        }
-        nlc.geom.removeFromParent();
-        worldNode.attachChild(g);
-        nlc.geom = g;
+        return editor.setBlock(wx, wy, wz, type);
     }
 
     public boolean isSolidAtWorld(int wx, int wy, int wz) {
         if (wy < 0 || wy >= Chunk.HEIGHT) return false;
         int cx = worldToChunk(wx);
         int cz = worldToChunk(wz);
-        LoadedChunk lc = loaded.get(new ChunkCoord(cx, cz));
+        LoadedChunk lc = chunkAt(cx, cz);
         if (lc == null) return false; // tratar não carregado como vazio
         int lx = wx - cx * Chunk.SIZE;
         int lz = wz - cz * Chunk.SIZE;
         if (lx < 0 || lx >= Chunk.SIZE || lz < 0 || lz >= Chunk.SIZE) return false;
-        return lc.chunk.get(lx, wy, lz).isSolid();
+        return BlockRegistry.isSolid(lc.chunk.getId(lx, wy, lz));
     }
 
     // Para colisão: considera água como não bloqueante
@@ -251,30 +907,57 @@ public class ChunkManager {
         if (wy < 0 || wy >= Chunk.HEIGHT) return false;
         int cx = worldToChunk(wx);
         int cz = worldToChunk(wz);
-        LoadedChunk lc = loaded.get(new ChunkCoord(cx, cz));
+        LoadedChunk lc = chunkAt(cx, cz);
         if (lc == null) return false;
         int lx = wx - cx * Chunk.SIZE;
         int lz = wz - cz * Chunk.SIZE;
         if (lx < 0 || lx >= Chunk.SIZE || lz < 0 || lz >= Chunk.SIZE) return false;
-        return lc.chunk.get(lx, wy, lz).isBlocking();
+        return BlockRegistry.isBlocking(lc.chunk.getId(lx, wy, lz));
+    }
+
+    /**
+     * y do bloco bloqueante mais alto da coluna (o chão para spawn e alinhamento; água não conta), pelo mapa de
+     * alturas do chunk: uma consulta em vez de descer bloco a bloco. -1 se o chunk não está carregado ou a
+     * coluna não tem bloco bloqueante.
+     */
+    public int getSurfaceY(int wx, int wz) {
+        int cx = worldToChunk(wx);
+        int cz = worldToChunk(wz);
+        LoadedChunk lc = chunkAt(cx, cz);
+        if (lc == null) return -1;
+        return lc.chunk.getSurfaceY(wx - cx * Chunk.SIZE, wz - cz * Chunk.SIZE);
+    }
+
+    /** y do bloco não-ar mais alto da coluna (inclui água e folhas), ou -1; ver {@link #getSurfaceY}. */
+    public int getTopY(int wx, int wz) {
+        int cx = worldToChunk(wx);
+        int cz = worldToChunk(wz);
+        LoadedChunk lc = chunkAt(cx, cz);
+        if (lc == null) return -1;
+        return lc.chunk.getTopY(wx - cx * Chunk.SIZE, wz - cz * Chunk.SIZE);
     }
 
     // --- Métodos utilitários de acesso global a blocos/meta ---
     public BlockType getBlockAtWorld(int wx, int wy, int wz) {
+        return BlockRegistry.byId(getIdAtWorld(wx, wy, wz));
+    }
+
+    /** Id cru do bloco (0 = ar, também fora do mundo ou em chunk não carregado); ver {@link BlockRegistry}. */
+    public int getIdAtWorld(int wx, int wy, int wz) {
         int cx = worldToChunk(wx);
         int cz = worldToChunk(wz);
-        LoadedChunk lc = loaded.get(new ChunkCoord(cx, cz));
-        if (lc == null) return BlockType.AIR;
+        LoadedChunk lc = chunkAt(cx, cz);
+        if (lc == null) return 0;
         int lx = wx - cx * Chunk.SIZE;
         int lz = wz - cz * Chunk.SIZE;
-        if (wy < 0 || wy >= Chunk.HEIGHT || lx < 0 || lx >= Chunk.SIZE || lz < 0 || lz >= Chunk.SIZE) return BlockType.AIR;
-        return lc.chunk.get(lx, wy, lz);
+        if (wy < 0 || wy >= Chunk.HEIGHT || lx < 0 || lx >= Chunk.SIZE || lz < 0 || lz >= Chunk.SIZE) return 0;
+        return lc.chunk.getId(lx, wy, lz);
     }
 
     public int getMetaAtWorld(int wx, int wy, int wz) {
         int cx = worldToChunk(wx);
         int cz = worldToChunk(wz);
-        LoadedChunk lc = loaded.get(new ChunkCoord(cx, cz));
+        LoadedChunk lc = chunkAt(cx, cz);
         if (lc == null) return 0;
         int lx = wx - cx * Chunk.SIZE;
         int lz = wz - cz * Chunk.SIZE;
@@ -283,41 +966,89 @@ public class ChunkManager {
     }
 
     public void setMetaAtWorld(int wx, int wy, int wz, int value) {
-        int cx = worldToChunk(wx);
-        int cz = worldToChunk(wz);
-        LoadedChunk lc = loaded.get(new ChunkCoord(cx, cz));
-        if (lc == null) return;
-        int lx = wx - cx * Chunk.SIZE;
-        int lz = wz - cz * Chunk.SIZE;
-        if (wy < 0 || wy >= Chunk.HEIGHT || lx < 0 || lx >= Chunk.SIZE || lz < 0 || lz >= Chunk.SIZE) return;
-        lc.chunk.setMeta(lx, wy, lz, value);
+        editor.setMeta(wx, wy, wz, value);
     }
 
     public void setBlockAndMetaAtWorld(int wx, int wy, int wz, BlockType type, int meta) {
-        int cx = worldToChunk(wx);
-        int cz = worldToChunk(wz);
-        ChunkCoord key = new ChunkCoord(cx, cz);
-        LoadedChunk lc = loaded.get(key);
-        if (lc == null) return;
-        int lx = wx - cx * Chunk.SIZE;
-        int lz = wz - cz * Chunk.SIZE;
-        if (wy < 0 || wy >= Chunk.HEIGHT || lx < 0 || lx >= Chunk.SIZE || lz < 0 || lz >= Chunk.SIZE) return;
-        lc.chunk.set(lx, wy, lz, type);
-        lc.chunk.setMeta(lx, wy, lz, meta);
-        // Rebuild local chunk mesh
-        Node newGeom = lc.chunk.buildGeometryPair(chunkMaterialSolid, chunkMaterialWater);
-        for (Spatial s : newGeom.getChildren()) {
-            if (s.getName().contains("water")) s.setQueueBucket(RenderQueue.Bucket.Transparent);
-            else s.setQueueBucket(RenderQueue.Bucket.Opaque);
+        editor.setBlockAndMeta(wx, wy, wz, type, meta);
+    }
+
+    /**
+     * Raio contra os blocos (travessia de grade Amanatides–Woo): visita cada voxel cruzado uma vez, em ordem,
+     * e para no primeiro sólido (água inclusa). O voxel de origem é ignorado; se a origem estiver dentro da água,
+     * a água também é atravessada, para dar para mirar nos blocos submersos.
+     * @param dir direção (não precisa estar normalizada)
+     * @return o voxel atingido ou null se nada sólido até {@code maxDist}
+     */
+    public VoxelHit raycast(Vector3f origin, Vector3f dir, float maxDist) {
+        float len = dir.length();
+        if (len < 1e-6f) return null;
+        int x = (int) Math.floor(origin.x);
+        int y = (int) Math.floor(origin.y);
+        int z = (int) Math.floor(origin.z);
+        boolean skipWater = getBlockAtWorld(x, y, z) == BlockType.WATER;
+        return traverse(origin.x, origin.y, origin.z, dir.x / len, dir.y / len, dir.z / len, maxDist,
+                false, skipWater);
+    }
+
+    /**
+     * Varredura de um segmento contra os blocos que bloqueiam movimento (água não conta), para projéteis.
+     * Mesma travessia do {@link #raycast}, mas o voxel de partida também é testado: se já começar dentro de
+     * um bloco, retorna acerto com distância 0 e normal nula. O custo é proporcional aos voxels cruzados.
+     * @return o primeiro voxel bloqueante no segmento ou null; o tempo de impacto (0..1) é
+     *         {@code distance / |to - from|}
+     */
+    public VoxelHit sweep(Vector3f from, Vector3f to) {
+        int x = (int) Math.floor(from.x);
+        int y = (int) Math.floor(from.y);
+        int z = (int) Math.floor(from.z);
+        int start = getIdAtWorld(x, y, z);
+        if (BlockRegistry.isBlocking(start)) return new VoxelHit(x, y, z, 0, 0, 0, 0f, BlockRegistry.byId(start));
+        float dx = to.x - from.x, dy = to.y - from.y, dz = to.z - from.z;
+        float len = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (len < 1e-6f) return null;
+        return traverse(from.x, from.y, from.z, dx / len, dy / len, dz / len, len, true, false);
+    }
+
+    // Travessia Amanatides–Woo a partir do voxel de origem (exclusive); direção já normalizada
+    private VoxelHit traverse(float ox, float oy, float oz, float dx, float dy, float dz, float maxDist,
+                              boolean blocking, boolean skipWater) {
+        int x = (int) Math.floor(ox);
+        int y = (int) Math.floor(oy);
+        int z = (int) Math.floor(oz);
+
+        int stepX = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+        int stepY = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+        int stepZ = dz > 0 ? 1 : (dz < 0 ? -1 : 0);
+        // Distância ao longo do raio para atravessar uma célula inteira em cada eixo
+        float tDeltaX = stepX != 0 ? Math.abs(1f / dx) : Float.POSITIVE_INFINITY;
+        float tDeltaY = stepY != 0 ? Math.abs(1f / dy) : Float.POSITIVE_INFINITY;
+        float tDeltaZ = stepZ != 0 ? Math.abs(1f / dz) : Float.POSITIVE_INFINITY;
+        // Distância até a primeira borda de célula em cada eixo
+        float tMaxX = stepX > 0 ? (x + 1 - ox) * tDeltaX : (stepX < 0 ? (ox - x) * tDeltaX : Float.POSITIVE_INFINITY);
+        float tMaxY = stepY > 0 ? (y + 1 - oy) * tDeltaY : (stepY < 0 ? (oy - y) * tDeltaY : Float.POSITIVE_INFINITY);
+        float tMaxZ = stepZ > 0 ? (z + 1 - oz) * tDeltaZ : (stepZ < 0 ? (oz - z) * tDeltaZ : Float.POSITIVE_INFINITY);
+
+        while (true) {
+            float t;
+            int nx = 0, ny = 0, nz = 0;
+            if (tMaxX < tMaxY && tMaxX < tMaxZ) {
+                x += stepX; t = tMaxX; tMaxX += tDeltaX; nx = -stepX;
+            } else if (tMaxY < tMaxZ) {
+                y += stepY; t = tMaxY; tMaxY += tDeltaY; ny = -stepY;
+            } else {
+                z += stepZ; t = tMaxZ; tMaxZ += tDeltaZ; nz = -stepZ;
+            }
+            if (t > maxDist) return null;
+            // Fora da faixa vertical do mundo e se afastando dela: nada mais a atingir
+            if ((y < 0 && stepY <= 0) || (y >= Chunk.HEIGHT && stepY >= 0)) return null;
+            int b = getIdAtWorld(x, y, z);
+            boolean hit = blocking ? BlockRegistry.isBlocking(b)
+                    : (BlockRegistry.isSolid(b) && !(skipWater && b == (BlockType.WATER.id & 0xFF)));
+            if (hit) {
+                return new VoxelHit(x, y, z, nx, ny, nz, t, BlockRegistry.byId(b));
+            }
         }
-        lc.geom.removeFromParent();
-        worldNode.attachChild(newGeom);
-        lc.geom = newGeom;
-        // Rebuild neighbors if na borda
-        if (lx == 0) rebuildNeighbor(cx - 1, cz);
-        if (lx == Chunk.SIZE - 1) rebuildNeighbor(cx + 1, cz);
-        if (lz == 0) rebuildNeighbor(cx, cz - 1);
-        if (lz == Chunk.SIZE - 1) rebuildNeighbor(cx, cz + 1);
     }
 
     public void enqueueWaterUpdate(int wx, int wy, int wz) {
@@ -0,0 +1,182 @@
+package com.minecraftcopilot.world;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Mapa de chunks com chave primitiva {@code long} (cx, cz empacotados) e endereçamento aberto
+ * (sondagem linear, remoção por deslocamento para trás). Sem boxing e sem alocar registro por consulta,
+ * pensado para as buscas voxel a voxel de colisão/água. Não é thread-safe (uso na thread do jME).
+ */
+public final class ChunkMap<V> implements Iterable<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private Object[] values; // null = slot vazio
+    private int size = 0;
+    private int mask;
+    private int resizeAt;
+
+    public ChunkMap() {
+        this(256);
+    }
+
+    public ChunkMap(int expected) {
+        int cap = Integer.highestOneBit(Math.max(16, (int) (expected / LOAD_FACTOR)) - 1) << 1;
+        allocate(cap);
+    }
+
+    /** Empacota coordenadas de chunk numa chave única. */
+    public static long key(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    public static int keyX(long key) { return (int) (key >> 32); }
+    public static int keyZ(long key) { return (int) key; }
+
+    // Hash multiplicativo de Fibonacci (chave vezes 2^64/φ) dobrado com a metade de cima, a mais bem misturada,
+    // para espalhar coordenadas vizinhas pela tabela. Visível no pacote para os testes montarem colisões
+    static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= (h >>> 32);
+        return (int) h & mask;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int i = slot(key, mask);
+        while (true) {
+            Object v = values[i];
+            if (v == null) return null;
+            if (keys[i] == key) return (V) v;
+            i = (i + 1) & mask;
+        }
+    }
+
+    public V get(int cx, int cz) {
+        return get(key(cx, cz));
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /** Insere/substitui. Valores null não são permitidos (null marca slot vazio). */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) throw new IllegalArgumentException("null value");
+        int i = slot(key, mask);
+        while (true) {
+            Object v = values[i];
+            if (v == null) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size >= resizeAt) rehash(keys.length << 1);
+                return null;
+            }
+            if (keys[i] == key) {
+                values[i] = value;
+                return (V) v;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int i = slot(key, mask);
+        while (true) {
+            Object v = values[i];
+            if (v == null) return null;
+            if (keys[i] == key) {
+                shiftBack(i);
+                size--;
+                return (V) v;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /** Chaves atuais (cópia), útil para remover durante uma varredura. */
+    public long[] keys() {
+        long[] out = new long[size];
+        int n = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) out[n++] = keys[i];
+        }
+        return out;
+    }
+
+    // Remoção sem lápides: puxa para trás os elementos seguintes do mesmo cluster
+    private void shiftBack(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            Object v = values[i];
+            if (v == null) break;
+            int home = slot(keys[i], mask);
+            // o elemento em i pode ocupar o buraco se a sua posição ideal não estiver entre (hole, i]
+            boolean movable = (hole <= i) ? (home <= hole || home > i) : (home <= hole && home > i);
+            if (movable) {
+                keys[hole] = keys[i];
+                values[hole] = v;
+                hole = i;
+            }
+        }
+        values[hole] = null;
+    }
+
+    private void allocate(int cap) {
+        keys = new long[cap];
+        values = new Object[cap];
+        mask = cap - 1;
+        resizeAt = (int) (cap * LOAD_FACTOR);
+    }
+
+    private void rehash(int newCap) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCap);
+        for (int i = 0; i < oldValues.length; i++) {
+            Object v = oldValues[i];
+            if (v == null) continue;
+            int j = slot(oldKeys[i], mask);
+            while (values[j] != null) j = (j + 1) & mask;
+            keys[j] = oldKeys[i];
+            values[j] = v;
+        }
+    }
+
+    /** Itera os valores. Não modificar o mapa durante a iteração. */
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<>() {
+            int i = advance(0);
+
+            private int advance(int from) {
+                while (from < values.length && values[from] == null) from++;
+                return from;
+            }
+
+            @Override public boolean hasNext() { return i < values.length; }
+
+            @SuppressWarnings("unchecked")
+            @Override public V next() {
+                if (i >= values.length) throw new NoSuchElementException();
+                V v = (V) values[i];
+                i = advance(i + 1);
+                return v;
+            }
+        };
+    }
+}
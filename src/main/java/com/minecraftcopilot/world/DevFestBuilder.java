@@ -17,22 +17,24 @@ public final class DevFestBuilder {
         int bz = floor(camPos.z + camDir.z * 6f);
         int by = groundYAt(cm, bx, (int)Math.floor(camPos.y) + 6, bz) + 1;
 
-        // Texto: DEVFEST em fontes 5x7, 1 bloco de espaçamento
+        // Texto: DEVFEST em fontes 5x7, 1 bloco de espaçamento. Em lote: cada seção é remeshada uma vez só
         String text = "DEVFEST";
-        int x = bx;
-        for (int i = 0; i < text.length(); i++) {
-            char ch = text.charAt(i);
-            drawLetter(cm, ch, x, by, bz);
-            x += 6; // 5 de largura + 1 de espaço
-        }
+        cm.edit(editor -> {
+            int x = bx;
+            for (int i = 0; i < text.length(); i++) {
+                char ch = text.charAt(i);
+                drawLetter(editor, ch, x, by, bz);
+                x += 6; // 5 de largura + 1 de espaço
+            }
+        });
     }
 
-    private static void drawLetter(ChunkManager cm, char ch, int bx, int by, int bz) {
+    private static void drawLetter(WorldEditor editor, char ch, int bx, int by, int bz) {
         boolean[][] m = letter(ch);
         for (int yy = 0; yy < 7; yy++) {
             for (int xx = 0; xx < 5; xx++) {
                 if (m[yy][xx]) {
-                    cm.setBlockAtWorld(bx + xx, by + (6 - yy), bz, BlockType.WOOD);
+                    editor.setBlock(bx + xx, by + (6 - yy), bz, BlockType.WOOD);
                 }
             }
         }
@@ -102,6 +104,8 @@ public final class DevFestBuilder {
 
     private static int groundYAt(ChunkManager cm, int wx, int startY, int wz) {
         int y = Math.min(Chunk.HEIGHT - 1, Math.max(0, startY));
+        int surface = cm.getSurfaceY(wx, wz);
+        if (surface <= y) return Math.max(0, surface);
         for (int yy = y; yy >= 0; yy--) {
             if (cm.isBlockingAtWorld(wx, yy, wz)) return yy;
         }
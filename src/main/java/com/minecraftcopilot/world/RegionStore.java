@@ -0,0 +1,316 @@
+package com.minecraftcopilot.world;
+
+import com.minecraftcopilot.Chunk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * Chunks modificados gravados em disco em arquivos de região: cada {@code r.X.Z.bin} guarda até 32x32 chunks.
+ * O arquivo começa com uma tabela de 1024 entradas (setor inicial e tamanho em bytes do registro de cada chunk)
+ * e segue em setores de 256 bytes com os registros comprimidos por {@link ChunkCodec}.
+ * No modo {@link Mode#DELTA} o registro guarda só as células que diferem do terreno gerado pela seed (cai para o
+ * chunk completo quando isso sai menor); a leitura aceita os dois tipos, então trocar de modo não perde nada.
+ * Um delta só é reaplicado sobre o terreno da mesma {@link WorldGenerator#version() versão} do gerador; se o
+ * gerador mudou desde a gravação, {@link #load} recusa o registro (que fica intacto) em vez de espalhar as
+ * edições antigas por um terreno diferente.
+ * Um registro regravado vai para setores livres e só depois a tabela passa a apontar para ele, com
+ * {@link FileChannel#force} entre os dois passos e antes de liberar os setores antigos: o sistema operacional não
+ * pode gravar a entrada da tabela antes dos dados, nem reaproveitar setores que a tabela no disco ainda usa. Se
+ * o jogo (ou a máquina) cair no meio da escrita, a versão anterior continua válida. Em lote ({@link #saveAll}, a
+ * pré-geração) os registros de uma região vão todos para o disco antes, e a tabela é publicada uma vez só para
+ * eles: dois force por região em vez de dois por chunk.
+ * Seguro entre threads: leituras vêm das threads de geração, escritas da thread do jME.
+ */
+public class RegionStore implements Closeable {
+
+    public static final int REGION_SHIFT = 5;
+    public static final int REGION_SIZE = 1 << REGION_SHIFT; // chunks por lado
+    // Setor pequeno: um delta típico tem dezenas de bytes e um chunk completo comprimido, 1-3 KB
+    private static final int SECTOR = 256;
+    private static final int ENTRIES = REGION_SIZE * REGION_SIZE;
+    private static final int HEADER_SECTORS = ENTRIES * 8 / SECTOR;
+    // Arquivos abertos ao mesmo tempo; passando disso fecha todos (reabrir custa só a leitura da tabela)
+    private static final int MAX_OPEN = 32;
+
+    public enum Mode {
+        /** Chunk inteiro. */
+        FULL,
+        /** Só as diferenças para {@link WorldGenerator} com a seed do mundo. */
+        DELTA
+    }
+
+    private final Path dir;
+    private final Mode mode;
+    private final WorldGenerator generator;
+    private final ChunkMap<Region> regions = new ChunkMap<>();
+    private boolean closed = false;
+
+    /** @param seed seed do mundo; deltas e a recuperação do journal regeram o terreno com ela */
+    public RegionStore(Path dir, Mode mode, int seed) throws IOException {
+        this.dir = dir;
+        this.mode = mode;
+        this.generator = WorldGenerator.forSeed(seed);
+        Files.createDirectories(dir);
+    }
+
+    public Mode getMode() { return mode; }
+
+    public Path getDirectory() { return dir; }
+
+    /**
+     * @return o chunk gravado em (cx, cz) ou null se nunca foi salvo
+     * @throws IOException também para um delta gravado sobre outra versão do terreno
+     */
+    public Chunk load(int cx, int cz) throws IOException {
+        byte[] record;
+        synchronized (this) {
+            Region r = region(cx >> REGION_SHIFT, cz >> REGION_SHIFT, false);
+            if (r == null) return null;
+            record = r.read(slot(cx, cz));
+        }
+        if (record == null) return null;
+        if (!ChunkCodec.isDelta(record)) return ChunkCodec.decode(cx, cz, record);
+        int version = ChunkCodec.deltaVersion(record);
+        if (version != generator.version()) {
+            throw new IOException("chunk " + cx + "," + cz + ": delta sobre o terreno v" + version
+                    + ", o gerador atual é v" + generator.version());
+        }
+        Chunk chunk = generate(cx, cz);
+        ChunkCodec.applyDelta(chunk, record);
+        return chunk;
+    }
+
+    /**
+     * Grava (ou regrava) o chunk; a compressão roda fora da trava.
+     * @return bytes do registro gravado
+     */
+    public int save(int cx, int cz, Chunk chunk) throws IOException {
+        return save(cx, cz, chunk, null);
+    }
+
+    /** Há registro gravado para (cx, cz). */
+    public synchronized boolean contains(int cx, int cz) throws IOException {
+        Region r = region(cx >> REGION_SHIFT, cz >> REGION_SHIFT, false);
+        return r != null && r.offsets[slot(cx, cz)] != 0;
+    }
+
+    // full: o chunk já comprimido por ChunkCodec.encode (o mesmo que vai para o cache), ou null.
+    // Retorna os bytes do registro gravado
+    int save(int cx, int cz, Chunk chunk, byte[] full) throws IOException {
+        byte[] record = encode(cx, cz, chunk, full);
+        synchronized (this) {
+            region(cx >> REGION_SHIFT, cz >> REGION_SHIFT, true).write(slot(cx, cz), record);
+        }
+        return record.length;
+    }
+
+    /**
+     * Grava (ou regrava) vários chunks de uma vez, para a pré-geração. Em cada arquivo de região os registros vão
+     * para setores livres e só então a tabela passa a apontar para todos eles; se a escrita cair no meio, a tabela
+     * anterior continua válida, como em {@link #save}.
+     * @param chunks chunks por {@link ChunkMap#key}
+     * @return bytes dos registros gravados
+     */
+    public long saveAll(ChunkMap<Chunk> chunks) throws IOException {
+        // Compressão fora da trava, já separada por região
+        ChunkMap<ChunkMap<byte[]>> byRegion = new ChunkMap<>();
+        for (long k : chunks.keys()) {
+            int cx = ChunkMap.keyX(k), cz = ChunkMap.keyZ(k);
+            long rk = ChunkMap.key(cx >> REGION_SHIFT, cz >> REGION_SHIFT);
+            ChunkMap<byte[]> records = byRegion.get(rk);
+            if (records == null) byRegion.put(rk, records = new ChunkMap<>());
+            records.put(k, encode(cx, cz, chunks.get(k), null));
+        }
+        long bytes = 0;
+        synchronized (this) {
+            // Uma região por vez: region() pode fechar as abertas, e nada preparado pode ficar sem publicar
+            for (long rk : byRegion.keys()) {
+                Region r = region(ChunkMap.keyX(rk), ChunkMap.keyZ(rk), true);
+                ChunkMap<byte[]> records = byRegion.get(rk);
+                for (long k : records.keys()) {
+                    byte[] record = records.get(k);
+                    r.stage(slot(ChunkMap.keyX(k), ChunkMap.keyZ(k)), record);
+                    bytes += record.length;
+                }
+                r.publish();
+            }
+        }
+        return bytes;
+    }
+
+    // Registro do chunk: completo ou, em DELTA, o delta quando sai menor
+    private byte[] encode(int cx, int cz, Chunk chunk, byte[] full) throws IOException {
+        byte[] record = full != null ? full : ChunkCodec.encode(chunk);
+        if (mode == Mode.DELTA) {
+            // Muitas edições espalhadas: o chunk completo comprime melhor que a lista de células
+            byte[] delta = ChunkCodec.encodeDelta(chunk, generate(cx, cz), generator.version());
+            if (delta.length < record.length) record = delta;
+        }
+        return record;
+    }
+
+    /** O chunk gravado ou, se não houver, o gerado pela seed. */
+    Chunk loadOrGenerate(int cx, int cz) throws IOException {
+        Chunk chunk = load(cx, cz);
+        return chunk != null ? chunk : generate(cx, cz);
+    }
+
+    // Terreno de referência dos deltas
+    private Chunk generate(int cx, int cz) {
+        return generator.generate(cx, cz);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        closeRegions();
+    }
+
+    private static int slot(int cx, int cz) {
+        return (cx & (REGION_SIZE - 1)) + (cz & (REGION_SIZE - 1)) * REGION_SIZE;
+    }
+
+    private Region region(int rx, int rz, boolean create) throws IOException {
+        if (closed) throw new IOException("RegionStore fechado");
+        long k = ChunkMap.key(rx, rz);
+        Region r = regions.get(k);
+        if (r != null) return r;
+        Path file = dir.resolve("r." + rx + "." + rz + ".bin");
+        if (!create && !Files.exists(file)) return null;
+        if (regions.size() >= MAX_OPEN) closeRegions();
+        r = new Region(file);
+        regions.put(k, r);
+        return r;
+    }
+
+    private void closeRegions() throws IOException {
+        IOException first = null;
+        for (Region r : regions) {
+            try {
+                r.channel.close();
+            } catch (IOException e) {
+                if (first == null) first = e;
+            }
+        }
+        regions.clear();
+        if (first != null) throw first;
+    }
+
+    private static final class Region {
+        final FileChannel channel;
+        final int[] offsets = new int[ENTRIES]; // setor inicial do registro (0 = ausente)
+        final int[] lengths = new int[ENTRIES]; // bytes do registro
+        final BitSet used = new BitSet();       // setores ocupados (tabela + registros)
+        // Registros já gravados que a tabela ainda não aponta (stage), até o publish
+        final BitSet staged = new BitSet(ENTRIES);
+        final int[] stagedOffsets = new int[ENTRIES];
+        final int[] stagedLengths = new int[ENTRIES];
+
+        Region(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            used.set(0, HEADER_SECTORS);
+            long size = channel.size();
+            if (size < HEADER_SECTORS * SECTOR) {
+                // Arquivo novo (ou truncado antes da tabela): começa vazio
+                writeFully(ByteBuffer.allocate(HEADER_SECTORS * SECTOR), 0);
+                return;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SECTORS * SECTOR);
+            readFully(header, 0);
+            header.flip();
+            for (int i = 0; i < ENTRIES; i++) {
+                int off = header.getInt();
+                int len = header.getInt();
+                // Entrada apontando para fora do arquivo ou para a tabela: ignora (chunk será regerado)
+                if (off < HEADER_SECTORS || len <= 0 || (long) off * SECTOR + len > size) continue;
+                offsets[i] = off;
+                lengths[i] = len;
+                used.set(off, off + sectors(len));
+            }
+        }
+
+        byte[] read(int slot) throws IOException {
+            if (offsets[slot] == 0) return null;
+            ByteBuffer buf = ByteBuffer.allocate(lengths[slot]);
+            readFully(buf, (long) offsets[slot] * SECTOR);
+            return buf.array();
+        }
+
+        void write(int slot, byte[] record) throws IOException {
+            stage(slot, record);
+            publish();
+        }
+
+        // Grava o registro em setores livres sem tocar na tabela
+        void stage(int slot, byte[] record) throws IOException {
+            int need = sectors(record.length);
+            // Os setores do registro atual continuam marcados, então o novo nunca os sobrescreve
+            int start = findFree(need);
+            used.set(start, start + need);
+            writeFully(ByteBuffer.wrap(record), (long) start * SECTOR);
+            // Regravado antes do publish: a versão preparada antes nunca chegou à tabela
+            if (staged.get(slot)) used.clear(stagedOffsets[slot], stagedOffsets[slot] + sectors(stagedLengths[slot]));
+            staged.set(slot);
+            stagedOffsets[slot] = start;
+            stagedLengths[slot] = record.length;
+        }
+
+        // Aponta a tabela para os registros preparados, numa escrita só do trecho entre o primeiro e o último
+        void publish() throws IOException {
+            if (staged.isEmpty()) return;
+            channel.force(false); // dados no disco antes das entradas que apontam para eles
+            int first = staged.nextSetBit(0), last = staged.length() - 1;
+            ByteBuffer entries = ByteBuffer.allocate((last - first + 1) * 8);
+            for (int slot = first; slot <= last; slot++) {
+                boolean s = staged.get(slot);
+                entries.putInt(s ? stagedOffsets[slot] : offsets[slot]).putInt(s ? stagedLengths[slot] : lengths[slot]);
+            }
+            entries.flip();
+            writeFully(entries, first * 8L);
+            channel.force(false); // entradas no disco antes de os setores antigos poderem ser reaproveitados
+            for (int slot = first; slot >= 0; slot = staged.nextSetBit(slot + 1)) {
+                int old = offsets[slot];
+                if (old != 0) used.clear(old, old + sectors(lengths[slot]));
+                offsets[slot] = stagedOffsets[slot];
+                lengths[slot] = stagedLengths[slot];
+            }
+            staged.clear();
+        }
+
+        // Primeira sequência de setores livres com o tamanho pedido (ou o fim do arquivo)
+        private int findFree(int need) {
+            int s = HEADER_SECTORS;
+            while (true) {
+                int free = used.nextClearBit(s);
+                int next = used.nextSetBit(free);
+                if (next < 0 || next - free >= need) return free;
+                s = next;
+            }
+        }
+
+        private void readFully(ByteBuffer buf, long pos) throws IOException {
+            while (buf.hasRemaining()) {
+                int n = channel.read(buf, pos + buf.position());
+                if (n < 0) throw new IOException("fim inesperado do arquivo de região");
+            }
+        }
+
+        private void writeFully(ByteBuffer buf, long pos) throws IOException {
+            while (buf.hasRemaining()) {
+                channel.write(buf, pos + buf.position());
+            }
+        }
+
+        private static int sectors(int bytes) {
+            return (bytes + SECTOR - 1) / SECTOR;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.minecraftcopilot.world;
+
+import com.minecraftcopilot.BlockRegistry;
+import com.minecraftcopilot.Chunk;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Gravação em segundo plano (write-behind) dos chunks no {@link RegionStore}.
+ * A thread do jME só entrega cópias ({@link Chunk#snapshot}) ou chunks já descarregados; serializar, comprimir e
+ * escrever rodam numa única thread de I/O, em ordem de chegada.
+ * Entre um salvamento completo e outro, cada voxel alterado vai para um journal só de acréscimo
+ * ({@code journal-N.log}), descarregado em disco a cada {@link #JOURNAL_INTERVAL} segundos; se o jogo cair, a
+ * próxima abertura reaplica o journal sobre as regiões e perde no máximo esse intervalo. Chunk cujo registro não
+ * pode ser lido fica de fora dessa reaplicação, com as alterações guardadas para a próxima
+ * ({@link #getKeptJournalChunks}).
+ * Um {@link #checkpoint} troca de segmento; os antigos são apagados quando todas as gravações enfileiradas antes
+ * dele terminam. Gravação que falhou volta para a fila no próximo checkpoint e segura o journal até dar certo.
+ * Registro do journal: wx (int), wy (byte), wz (int), id (byte), meta (byte).
+ */
+public class SavePipeline implements Closeable {
+
+    public static final float JOURNAL_INTERVAL = 1f;
+    // Alterações de chunks que a recuperação não conseguiu ler do disco; segmentos numerados são apagados
+    private static final String KEPT_JOURNAL = "journal-kept.log";
+
+    /** Métricas acumuladas desde a abertura. */
+    public record Stats(long chunksWritten, long bytesWritten, double writeMs, int queued, long journalBytes) {
+        public double chunksPerSecond() { return writeMs <= 0 ? 0 : chunksWritten * 1000.0 / writeMs; }
+        public double kbPerSecond() { return writeMs <= 0 ? 0 : bytesWritten / 1.024 / writeMs; }
+    }
+
+    private final RegionStore store;
+    private final Path dir;
+    private final ExecutorService io;
+    // Gravações ainda na fila: carregar o chunk nesse meio tempo tem que ver a versão nova
+    private final ConcurrentHashMap<Long, Chunk> inFlight = new ConcurrentHashMap<>();
+    private record Failed(int cx, int cz, Chunk chunk) {}
+    private final ConcurrentLinkedQueue<Failed> failed = new ConcurrentLinkedQueue<>();
+
+    // Journal: buffer na thread do jME, arquivo só na thread de I/O
+    private ByteArrayOutputStream journalBuf = new ByteArrayOutputStream(4096);
+    private DataOutputStream journalOut = new DataOutputStream(journalBuf);
+    private float journalTimer = 0f;
+    private int segment;
+    private FileChannel journalChannel;  // thread de I/O
+    private int journalChannelSegment = -1;
+    private volatile boolean writeFailed = false;
+    private int keptChunks;
+
+    private final AtomicLong chunksWritten = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+    private final AtomicLong journalBytes = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /** Abre a gravação sobre o store, reaplicando antes qualquer journal deixado por uma sessão que caiu. */
+    public SavePipeline(RegionStore store) throws IOException {
+        this.store = store;
+        this.dir = store.getDirectory();
+        this.segment = recover() + 1;
+        this.io = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "chunk-saver");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Thread do jME: registra um voxel alterado (estado final do bloco e do meta). */
+    public void journal(int wx, int wy, int wz, int id, int meta) {
+        try {
+            journalOut.writeInt(wx);
+            journalOut.writeByte(wy);
+            journalOut.writeInt(wz);
+            journalOut.writeByte(id);
+            journalOut.writeByte(meta);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // ByteArrayOutputStream não lança
+        }
+    }
+
+    /** Thread do jME, uma vez por frame: manda o journal acumulado para o disco a cada intervalo. */
+    public void update(float tpf) {
+        journalTimer += tpf;
+        if (journalTimer >= JOURNAL_INTERVAL) {
+            journalTimer = 0f;
+            flushJournal();
+        }
+    }
+
+    /**
+     * Thread do jME: enfileira a gravação. {@code chunk} não pode mais ser alterado por quem chamou
+     * (passar um snapshot ou um chunk descarregado). {@code full} é o chunk já comprimido, se houver.
+     */
+    public void save(int cx, int cz, Chunk chunk, byte[] full) {
+        long key = ChunkMap.key(cx, cz);
+        inFlight.put(key, chunk);
+        queued.incrementAndGet();
+        io.execute(() -> {
+            long t0 = System.nanoTime();
+            try {
+                int bytes = store.save(cx, cz, chunk, full);
+                bytesWritten.addAndGet(bytes);
+                chunksWritten.incrementAndGet();
+                inFlight.remove(key, chunk);
+            } catch (IOException | RuntimeException e) {
+                // Continua em inFlight (carregar ainda vê esta versão) e tenta de novo no próximo checkpoint
+                writeFailed = true;
+                failed.add(new Failed(cx, cz, chunk));
+                e.printStackTrace();
+            } finally {
+                writeNanos.addAndGet(System.nanoTime() - t0);
+                queued.decrementAndGet();
+            }
+        });
+    }
+
+    /** Qualquer thread: a versão mais nova do chunk (na fila ou em disco), ou null se nunca foi salvo. */
+    public Chunk load(int cx, int cz) throws IOException {
+        Chunk pending = inFlight.get(ChunkMap.key(cx, cz));
+        if (pending != null) return pending.snapshot();
+        return store.load(cx, cz);
+    }
+
+    /**
+     * Thread do jME, logo depois de enfileirar os snapshots de todos os chunks modificados: fecha o segmento
+     * atual do journal. Os segmentos fechados são apagados depois que as gravações já enfileiradas terminarem.
+     */
+    public void checkpoint() {
+        Failed f;
+        while ((f = failed.poll()) != null) {
+            // Se já há versão mais nova na fila, a antiga não deve sobrescrevê-la
+            if (inFlight.get(ChunkMap.key(f.cx(), f.cz())) == f.chunk()) save(f.cx(), f.cz(), f.chunk(), null);
+        }
+        flushJournal();
+        final int closed = segment++;
+        io.execute(() -> {
+            if (writeFailed) {
+                writeFailed = false; // mantém os segmentos: a recuperação reaplica tudo em ordem
+                return;
+            }
+            try {
+                closeJournalChannel();
+                deleteSegmentsUpTo(closed);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Chunks com alterações no journal que a recuperação da abertura não aplicou porque o registro deles no disco
+     * não pôde ser lido (por exemplo, delta de outra versão do terreno). Elas ficam guardadas, não perdidas.
+     */
+    public int getKeptJournalChunks() {
+        return keptChunks;
+    }
+
+    public Stats getStats() {
+        return new Stats(chunksWritten.get(), bytesWritten.get(), writeNanos.get() / 1e6, queued.get(),
+                journalBytes.get());
+    }
+
+    /** Espera a fila esvaziar e fecha o journal e o store. Chamar depois de um {@link #checkpoint} final. */
+    @Override
+    public void close() throws IOException {
+        flushJournal();
+        io.shutdown();
+        try {
+            if (!io.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.err.println("[Save] gravação não terminou em 30 s; o journal fica para a próxima sessão");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeJournalChannel();
+        store.close();
+    }
+
+    private void flushJournal() {
+        if (journalBuf.size() == 0) return;
+        final byte[] bytes = journalBuf.toByteArray();
+        final int seg = segment;
+        journalBuf = new ByteArrayOutputStream(4096);
+        journalOut = new DataOutputStream(journalBuf);
+        io.execute(() -> {
+            try {
+                appendJournal(seg, bytes);
+                journalBytes.addAndGet(bytes.length);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    // Thread de I/O
+    private void appendJournal(int seg, byte[] bytes) throws IOException {
+        if (journalChannelSegment != seg) {
+            closeJournalChannel();
+            journalChannel = FileChannel.open(journalFile(seg), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            journalChannelSegment = seg;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        while (buf.hasRemaining()) journalChannel.write(buf);
+        journalChannel.force(false);
+    }
+
+    private void closeJournalChannel() throws IOException {
+        if (journalChannel != null) {
+            journalChannel.close();
+            journalChannel = null;
+            journalChannelSegment = -1;
+        }
+    }
+
+    private Path journalFile(int seg) {
+        return dir.resolve("journal-" + seg + ".log");
+    }
+
+    private List<Integer> segments() throws IOException {
+        List<Integer> out = new ArrayList<>();
+        try (Stream<Path> s = Files.list(dir)) {
+            s.forEach(p -> {
+                String n = p.getFileName().toString();
+                if (!n.startsWith("journal-") || !n.endsWith(".log")) return;
+                try {
+                    out.add(Integer.parseInt(n.substring(8, n.length() - 4)));
+                } catch (NumberFormatException ignored) {
+                }
+            });
+        }
+        out.sort(null);
+        return out;
+    }
+
+    private void deleteSegmentsUpTo(int last) throws IOException {
+        for (int seg : segments()) {
+            if (seg <= last) Files.deleteIfExists(journalFile(seg));
+        }
+    }
+
+    // Reaplica os segmentos em ordem sobre as regiões e os apaga. Retorna o maior segmento encontrado (ou 0).
+    // Chunk cujo registro em disco não dá para ler (delta de outra versão do terreno, arquivo corrompido) não é
+    // regerado por cima: as alterações dele vão para journal-kept.log, relido antes dos segmentos na próxima
+    // abertura, e o resto do journal é aplicado normalmente
+    private int recover() throws IOException {
+        List<Integer> segs = segments();
+        Path keptFile = dir.resolve(KEPT_JOURNAL);
+        boolean hadKept = Files.exists(keptFile);
+        if (segs.isEmpty() && !hadKept) return 0;
+        List<Path> files = new ArrayList<>();
+        if (hadKept) files.add(keptFile);
+        for (int seg : segs) files.add(journalFile(seg));
+        ChunkMap<Chunk> touched = new ChunkMap<>();
+        ChunkMap<Boolean> unreadable = new ChunkMap<>();
+        ByteArrayOutputStream kept = new ByteArrayOutputStream();
+        DataOutputStream keptOut = new DataOutputStream(kept);
+        int records = 0;
+        for (Path file : files) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                while (true) {
+                    int wx, wy, wz, id, meta;
+                    try {
+                        wx = in.readInt();
+                        wy = in.readUnsignedByte();
+                        wz = in.readInt();
+                        id = in.readUnsignedByte();
+                        meta = in.readUnsignedByte();
+                    } catch (EOFException e) {
+                        break; // fim do segmento ou registro cortado pela queda
+                    }
+                    int cx = Math.floorDiv(wx, Chunk.SIZE), cz = Math.floorDiv(wz, Chunk.SIZE);
+                    long k = ChunkMap.key(cx, cz);
+                    Chunk chunk = touched.get(k);
+                    if (chunk == null && !unreadable.containsKey(k)) {
+                        try {
+                            chunk = store.loadOrGenerate(cx, cz);
+                            touched.put(k, chunk);
+                        } catch (IOException e) {
+                            unreadable.put(k, Boolean.TRUE);
+                            System.err.println("[Save] journal do chunk " + cx + "," + cz + " mantido: "
+                                    + e.getMessage());
+                        }
+                    }
+                    if (chunk == null) {
+                        keptOut.writeInt(wx);
+                        keptOut.writeByte(wy);
+                        keptOut.writeInt(wz);
+                        keptOut.writeByte(id);
+                        keptOut.writeByte(meta);
+                        continue;
+                    }
+                    int lx = wx - cx * Chunk.SIZE, lz = wz - cz * Chunk.SIZE;
+                    chunk.set(lx, wy, lz, BlockRegistry.byId(id));
+                    chunk.setMeta(lx, wy, lz, meta);
+                    records++;
+                }
+            }
+        }
+        store.saveAll(touched);
+        // Só depois das regiões no disco: trocar o journal mantido e apagar os segmentos já aplicados
+        if (kept.size() > 0) {
+            Path tmp = dir.resolve(KEPT_JOURNAL + ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = ByteBuffer.wrap(kept.toByteArray());
+                while (buf.hasRemaining()) ch.write(buf);
+                ch.force(false);
+            }
+            Files.move(tmp, keptFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } else {
+            Files.deleteIfExists(keptFile);
+        }
+        int last = segs.isEmpty() ? 0 : segs.get(segs.size() - 1);
+        deleteSegmentsUpTo(last);
+        keptChunks = unreadable.size();
+        System.out.println("[Save] journal reaplicado: " + records + " alterações em " + touched.size() + " chunks"
+                + (keptChunks > 0 ? ", " + keptChunks + " chunks ilegíveis mantidos em " + KEPT_JOURNAL : ""));
+        return last;
+    }
+}
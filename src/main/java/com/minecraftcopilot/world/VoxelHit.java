@@ -0,0 +1,14 @@
+package com.minecraftcopilot.world;
+
+import com.minecraftcopilot.BlockType;
+
+/**
+ * Resultado de um raio contra a grade de voxels: o bloco atingido, a normal da face por onde o raio entrou
+ * (um eixo só, ±1) e a distância percorrida até essa face. A célula de colocação é a vizinha pela normal.
+ */
+public record VoxelHit(int x, int y, int z, int normalX, int normalY, int normalZ, float distance, BlockType block) {
+
+    public int placeX() { return x + normalX; }
+    public int placeY() { return y + normalY; }
+    public int placeZ() { return z + normalZ; }
+}
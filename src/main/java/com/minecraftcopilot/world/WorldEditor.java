@@ -0,0 +1,22 @@
+package com.minecraftcopilot.world;
+
+import com.minecraftcopilot.BlockType;
+
+/**
+ * Acesso de escrita em lote ao mundo, entregue por {@link ChunkManager#edit}.
+ * As escritas só marcam as seções afetadas como sujas; o remesh acontece uma vez por seção no fim do frame.
+ * Não guardar a referência fora do callback.
+ */
+public interface WorldEditor {
+
+    BlockType getBlock(int wx, int wy, int wz);
+
+    /** Retorna false se o chunk não está carregado ou a posição está fora do mundo. */
+    boolean setBlock(int wx, int wy, int wz, BlockType type);
+
+    boolean setBlockAndMeta(int wx, int wy, int wz, BlockType type, int meta);
+
+    int getMeta(int wx, int wy, int wz);
+
+    void setMeta(int wx, int wy, int wz, int meta);
+}
@@ -0,0 +1,438 @@
+package com.minecraftcopilot.world;
+
+import com.minecraftcopilot.BlockType;
+import com.minecraftcopilot.Chunk;
+import com.minecraftcopilot.Noise2D;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ponto único de geração de terreno: o {@link ChunkManager}, os deltas do {@link RegionStore} e a pré-geração
+ * ({@code PreGenerate}) passam por aqui, então todos produzem exatamente o mesmo chunk para a mesma seed.
+ * <p>
+ * A geração roda em {@link Stage estágios}. Só a decoração olha para os vizinhos, e apenas para o plano
+ * (saída do {@link Stage#NOISE}) deles: cada chunk desenha, recortadas nos seus limites, as árvores plantadas em
+ * qualquer um dos 3x3 chunks em volta. Uma copa que cruza a borda sai inteira dos dois lados, seja qual for a
+ * ordem de carregamento, e nenhum chunk já gerado precisa ser reescrito nem remeshado.
+ * Os planos ficam num cache compartilhado, então o ruído de cada chunk é calculado uma vez mesmo sendo lido
+ * pelos vizinhos. Seguro entre threads: chunks diferentes geram em paralelo nas threads de trabalho.
+ * <p>
+ * Um mapa de clima bem lento (relevo e umidade) define por coluna os parâmetros de altura, de planícies a
+ * montanhas, e o material do topo. Na resolução {@link Resolution#COARSE} (a do jogo) todo o ruído (warp,
+ * clima, fbm base e de cristas) roda só numa grade de 4 em 4 blocos; a altura, o relevo e a umidade das colunas
+ * saem por interpolação bilinear entre os pontos da grade.
+ */
+public final class WorldGenerator {
+
+    /** Estágios na ordem em que rodam. */
+    public enum Stage {
+        /** Alturas, bloco do topo e árvores plantadas de cada coluna; só ruído da seed. */
+        NOISE(0),
+        /** Pedra, terra e grama até a altura de cada coluna. */
+        SURFACE(0),
+        /** Água nas depressões até {@link #WATER_LEVEL}. */
+        FLUIDS(0),
+        /** Troncos e copas, inclusive os que vêm dos vizinhos. */
+        DECORATION(1);
+
+        /** Raio, em chunks, dos vizinhos cujo plano ({@link #NOISE}) o estágio lê. */
+        public final int neighborRadius;
+
+        Stage(int neighborRadius) {
+            this.neighborRadius = neighborRadius;
+        }
+    }
+
+    /** Resolução do ruído do terreno. Mundos diferentes: a mesma seed dá terreno diferente. */
+    public enum Resolution {
+        /** Em toda coluna (referência). */
+        FULL(1),
+        /** Numa grade de 4 em 4 blocos; as colunas entre os pontos são interpoladas. */
+        COARSE(4);
+
+        /** Distância em blocos entre amostras. */
+        public final int step;
+
+        Resolution(int step) {
+            this.step = step;
+        }
+
+        /** Amostras de fbm (pontos x oitavas) do mapa de alturas de um chunk. */
+        public int noiseSamplesPerChunk() {
+            int side = side(step);
+            return side * side * (2 * WARP_OCTAVES + RELIEF_OCTAVES + MOISTURE_OCTAVES + BASE_OCTAVES + RIDGE_OCTAVES);
+        }
+    }
+
+    // Parâmetros de terreno
+    private static final float BASE_SCALE = 0.06f; // frequência base (maior -> mais suave)
+    private static final int BASE_OCTAVES = 4;
+    // Warping para variar padrões (distorção do domínio)
+    private static final float WARP_SCALE = 0.02f; // frequência do warp
+    private static final float WARP_AMP = 8.0f;    // força do warp em metros
+    private static final int WARP_OCTAVES = 3;
+    // Ruído de cristas (ridge) para picos mais marcados
+    private static final float RIDGE_SCALE = 0.04f;
+    private static final int RIDGE_OCTAVES = 3;
+
+    // Clima: relevo (0 planície .. 1 montanha) e umidade, em regiões de centenas de blocos
+    private static final float RELIEF_SCALE = 0.004f;
+    private static final int RELIEF_OCTAVES = 2;
+    private static final float RELIEF_CONTRAST = 2.2f; // espalha o relevo: ~10% planície e ~10% montanha
+    private static final float MOISTURE_SCALE = 0.006f;
+    private static final int MOISTURE_OCTAVES = 2;
+    private static final float DRY = 0.3f;             // abaixo disso o topo é terra seca, sem árvores
+    private static final int TREE_SPACING = 4;         // distância mínima entre troncos do mesmo chunk
+    // Nível médio, amplitude dos morros e das cristas nos dois extremos; no meio, os morros de antes (18, 12, 6)
+    private static final float PLAINS_HEIGHT = 17f, MOUNTAIN_HEIGHT = 19f;
+    private static final float PLAINS_AMP = 6f, MOUNTAIN_AMP = 18f;
+    private static final float PLAINS_RIDGE = 2f, MOUNTAIN_RIDGE = 10f;
+    /** Nível d'água global simples (lagos/"mar"). */
+    public static final int WATER_LEVEL = 16;
+
+    // Versão do algoritmo de terreno: subir a cada mudança que altere os blocos gerados para uma seed. Deltas
+    // gravados com outra versão não são reaplicados ({@link RegionStore})
+    // 2: altura interpolada da grade em COARSE; 3: ruído em [0, 1), com árvores pelo plano e não só a do centro
+    private static final int ALGORITHM_VERSION = 3;
+
+    // Planos guardados; passando disso o cache é esvaziado (recalcular um plano custa só o ruído)
+    private static final int MAX_PLANS = 4096;
+    private static final ConcurrentHashMap<Long, WorldGenerator> BY_SEED = new ConcurrentHashMap<>();
+
+    // Árvore plantada na coluna (x, z) do chunk de origem, com chão em h
+    private record Tree(int x, int z, int h, int trunkH, int r, boolean tallNarrow, boolean fallback) {}
+
+    // Saída do estágio NOISE: alturas [x][z], bloco do topo e árvores do chunk
+    private record Plan(int[][] heights, BlockType[][] top, Tree[] trees) {}
+
+    // Alturas [x][z] e, por coluna (z * SIZE + x), relevo e umidade já interpolados
+    private record Terrain(int[][] heights, float[] relief, float[] moisture) {}
+
+    private final int seed;
+    private final Resolution resolution;
+    private final ConcurrentHashMap<Long, Plan> plans = new ConcurrentHashMap<>();
+
+    private WorldGenerator(int seed, Resolution resolution) {
+        this.seed = seed;
+        this.resolution = resolution;
+    }
+
+    /** Gerador compartilhado da seed, na resolução do jogo ({@link Resolution#COARSE}). */
+    public static WorldGenerator forSeed(int seed) {
+        return forSeed(seed, Resolution.COARSE);
+    }
+
+    /** Gerador compartilhado (o cache de planos vale para todos que geram o mesmo mundo). */
+    public static WorldGenerator forSeed(int seed, Resolution resolution) {
+        return BY_SEED.computeIfAbsent(((long) seed << 8) | resolution.ordinal(),
+                k -> new WorldGenerator(seed, resolution));
+    }
+
+    public Resolution getResolution() { return resolution; }
+
+    /**
+     * Identifica o terreno produzido (versão do algoritmo e resolução): mesma versão e seed, mesmos blocos.
+     * Nunca 0, que fica para os deltas gravados antes da versão existir.
+     */
+    public int version() {
+        return (ALGORITHM_VERSION << 8) | resolution.ordinal();
+    }
+
+    public static Chunk generate(int cx, int cz, int seed) {
+        return forSeed(seed).generate(cx, cz);
+    }
+
+    public Chunk generate(int cx, int cz) {
+        Chunk chunk = new Chunk(cx, cz);
+        Plan plan = plan(cx, cz);
+        for (Stage stage : Stage.values()) {
+            switch (stage) {
+                case NOISE -> { } // já no plano
+                case SURFACE -> surface(chunk, plan);
+                case FLUIDS -> fluids(chunk, plan);
+                case DECORATION -> decorate(chunk, cx, cz);
+            }
+        }
+        // Reproduzível a partir da seed: nada a gravar até a primeira edição
+        chunk.clearModified();
+        return chunk;
+    }
+
+    /** Altura do terreno (antes de água e árvores) de cada coluna do chunk, {@code [x][z]}. */
+    public int[][] terrainHeights(int cx, int cz) {
+        return terrain(cx, cz).heights();
+    }
+
+    // Os ruídos saem em lote por Noise2D.fillFbmGrid/fillFbm, num ponto por coluna em FULL (o resultado é o
+    // mesmo das chamadas por coluna) ou nos pontos da grade em COARSE, interpolados no fim
+    private Terrain terrain(int cx, int cz) {
+        final int size = Chunk.SIZE, step = resolution.step, side = side(step);
+        final int n = side * side; // índice gz * side + gx
+        // Domain warp: desloca coordenadas por um ruído lento
+        float[] warpX = points(cx, cz, WARP_SCALE, 0f, 0f, seed + 1337, WARP_OCTAVES);
+        float[] warpZ = points(cx, cz, WARP_SCALE, 57.0f, -91.0f, seed + 4242, WARP_OCTAVES);
+        float[] relief = points(cx, cz, RELIEF_SCALE, 0f, 0f, seed + 5151, RELIEF_OCTAVES);
+        float[] moisture = points(cx, cz, MOISTURE_SCALE, 0f, 0f, seed + 6262, MOISTURE_OCTAVES);
+        float[] baseX = new float[n], baseZ = new float[n], ridgeX = new float[n], ridgeZ = new float[n];
+        for (int gz = 0; gz < side; gz++) {
+            for (int gx = 0; gx < side; gx++) {
+                int c = gz * side + gx;
+                float xw = (cx * size + gx * step) + (warpX[c] * 2f - 1f) * WARP_AMP;
+                float zw = (cz * size + gz * step) + (warpZ[c] * 2f - 1f) * WARP_AMP;
+                baseX[c] = xw * BASE_SCALE;
+                baseZ[c] = zw * BASE_SCALE;
+                ridgeX[c] = xw * RIDGE_SCALE;
+                ridgeZ[c] = zw * RIDGE_SCALE;
+                float r = (relief[c] - 0.5f) * RELIEF_CONTRAST + 0.5f;
+                r = Math.max(0f, Math.min(1f, r));
+                relief[c] = r * r * (3f - 2f * r);
+            }
+        }
+        // Base hills com FBM; ridge: |2*fbm-1| para enfatizar cristas
+        float[] base = new float[n], ridge = new float[n];
+        Noise2D.fillFbm(base, baseX, baseZ, n, seed, BASE_OCTAVES, 2.0f, 0.5f);
+        Noise2D.fillFbm(ridge, ridgeX, ridgeZ, n, seed + 911, RIDGE_OCTAVES, 2.0f, 0.5f);
+        float[] heightF = new float[n];
+        for (int c = 0; c < n; c++) {
+            float rel = relief[c];
+            float ridgeNoise = Math.abs(2f * ridge[c] - 1f);
+            heightF[c] = lerp(PLAINS_HEIGHT, MOUNTAIN_HEIGHT, rel) + base[c] * lerp(PLAINS_AMP, MOUNTAIN_AMP, rel)
+                    + ridgeNoise * lerp(PLAINS_RIDGE, MOUNTAIN_RIDGE, rel);
+        }
+        if (step != 1) {
+            heightF = interpolate(heightF);
+            relief = interpolate(relief);
+            moisture = interpolate(moisture);
+        }
+
+        int[][] heightMap = new int[size][size];
+        for (int x = 0; x < size; x++) {
+            for (int z = 0; z < size; z++) {
+                int h = Math.round(heightF[z * size + x]);
+                if (h < 1) h = 1;
+                if (h >= Chunk.HEIGHT) h = Chunk.HEIGHT - 1;
+                heightMap[x][z] = h;
+            }
+        }
+        return new Terrain(heightMap, relief, moisture);
+    }
+
+    // Pontos amostrados por lado do chunk: as 16 colunas, ou a grade com a borda compartilhada com o vizinho
+    private static int side(int step) {
+        return step == 1 ? Chunk.SIZE : Chunk.SIZE / step + 1;
+    }
+
+    // fbm nos side x side pontos do chunk (índice gz * side + gx), um a cada step blocos
+    private float[] points(int cx, int cz, float scale, float offX, float offZ, int fieldSeed, int octaves) {
+        final int step = resolution.step, cells = Chunk.SIZE / step, side = side(step);
+        float[] out = new float[side * side];
+        Noise2D.fillFbmGrid(out, cx * cells, cz * cells, side, side, scale * step, offX, offZ, fieldSeed, octaves,
+                2.0f, 0.5f);
+        return out;
+    }
+
+    // Valores da grade (side x side) interpolados bilinearmente para as 16x16 colunas (índice z * SIZE + x)
+    private float[] interpolate(float[] grid) {
+        final int size = Chunk.SIZE, step = resolution.step, side = side(step);
+        float[] out = new float[size * size];
+        for (int z = 0; z < size; z++) {
+            int gz = z / step;
+            float fz = (z % step) / (float) step;
+            for (int x = 0; x < size; x++) {
+                int gx = x / step;
+                float fx = (x % step) / (float) step;
+                int g = gz * side + gx;
+                float top = lerp(grid[g], grid[g + 1], fx);
+                float bottom = lerp(grid[g + side], grid[g + side + 1], fx);
+                out[z * size + x] = lerp(top, bottom, fz);
+            }
+        }
+        return out;
+    }
+
+    private static float lerp(float a, float b, float t) {
+        return a + (b - a) * t;
+    }
+
+    // NOISE, memorizado: o próprio chunk e os 8 vizinhos (na decoração) leem o mesmo plano
+    private Plan plan(int cx, int cz) {
+        long k = ChunkMap.key(cx, cz);
+        Plan p = plans.get(k);
+        if (p != null) return p;
+        p = computePlan(cx, cz);
+        if (plans.size() >= MAX_PLANS) plans.clear();
+        Plan prev = plans.putIfAbsent(k, p);
+        return prev != null ? prev : p;
+    }
+
+    private Plan computePlan(int cx, int cz) {
+        final int size = Chunk.SIZE, height = Chunk.HEIGHT;
+        Terrain terrain = terrain(cx, cz);
+        int[][] heights = terrain.heights();
+        BlockType[][] top = new BlockType[size][size];
+        List<Tree> trees = new ArrayList<>();
+        for (int x = 0; x < size; x++) {
+            for (int z = 0; z < size; z++) {
+                float wx = (cx * size + x);
+                float wz = (cz * size + z);
+                int h = heights[x][z];
+                int c = z * size + x;
+                float rel = terrain.relief()[c];
+                // Se muito alto para o relevo local, chance de topo rochoso (sem grama); clima seco deixa terra
+                float rockyFrom = lerp(PLAINS_HEIGHT, MOUNTAIN_HEIGHT, rel) + lerp(PLAINS_AMP, MOUNTAIN_AMP, rel) * 0.75f;
+                boolean rocky = h >= rockyFrom && Noise2D.noise(wx * 0.1f, wz * 0.1f, seed + 7) > 0.6f;
+                top[x][z] = rocky ? BlockType.STONE : terrain.moisture()[c] < DRY ? BlockType.DIRT : BlockType.GRASS;
+
+                // Árvores em topos de grama ou pedra (pinheiros em áreas rochosas), sem água acima
+                if (top[x][z] == BlockType.DIRT) continue;
+                if (h <= 1 || h >= height - 8) continue; // espaço mínimo para árvore
+                if (h + 1 <= WATER_LEVEL) continue;
+                // probabilidade agrupada por ruído
+                float prob = Noise2D.noise(wx * 0.08f, wz * 0.08f, seed + 3001);
+                if (prob < 0.65f) continue; // ~35% em áreas favorecidas pelo ruído
+                if (crowded(trees, x, z)) continue;
+
+                // Variação de tamanho da árvore
+                float sizeN = Noise2D.noise(wx * 0.21f, wz * 0.21f, seed + 901); // 0..1
+                int trunkH = 4 + (int) Math.floor(sizeN * 5.0f); // 4..9
+                // conífera ocasional: mais alta e copa mais estreita
+                boolean tallNarrow = Noise2D.noise(wx * 0.09f, wz * 0.09f, seed + 1618) > 0.7f;
+                int r = (tallNarrow ? 2 : 2 + (int) Math.floor(Noise2D.noise(wx * 0.17f, wz * 0.17f, seed + 2718) * 2.5f)); // 2..3 (às vezes 4)
+                r = Math.min(r, 3);
+                trees.add(new Tree(x, z, h, trunkH, r, tallNarrow, false));
+            }
+        }
+        // Fallback: se nenhuma árvore foi plantada no chunk, planta uma no centro (se possível)
+        if (trees.isEmpty()) {
+            int cxm = size / 2;
+            int czm = size / 2;
+            int h = heights[cxm][czm];
+            if (h > 1 && h < height - 8 && top[cxm][czm] != BlockType.DIRT) {
+                trees.add(new Tree(cxm, czm, h, 6, 2, false, true));
+            }
+        }
+        return new Plan(heights, top, trees.toArray(new Tree[0]));
+    }
+
+    // Já há árvore do chunk a menos de TREE_SPACING colunas (sem isso a área favorecida vira um bloco de troncos)
+    private static boolean crowded(List<Tree> trees, int x, int z) {
+        for (Tree t : trees) {
+            if (Math.abs(t.x() - x) < TREE_SPACING && Math.abs(t.z() - z) < TREE_SPACING) return true;
+        }
+        return false;
+    }
+
+    // SURFACE: topo do plano (grama, pedra ou terra seca), subsuperfície dirt, abaixo stone.
+    // Seções inteiras abaixo da terra de todas as colunas saem de uma vez como pedra uniforme; as acima do
+    // terreno e da água nunca são tocadas e continuam só de ar
+    private static void surface(Chunk chunk, Plan plan) {
+        int minH = Integer.MAX_VALUE;
+        for (int[] column : plan.heights()) {
+            for (int h : column) minH = Math.min(minH, h);
+        }
+        int solidSections = Math.max(0, minH - 3) / Chunk.SECTION_HEIGHT; // y < minH - 3 é pedra em toda coluna
+        for (int sy = 0; sy < solidSections; sy++) chunk.fillSection(sy, BlockType.STONE);
+        int y0 = solidSections * Chunk.SECTION_HEIGHT;
+        for (int x = 0; x < Chunk.SIZE; x++) {
+            for (int z = 0; z < Chunk.SIZE; z++) {
+                int h = plan.heights()[x][z];
+                for (int y = y0; y <= h; y++) {
+                    BlockType type;
+                    if (y == h) {
+                        type = plan.top()[x][z];
+                    } else if (y >= h - 3) {
+                        type = BlockType.DIRT;
+                    } else {
+                        type = BlockType.STONE;
+                    }
+                    chunk.set(x, y, z, type);
+                }
+            }
+        }
+    }
+
+    // FLUIDS: preenche água em depressões até o nível global
+    private static void fluids(Chunk chunk, Plan plan) {
+        for (int x = 0; x < Chunk.SIZE; x++) {
+            for (int z = 0; z < Chunk.SIZE; z++) {
+                int h = plan.heights()[x][z];
+                for (int y = h + 1; y <= Math.min(WATER_LEVEL, Chunk.HEIGHT - 1); y++) {
+                    chunk.set(x, y, z, BlockType.WATER);
+                    chunk.setMeta(x, y, z, 0); // fonte estática
+                }
+            }
+        }
+    }
+
+    // DECORATION: árvores dos 3x3 chunks em volta, sempre na mesma ordem global (chunk de origem por z e x,
+    // depois a ordem do plano), para que os blocos disputados por duas copas saiam iguais nos dois chunks.
+    // Chunk.set/get ignoram coordenadas fora do chunk, o que recorta o que cai nos vizinhos
+    private void decorate(Chunk chunk, int cx, int cz) {
+        int r = Stage.DECORATION.neighborRadius;
+        for (int dz = -r; dz <= r; dz++) {
+            for (int dx = -r; dx <= r; dx++) {
+                for (Tree t : plan(cx + dx, cz + dz).trees()) {
+                    drawTree(chunk, t, dx * Chunk.SIZE, dz * Chunk.SIZE);
+                }
+            }
+        }
+    }
+
+    // Árvore com a coluna de origem deslocada por (ox, oz) blocos em relação a este chunk
+    private static void drawTree(Chunk chunk, Tree t, int ox, int oz) {
+        final int height = Chunk.HEIGHT;
+        int x = t.x() + ox, z = t.z() + oz, h = t.h(), r = t.r();
+        // Copa (raio até 3) não alcança este chunk
+        if (x + r < 0 || x - r >= Chunk.SIZE || z + r < 0 || z - r >= Chunk.SIZE) return;
+
+        // tronco
+        for (int i = 1; i <= t.trunkH(); i++) {
+            if (h + i >= height) break;
+            chunk.set(x, h + i, z, BlockType.WOOD);
+        }
+        int topY = Math.min(height - 1, h + t.trunkH());
+
+        if (t.fallback()) {
+            // copa esférica simples
+            for (int dx = -r; dx <= r; dx++) {
+                for (int dz = -r; dz <= r; dz++) {
+                    for (int dy = -r; dy <= r; dy++) {
+                        int yy = topY + dy;
+                        if (yy < 0 || yy >= height) continue;
+                        float d2 = (dx*dx + dz*dz + dy*dy);
+                        if (d2 <= (r*r + 1)) placeLeaf(chunk, x + dx, yy, z + dz);
+                    }
+                }
+            }
+            return;
+        }
+
+        // copa: volume arredondado com possível alongamento vertical
+        boolean tallNarrow = t.tallNarrow();
+        int yStretch = tallNarrow ? 2 : 1;
+        for (int dx = -r; dx <= r; dx++) {
+            for (int dz = -r; dz <= r; dz++) {
+                for (int dy = -r; dy <= r + (tallNarrow ? 1 : 0); dy++) {
+                    int yy = topY + dy;
+                    if (yy < 0 || yy >= height) continue;
+                    // distância elipsoidal
+                    float ndx = dx / (float) r;
+                    float ndz = dz / (float) r;
+                    float ndy = dy / (float) (r / (float) yStretch + 0.0001f);
+                    float d2 = ndx * ndx + ndz * ndz + ndy * ndy;
+                    if (d2 <= 1.0f) placeLeaf(chunk, x + dx, yy, z + dz);
+                }
+            }
+        }
+        // folha extra no topo para "finalizar" o formato
+        if (topY + 1 < height) chunk.set(x, topY + 1, z, BlockType.LEAVES);
+    }
+
+    // Folha só ocupa ar ou grama (não corta troncos nem o chão)
+    private static void placeLeaf(Chunk chunk, int x, int y, int z) {
+        BlockType cur = chunk.get(x, y, z);
+        if (cur == BlockType.AIR || cur == BlockType.GRASS) chunk.set(x, y, z, BlockType.LEAVES);
+    }
+}
@@ -0,0 +1,17 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+
+uniform sampler2D m_ColorMap;
+uniform float m_TileCount;
+uniform float m_TileInset;
+
+varying vec2 localUV;
+varying float tileIndex;
+varying vec4 vertColor;
+
+void main() {
+    // Repete o tile a cada bloco do quad e desloca para a célula do atlas (uma linha de tiles)
+    vec2 f = clamp(fract(localUV), vec2(m_TileInset), vec2(1.0 - m_TileInset));
+    float tile = floor(tileIndex + 0.5);
+    vec2 uv = vec2((tile + f.x) / m_TileCount, f.y);
+    gl_FragColor = texture2D(m_ColorMap, uv) * vertColor;
+}
@@ -0,0 +1,19 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+
+uniform mat4 g_WorldViewProjectionMatrix;
+
+attribute vec3 inPosition;
+attribute vec4 inColor;
+attribute vec2 inTexCoord;
+attribute float inTexCoord2;
+
+varying vec2 localUV;
+varying float tileIndex;
+varying vec4 vertColor;
+
+void main() {
+    localUV = inTexCoord;
+    tileIndex = inTexCoord2;
+    vertColor = inColor;
+    gl_Position = g_WorldViewProjectionMatrix * vec4(inPosition, 1.0);
+}
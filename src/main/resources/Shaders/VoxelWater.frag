@@ -0,0 +1,10 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+
+uniform sampler2D m_ColorMap;
+
+varying vec2 texCoord;
+varying vec4 vertColor;
+
+void main() {
+    gl_FragColor = texture2D(m_ColorMap, texCoord) * vertColor;
+}
@@ -0,0 +1,22 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+
+uniform mat4 g_WorldViewProjectionMatrix;
+uniform float g_Time;
+uniform float m_TileCount;
+uniform float m_FrameCount;
+uniform float m_FrameDuration;
+
+attribute vec3 inPosition;
+attribute vec4 inColor;
+attribute vec2 inTexCoord;
+
+varying vec2 texCoord;
+varying vec4 vertColor;
+
+void main() {
+    // Frame atual (0..FrameCount-1): desloca o UV para o tile seguinte da mesma linha do atlas
+    float frame = mod(floor(g_Time / m_FrameDuration), m_FrameCount);
+    texCoord = inTexCoord + vec2(frame / m_TileCount, 0.0);
+    vertColor = inColor;
+    gl_Position = g_WorldViewProjectionMatrix * vec4(inPosition, 1.0);
+}
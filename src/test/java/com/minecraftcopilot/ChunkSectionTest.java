@@ -0,0 +1,145 @@
+package com.minecraftcopilot;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkSectionTest {
+
+    private static final int V = ChunkSection.VOLUME;
+
+    @Test
+    void newSectionIsBlankAndUniform() {
+        ChunkSection s = new ChunkSection();
+        assertTrue(s.isBlank());
+        assertTrue(s.isEmpty());
+        assertTrue(s.isUniform());
+        assertEquals(0, s.bits());
+        assertEquals(0, s.getId(V - 1));
+    }
+
+    @Test
+    void paletteGrowsThroughEveryWidth() {
+        ChunkSection s = new ChunkSection();
+        // Espalha os ids para cada um atravessar fronteiras de long em larguras diferentes
+        int[] expectedBits = new int[256];
+        for (int id = 1; id < 256; id++) {
+            int size = id + 1;
+            expectedBits[id] = size <= 2 ? 1 : size <= 4 ? 2 : size <= 16 ? 4 : 8;
+        }
+        for (int id = 1; id < 256; id++) {
+            s.setId(pos(id), (byte) id);
+            assertEquals(expectedBits[id], s.bits(), "paleta de " + (id + 1));
+            assertEquals(id + 1, s.paletteSize());
+            // Os blocos já gravados sobrevivem a cada reempacotamento
+            for (int prev = 1; prev <= id; prev++) assertEquals((byte) prev, s.getId(pos(prev)));
+        }
+        assertFalse(s.isUniform());
+        assertEquals(0, s.getId(pos(1) + 1));
+    }
+
+    @Test
+    void fillingEveryBlockKeepsNeighboursIntact() {
+        ChunkSection s = new ChunkSection();
+        for (int i = 0; i < V; i++) s.setId(i, (byte) (i % 17 + 1));
+        assertEquals(8, s.bits());
+        for (int i = 0; i < V; i++) assertEquals((byte) (i % 17 + 1), s.getId(i));
+        assertFalse(s.isEmpty());
+    }
+
+    @Test
+    void clearingAllBlocksReturnsToUniformAir() {
+        ChunkSection s = new ChunkSection();
+        for (int id = 1; id < 20; id++) s.setId(pos(id), (byte) id);
+        assertEquals(8, s.bits());
+        for (int id = 1; id < 20; id++) s.setId(pos(id), (byte) 0);
+        assertTrue(s.isUniform());
+        assertTrue(s.isBlank());
+        assertEquals(0, s.bits());
+        assertEquals(1, s.paletteSize());
+        assertEquals(0, s.getId(pos(5)));
+    }
+
+    @Test
+    void metaKeepsSectionFromResetting() {
+        ChunkSection s = new ChunkSection();
+        s.setId(10, (byte) 3);
+        s.setMeta(11, (byte) 7);
+        s.setId(10, (byte) 0);
+        // Só ar, mas com meta: não pode voltar a seção nova
+        assertTrue(s.isEmpty());
+        assertFalse(s.isBlank());
+        assertEquals(7, s.getMeta(11));
+    }
+
+    @Test
+    void fillMakesSectionUniform() {
+        ChunkSection s = new ChunkSection();
+        for (int id = 1; id < 6; id++) s.setId(pos(id), (byte) id);
+        s.setMeta(0, (byte) 2);
+        s.fill((byte) 9);
+        assertTrue(s.isUniform());
+        assertEquals(9, s.uniformId());
+        assertEquals(9, s.getId(V / 2));
+        assertEquals(0, s.getMeta(0));
+        assertFalse(s.isEmpty());
+        s.setId(0, (byte) 4);
+        assertEquals(1, s.bits());
+        assertEquals(9, s.getId(1));
+        assertEquals(4, s.getId(0));
+    }
+
+    @Test
+    void copyIsIndependent() {
+        ChunkSection s = new ChunkSection();
+        s.setId(5, (byte) 1);
+        s.setMeta(5, (byte) 3);
+        ChunkSection c = s.copy();
+        s.setId(5, (byte) 2);
+        s.setMeta(5, (byte) 4);
+        assertEquals(1, c.getId(5));
+        assertEquals(3, c.getMeta(5));
+    }
+
+    @Test
+    void writeReadRoundTripsEveryWidth() throws IOException {
+        for (int ids : new int[]{1, 2, 3, 5, 17, 255}) {
+            ChunkSection s = new ChunkSection();
+            if (ids == 1) s.fill((byte) 1);
+            for (int id = 1; id < ids; id++) s.setId(pos(id), (byte) id);
+            s.setMeta(pos(1), (byte) 6);
+            ChunkSection r = roundTrip(s);
+            assertEquals(s.bits(), r.bits());
+            assertEquals(s.paletteSize(), r.paletteSize());
+            for (int i = 0; i < V; i++) {
+                assertEquals(s.getId(i), r.getId(i));
+                assertEquals(s.getMeta(i), r.getMeta(i));
+            }
+            // A seção lida continua crescendo normalmente
+            r.setId(0, (byte) -1);
+            assertEquals((byte) -1, r.getId(0));
+            assertEquals(s.getId(pos(1)), r.getId(pos(1)));
+        }
+    }
+
+    // Posições espalhadas pelo volume, distintas para cada id de 1 a 255
+    private static int pos(int id) {
+        return id * 13 % V;
+    }
+
+    private static ChunkSection roundTrip(ChunkSection s) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        s.write(new DataOutputStream(bytes));
+        ChunkSection r = new ChunkSection();
+        r.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        return r;
+    }
+}
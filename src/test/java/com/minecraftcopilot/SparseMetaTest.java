@@ -0,0 +1,135 @@
+package com.minecraftcopilot;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SparseMetaTest {
+
+    private static final int V = 4096;
+
+    @Test
+    void setGetAndRemove() {
+        SparseMeta m = new SparseMeta(V);
+        assertTrue(m.isEmpty());
+        assertEquals(0, m.memoryBytes());
+        m.set(100, (byte) 5);
+        m.set(V - 1, (byte) -2);
+        assertEquals(5, m.get(100));
+        assertEquals(-2, m.get(V - 1));
+        assertEquals(0, m.get(101));
+        m.set(100, (byte) 0);
+        assertEquals(0, m.get(100));
+        assertFalse(m.isEmpty());
+        m.set(V - 1, (byte) 0);
+        assertTrue(m.isEmpty());
+        assertEquals(0, m.memoryBytes());
+    }
+
+    @Test
+    void densifiesPastOneEighthAndKeepsValues() {
+        SparseMeta m = new SparseMeta(V);
+        int n = V / 8;
+        for (int i = 0; i < n; i++) m.set(i * 7 % V, (byte) (i % 100 + 1));
+        assertTrue(m.memoryBytes() < 16 + V);
+        m.set(V - 2, (byte) 9); // n + 1 entradas: passa para o array denso
+        assertEquals(16 + V, m.memoryBytes());
+        for (int i = 0; i < n; i++) assertEquals((byte) (i % 100 + 1), m.get(i * 7 % V));
+        assertEquals(9, m.get(V - 2));
+        assertEquals(0, m.get(V - 3));
+    }
+
+    @Test
+    void denseReturnsToEmptyOnceAllZero() {
+        SparseMeta m = new SparseMeta(V);
+        for (int i = 0; i < V / 4; i++) m.set(i, (byte) 1);
+        assertEquals(16 + V, m.memoryBytes());
+        for (int i = 0; i < V / 4; i++) m.set(i, (byte) 0);
+        assertTrue(m.isEmpty());
+        assertEquals(0, m.memoryBytes());
+        // E volta a crescer pela tabela
+        m.set(3, (byte) 2);
+        assertEquals(2, m.get(3));
+        assertTrue(m.memoryBytes() < V);
+    }
+
+    @Test
+    void copyIsIndependentInBothModes() {
+        for (int n : new int[]{10, V / 2}) {
+            SparseMeta m = new SparseMeta(V);
+            for (int i = 0; i < n; i++) m.set(i, (byte) 3);
+            SparseMeta c = m.copy();
+            m.set(0, (byte) 4);
+            m.set(n, (byte) 4);
+            assertEquals(3, c.get(0));
+            assertEquals(0, c.get(n));
+            assertEquals(3, c.get(n - 1));
+        }
+    }
+
+    @Test
+    void writeReadRoundTripsBothModes() throws IOException {
+        Random rnd = new Random(7);
+        for (int n : new int[]{0, 40, V / 8 + 1, V}) {
+            SparseMeta m = new SparseMeta(V);
+            byte[] ref = new byte[V];
+            for (int e = 0; e < n; e++) {
+                int i = rnd.nextInt(V);
+                byte v = (byte) rnd.nextInt(256);
+                m.set(i, v);
+                ref[i] = v;
+            }
+            SparseMeta r = roundTrip(m);
+            for (int i = 0; i < V; i++) assertEquals(ref[i], r.get(i));
+        }
+    }
+
+    @Test
+    void randomChurnMatchesPlainArray() {
+        Random rnd = new Random(11);
+        SparseMeta m = new SparseMeta(V);
+        byte[] ref = new byte[V];
+        for (int op = 0; op < 100_000; op++) {
+            // Metade do tempo só nas primeiras 64 posições, para sobrescrever e zerar valores já gravados
+            int i = rnd.nextInt(op % 20_000 < 10_000 ? V : 64);
+            byte v = rnd.nextInt(3) == 0 ? 0 : (byte) (rnd.nextInt(255) + 1);
+            m.set(i, v);
+            ref[i] = v;
+            if (op % 997 == 0) {
+                for (int k = 0; k < V; k++) assertEquals(ref[k], m.get(k));
+            }
+        }
+        for (int k = 0; k < V; k++) m.set(k, (byte) 0);
+        assertTrue(m.isEmpty());
+    }
+
+    @Test
+    void readRejectsBadPosition() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeShort(1);
+        out.writeShort(V);
+        out.writeByte(1);
+        SparseMeta m = new SparseMeta(V);
+        assertThrows(IOException.class,
+                () -> m.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    }
+
+    private static SparseMeta roundTrip(SparseMeta m) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        m.write(new DataOutputStream(bytes));
+        SparseMeta r = new SparseMeta(V);
+        r.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        return r;
+    }
+}
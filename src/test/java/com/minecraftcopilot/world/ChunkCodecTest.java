@@ -0,0 +1,88 @@
+package com.minecraftcopilot.world;
+
+import com.minecraftcopilot.BlockType;
+import com.minecraftcopilot.Chunk;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static com.minecraftcopilot.world.RegionStoreTest.assertSameBlocks;
+import static com.minecraftcopilot.world.RegionStoreTest.edited;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkCodecTest {
+
+    private static final WorldGenerator GEN = WorldGenerator.forSeed(1337);
+
+    @Test
+    void fullRecordRoundTrips() throws IOException {
+        Chunk chunk = edited(2, -5, 77);
+        byte[] record = ChunkCodec.encode(chunk);
+        assertFalse(ChunkCodec.isDelta(record));
+        Chunk decoded = ChunkCodec.decode(2, -5, record);
+        assertSameBlocks(chunk, decoded);
+        assertFalse(decoded.isModified());
+    }
+
+    @Test
+    void decodeRejectsOtherRecords() throws IOException {
+        Chunk base = GEN.generate(0, 0);
+        byte[] delta = ChunkCodec.encodeDelta(base, base, GEN.version());
+        assertThrows(IOException.class, () -> ChunkCodec.decode(0, 0, delta));
+        assertThrows(IOException.class, () -> ChunkCodec.decode(0, 0, new byte[0]));
+        byte[] full = ChunkCodec.encode(base);
+        assertThrows(IOException.class, () -> ChunkCodec.decode(0, 0, Arrays.copyOf(full, full.length / 2)));
+    }
+
+    @Test
+    void deltaRoundTripsOverRegeneratedTerrain() throws IOException {
+        Chunk chunk = GEN.generate(-3, 7);
+        chunk.set(0, 0, 0, BlockType.AIR);
+        chunk.set(15, 200, 15, BlockType.STONE);
+        chunk.set(8, 60, 8, BlockType.WATER);
+        chunk.setMeta(8, 60, 8, 5);
+        byte[] delta = ChunkCodec.encodeDelta(chunk, GEN.generate(-3, 7), GEN.version());
+        assertTrue(ChunkCodec.isDelta(delta));
+        assertEquals(GEN.version(), ChunkCodec.deltaVersion(delta));
+        assertTrue(delta.length < ChunkCodec.encode(chunk).length);
+
+        Chunk rebuilt = GEN.generate(-3, 7);
+        ChunkCodec.applyDelta(rebuilt, delta);
+        assertSameBlocks(chunk, rebuilt);
+        assertFalse(rebuilt.isModified());
+    }
+
+    @Test
+    void unchangedChunkGivesEmptyDelta() throws IOException {
+        Chunk base = GEN.generate(4, 4);
+        byte[] delta = ChunkCodec.encodeDelta(GEN.generate(4, 4), base, GEN.version());
+        Chunk rebuilt = GEN.generate(4, 4);
+        ChunkCodec.applyDelta(rebuilt, delta);
+        assertSameBlocks(base, rebuilt);
+        assertTrue(delta.length < 32, "delta vazio com " + delta.length + " bytes");
+    }
+
+    @Test
+    void deltaVersionIsReadFromHeader() throws IOException {
+        Chunk base = GEN.generate(0, 0);
+        for (int version : new int[]{1, 0x0301, Integer.MAX_VALUE, -7}) {
+            assertEquals(version, ChunkCodec.deltaVersion(ChunkCodec.encodeDelta(base, base, version)));
+        }
+    }
+
+    @Test
+    void deltaHeaderIsChecked() throws IOException {
+        Chunk base = GEN.generate(0, 0);
+        byte[] full = ChunkCodec.encode(base);
+        byte[] delta = ChunkCodec.encodeDelta(base, base, GEN.version());
+        assertThrows(IOException.class, () -> ChunkCodec.deltaVersion(full));
+        assertThrows(IOException.class, () -> ChunkCodec.applyDelta(GEN.generate(0, 0), full));
+        byte[] truncated = Arrays.copyOf(delta, 3);
+        assertThrows(IOException.class, () -> ChunkCodec.deltaVersion(truncated));
+        assertThrows(IOException.class, () -> ChunkCodec.applyDelta(GEN.generate(0, 0), truncated));
+    }
+}
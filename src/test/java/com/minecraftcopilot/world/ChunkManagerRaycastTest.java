@@ -0,0 +1,208 @@
+package com.minecraftcopilot.world;
+
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.material.Material;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Node;
+import com.minecraftcopilot.BlockType;
+import com.minecraftcopilot.Chunk;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Travessia de {@link ChunkManager#raycast} e {@link ChunkManager#sweep} numa caixa de ar acima do terreno,
+ * com blocos postos por cada teste: eixos, bordas entre chunks, arestas e cantos exatos de voxel.
+ */
+class ChunkManagerRaycastTest {
+
+    // Caixa de ar limpa a cada teste: x, z em [-8, 8) (chunks -1 e 0) e y em [Y0 - 8, Y0 + 8)
+    private static final int Y0 = 180;
+    private static final float EPS = 1e-5f;
+
+    private static ChunkManager cm;
+
+    @BeforeAll
+    static void loadWorld() throws InterruptedException {
+        Material mat = new Material(new DesktopAssetManager(true), "Common/MatDefs/Misc/Unshaded.j3md");
+        cm = new ChunkManager(new Node("world"), mat, 1337, 1, 2);
+        Vector3f cam = new Vector3f(0, Y0, 0);
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (cm.getLoadProgress() < 1f && System.nanoTime() < deadline) {
+            cm.update(cam, Vector3f.UNIT_Z, 0.016f, 5f);
+            Thread.sleep(1);
+        }
+        assertEquals(1f, cm.getLoadProgress(), "chunks do teste não carregaram");
+        assertTrue(cm.getSurfaceY(-8, -8) >= 0 && cm.getSurfaceY(7, 7) >= 0);
+    }
+
+    @AfterAll
+    static void shutdown() {
+        cm.shutdown();
+    }
+
+    @BeforeEach
+    void clearBox() {
+        cm.edit(ops -> {
+            for (int y = Y0 - 8; y < Y0 + 8; y++) {
+                for (int z = -8; z < 8; z++) {
+                    for (int x = -8; x < 8; x++) ops.setBlock(x, y, z, BlockType.AIR);
+                }
+            }
+        });
+    }
+
+    @Test
+    void axisAlignedRaysHitFaceOnEveryAxis() {
+        // Origem no centro do voxel (-1, Y0, -1): +x e +z cruzam a borda entre os chunks -1 e 0
+        Vector3f o = new Vector3f(-0.5f, Y0 + 0.5f, -0.5f);
+        int[][] dirs = {{1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1}};
+        for (int[] d : dirs) {
+            int bx = -1 + 3 * d[0], by = Y0 + 3 * d[1], bz = -1 + 3 * d[2];
+            cm.setBlockAtWorld(bx, by, bz, BlockType.STONE);
+            VoxelHit hit = cm.raycast(o, new Vector3f(d[0], d[1], d[2]).multLocal(4f), 8f);
+            assertHit(hit, bx, by, bz);
+            assertEquals(-d[0], hit.normalX());
+            assertEquals(-d[1], hit.normalY());
+            assertEquals(-d[2], hit.normalZ());
+            assertEquals(2.5f, hit.distance(), EPS);
+            assertEquals(BlockType.STONE, hit.block());
+            assertEquals(bx - d[0], hit.placeX());
+            assertEquals(by - d[1], hit.placeY());
+            assertEquals(bz - d[2], hit.placeZ());
+            cm.setBlockAtWorld(bx, by, bz, BlockType.AIR);
+        }
+    }
+
+    @Test
+    void rayStopsAtMaxDistance() {
+        cm.setBlockAtWorld(3, Y0, 0, BlockType.STONE);
+        Vector3f o = new Vector3f(0.5f, Y0 + 0.5f, 0.5f);
+        assertNull(cm.raycast(o, Vector3f.UNIT_X, 2.4f));
+        assertHit(cm.raycast(o, Vector3f.UNIT_X, 2.5f), 3, Y0, 0);
+        assertNull(cm.raycast(o, Vector3f.ZERO, 8f));
+    }
+
+    @Test
+    void originOnVoxelBoundaryStartsInUpperVoxel() {
+        cm.setBlockAtWorld(3, Y0, 0, BlockType.STONE);
+        VoxelHit hit = cm.raycast(new Vector3f(1f, Y0 + 0.5f, 0.5f), Vector3f.UNIT_X, 8f);
+        assertHit(hit, 3, Y0, 0);
+        assertEquals(2f, hit.distance(), EPS);
+    }
+
+    @Test
+    void rayThroughVoxelEdgeReachesDiagonalNeighbour() {
+        cm.setBlockAtWorld(1, Y0 + 1, 0, BlockType.STONE);
+        VoxelHit hit = cm.raycast(new Vector3f(0.5f, Y0 + 0.5f, 0.5f), new Vector3f(1, 1, 0), 8f);
+        assertHit(hit, 1, Y0 + 1, 0);
+        assertEquals(0.5f * (float) Math.sqrt(2), hit.distance(), EPS);
+        assertSingleAxisNormal(hit);
+        // Colocação numa das duas células que dividem a aresta com o caminho, nunca dentro do bloco
+        assertTrue((hit.placeX() == 0 && hit.placeY() == Y0 + 1) || (hit.placeX() == 1 && hit.placeY() == Y0),
+                "colocação em " + hit.placeX() + "," + hit.placeY());
+        assertEquals(0, hit.placeZ());
+    }
+
+    @Test
+    void rayThroughVoxelCornerReachesOppositeCorner() {
+        cm.setBlockAtWorld(-2, Y0 - 1, -2, BlockType.STONE);
+        VoxelHit hit = cm.raycast(new Vector3f(-0.5f, Y0 + 0.5f, -0.5f), new Vector3f(-1, -1, -1), 8f);
+        assertHit(hit, -2, Y0 - 1, -2);
+        assertEquals(0.5f * (float) Math.sqrt(3), hit.distance(), EPS);
+        assertSingleAxisNormal(hit);
+    }
+
+    @Test
+    void rayDoesNotSlipBetweenBlocksSharingAnEdge() {
+        // Parede diagonal: os dois blocos que encostam pela aresta cruzada pelo raio, com a diagonal livre
+        cm.setBlockAtWorld(1, Y0, 0, BlockType.STONE);
+        cm.setBlockAtWorld(0, Y0 + 1, 0, BlockType.STONE);
+        Vector3f o = new Vector3f(0.5f, Y0 + 0.5f, 0.5f);
+        VoxelHit hit = cm.raycast(o, new Vector3f(1, 1, 0), 8f);
+        assertNotNull(hit);
+        assertTrue((hit.x() == 1 && hit.y() == Y0) || (hit.x() == 0 && hit.y() == Y0 + 1),
+                "passou da aresta até " + hit.x() + "," + hit.y());
+        VoxelHit swept = cm.sweep(o, new Vector3f(3.5f, Y0 + 3.5f, 0.5f));
+        assertNotNull(swept);
+        assertTrue(swept.x() + swept.y() == Y0 + 1, "sweep passou da aresta até " + swept.x() + "," + swept.y());
+    }
+
+    @Test
+    void raycastSkipsOriginVoxelAndWaterOnlyFromInsideWater() {
+        Vector3f o = new Vector3f(0.5f, Y0 + 0.5f, 0.5f);
+        cm.setBlockAtWorld(0, Y0, 0, BlockType.STONE);
+        cm.setBlockAtWorld(2, Y0, 0, BlockType.STONE);
+        assertHit(cm.raycast(o, Vector3f.UNIT_X, 8f), 2, Y0, 0);
+
+        cm.setBlockAtWorld(0, Y0, 0, BlockType.WATER);
+        cm.setBlockAtWorld(1, Y0, 0, BlockType.WATER);
+        // De dentro da água mira através dela; de fora a água é o alvo
+        assertHit(cm.raycast(o, Vector3f.UNIT_X, 8f), 2, Y0, 0);
+        VoxelHit fromAir = cm.raycast(new Vector3f(-1.5f, Y0 + 0.5f, 0.5f), Vector3f.UNIT_X, 8f);
+        assertHit(fromAir, 0, Y0, 0);
+        assertEquals(BlockType.WATER, fromAir.block());
+    }
+
+    @Test
+    void rayLeavingWorldTopReturnsNull() {
+        assertNull(cm.raycast(new Vector3f(0.5f, Y0 + 0.5f, 0.5f), Vector3f.UNIT_Y, 500f));
+    }
+
+    @Test
+    void sweepHitsFirstBlockingVoxelOnSegment() {
+        cm.setBlockAtWorld(-3, Y0, 0, BlockType.STONE);
+        Vector3f from = new Vector3f(0.5f, Y0 + 0.5f, 0.5f);
+        Vector3f to = new Vector3f(-3.5f, Y0 + 0.5f, 0.5f);
+        VoxelHit hit = cm.sweep(from, to);
+        assertHit(hit, -3, Y0, 0);
+        assertEquals(1, hit.normalX());
+        assertEquals(2.5f, hit.distance(), EPS);
+        assertEquals(0.625f, hit.distance() / from.distance(to), EPS);
+        // Segmento que acaba antes do bloco
+        assertNull(cm.sweep(from, new Vector3f(-1.9f, Y0 + 0.5f, 0.5f)));
+        // Fim exatamente na face ainda acerta
+        assertHit(cm.sweep(from, new Vector3f(-2f, Y0 + 0.5f, 0.5f)), -3, Y0, 0);
+    }
+
+    @Test
+    void sweepIgnoresWaterAndReportsStartInsideBlock() {
+        cm.setBlockAtWorld(1, Y0, 0, BlockType.WATER);
+        cm.setBlockAtWorld(2, Y0, 0, BlockType.STONE);
+        Vector3f from = new Vector3f(0.5f, Y0 + 0.5f, 0.5f);
+        assertHit(cm.sweep(from, new Vector3f(4.5f, Y0 + 0.5f, 0.5f)), 2, Y0, 0);
+
+        VoxelHit inside = cm.sweep(new Vector3f(2.5f, Y0 + 0.5f, 0.5f), new Vector3f(6f, Y0 + 0.5f, 0.5f));
+        assertHit(inside, 2, Y0, 0);
+        assertEquals(0f, inside.distance());
+        assertEquals(0, inside.normalX() | inside.normalY() | inside.normalZ());
+        assertNull(cm.sweep(from, from));
+    }
+
+    @Test
+    void sweepThroughVoxelCorner() {
+        cm.setBlockAtWorld(1, Y0 + 1, 1, BlockType.STONE);
+        Vector3f from = new Vector3f(0.5f, Y0 + 0.5f, 0.5f);
+        VoxelHit hit = cm.sweep(from, new Vector3f(2.5f, Y0 + 2.5f, 2.5f));
+        assertHit(hit, 1, Y0 + 1, 1);
+        assertEquals(0.5f * (float) Math.sqrt(3), hit.distance(), EPS);
+        assertNull(cm.sweep(from, new Vector3f(0.9f, Y0 + 0.9f, 0.9f)));
+    }
+
+    private static void assertHit(VoxelHit hit, int x, int y, int z) {
+        assertNotNull(hit, "sem acerto, esperado " + x + "," + y + "," + z);
+        assertEquals(x + "," + y + "," + z, hit.x() + "," + hit.y() + "," + hit.z());
+        assertTrue(y >= 0 && y < Chunk.HEIGHT);
+    }
+
+    private static void assertSingleAxisNormal(VoxelHit hit) {
+        int axes = Math.abs(hit.normalX()) + Math.abs(hit.normalY()) + Math.abs(hit.normalZ());
+        assertEquals(1, axes, "normal " + hit.normalX() + "," + hit.normalY() + "," + hit.normalZ());
+    }
+}
@@ -0,0 +1,160 @@
+package com.minecraftcopilot.world;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkMapTest {
+
+    // new ChunkMap(8) aloca 16 slots (cresce ao chegar a 8 entradas)
+    private static final int MASK = 15;
+
+    @Test
+    void keyPacksNegativeCoordinates() {
+        long k = ChunkMap.key(-3, 7);
+        assertEquals(-3, ChunkMap.keyX(k));
+        assertEquals(7, ChunkMap.keyZ(k));
+        assertEquals(Integer.MIN_VALUE, ChunkMap.keyZ(ChunkMap.key(0, Integer.MIN_VALUE)));
+        assertFalse(ChunkMap.key(1, -1) == ChunkMap.key(-1, 1));
+    }
+
+    @Test
+    void putGetReplaceRemove() {
+        ChunkMap<String> map = new ChunkMap<>();
+        assertNull(map.put(ChunkMap.key(1, 2), "a"));
+        assertNull(map.put(ChunkMap.key(-1, -2), "b"));
+        assertEquals("a", map.get(1, 2));
+        assertEquals("b", map.get(ChunkMap.key(-1, -2)));
+        assertNull(map.get(2, 1));
+        assertEquals(2, map.size());
+
+        assertEquals("a", map.put(ChunkMap.key(1, 2), "c"));
+        assertEquals("c", map.get(1, 2));
+        assertEquals(2, map.size());
+
+        assertEquals("c", map.remove(ChunkMap.key(1, 2)));
+        assertNull(map.remove(ChunkMap.key(1, 2)));
+        assertFalse(map.containsKey(ChunkMap.key(1, 2)));
+        assertTrue(map.containsKey(ChunkMap.key(-1, -2)));
+        assertEquals(1, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(-1, -2));
+    }
+
+    @Test
+    void nullValueIsRejected() {
+        ChunkMap<String> map = new ChunkMap<>();
+        assertThrows(IllegalArgumentException.class, () -> map.put(ChunkMap.key(0, 0), null));
+    }
+
+    @Test
+    void removeInsideClusterKeepsFollowersReachable() {
+        long[] home3 = keysWithSlot(3, 4);
+        ChunkMap<Long> map = new ChunkMap<>(8);
+        for (long k : home3) map.put(k, k);
+        // Tira o do meio e o primeiro: os seguintes são puxados para trás e continuam achados
+        map.remove(home3[1]);
+        assertNull(map.get(home3[1]));
+        for (int i : new int[]{0, 2, 3}) assertEquals(home3[i], map.get(home3[i]));
+        map.remove(home3[0]);
+        assertEquals(home3[2], map.get(home3[2]));
+        assertEquals(home3[3], map.get(home3[3]));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void clusterWrapsAroundTableEnd() {
+        long[] last = keysWithSlot(MASK, 3);   // ocupam 15, 0 e 1
+        long[] first = keysWithSlot(0, 2);     // posição ideal 0, empurradas para 2 e 3
+        ChunkMap<Long> map = new ChunkMap<>(8);
+        for (long k : last) map.put(k, k);
+        for (long k : first) map.put(k, k);
+        for (long k : last) assertEquals(k, map.get(k));
+        for (long k : first) assertEquals(k, map.get(k));
+
+        // Remover no fim da tabela puxa para trás através da volta; quem tem posição ideal 0 não pode ir para 15
+        map.remove(last[0]);
+        assertNull(map.get(last[0]));
+        assertEquals(last[1], map.get(last[1]));
+        assertEquals(last[2], map.get(last[2]));
+        for (long k : first) assertEquals(k, map.get(k));
+
+        map.remove(last[1]);
+        map.remove(last[2]);
+        for (long k : first) assertEquals(k, map.get(k));
+        assertEquals(2, map.size());
+        map.remove(first[0]);
+        assertEquals(first[1], map.get(first[1]));
+        assertNull(map.get(first[0]));
+    }
+
+    @Test
+    void growsAndIterates() {
+        ChunkMap<Integer> map = new ChunkMap<>(8);
+        int n = 0;
+        for (int cx = -20; cx < 20; cx++) {
+            for (int cz = -20; cz < 20; cz++) map.put(ChunkMap.key(cx, cz), n++);
+        }
+        assertEquals(1600, map.size());
+        n = 0;
+        for (int cx = -20; cx < 20; cx++) {
+            for (int cz = -20; cz < 20; cz++) assertEquals(n++, map.get(cx, cz));
+        }
+        long sum = 0;
+        int count = 0;
+        for (int v : map) {
+            sum += v;
+            count++;
+        }
+        assertEquals(1600, count);
+        assertEquals(1599L * 1600 / 2, sum);
+        assertEquals(1600, map.keys().length);
+    }
+
+    @Test
+    void matchesHashMapUnderRandomChurn() {
+        Random rnd = new Random(42);
+        ChunkMap<Integer> map = new ChunkMap<>(8);
+        Map<Long, Integer> ref = new HashMap<>();
+        for (int op = 0; op < 200_000; op++) {
+            long k = ChunkMap.key(rnd.nextInt(24) - 12, rnd.nextInt(24) - 12);
+            if (rnd.nextInt(3) == 0) {
+                assertEquals(ref.remove(k), map.remove(k));
+            } else {
+                int v = rnd.nextInt();
+                assertEquals(ref.put(k, v), map.put(k, v));
+            }
+            assertEquals(ref.size(), map.size());
+        }
+        for (Map.Entry<Long, Integer> e : ref.entrySet()) assertEquals(e.getValue(), map.get(e.getKey()));
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(ref.keySet().stream().mapToLong(Long::longValue).sorted().toArray(), keys);
+    }
+
+    // Chaves de chunks distintas cuja posição ideal numa tabela de 16 slots é slot
+    private static long[] keysWithSlot(int slot, int n) {
+        List<Long> out = new ArrayList<>();
+        for (int cx = 0; out.size() < n; cx++) {
+            for (int cz = 0; cz < 64 && out.size() < n; cz++) {
+                long k = ChunkMap.key(cx, cz);
+                if (ChunkMap.slot(k, MASK) == slot) out.add(k);
+            }
+        }
+        return out.stream().mapToLong(Long::longValue).toArray();
+    }
+}
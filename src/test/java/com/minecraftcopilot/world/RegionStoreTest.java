@@ -0,0 +1,219 @@
+package com.minecraftcopilot.world;
+
+import com.minecraftcopilot.BlockType;
+import com.minecraftcopilot.Chunk;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionStoreTest {
+
+    private static final int SEED = 1337;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void missingChunkLoadsAsNull() throws IOException {
+        try (RegionStore store = new RegionStore(dir, RegionStore.Mode.FULL, SEED)) {
+            assertNull(store.load(0, 0));
+            assertFalse(store.contains(0, 0));
+            store.save(0, 0, edited(0, 0, 1));
+            assertNull(store.load(1, 0));
+            assertFalse(store.contains(1, 0));
+        }
+    }
+
+    @Test
+    void fullRecordRoundTripsAcrossReopen() throws IOException {
+        int[][] coords = {{0, 0}, {31, 31}, {-1, -1}, {-33, 40}, {5, -70}};
+        try (RegionStore store = new RegionStore(dir, RegionStore.Mode.FULL, SEED)) {
+            for (int[] c : coords) assertTrue(store.save(c[0], c[1], edited(c[0], c[1], c[0] * 31 + c[1])) > 0);
+            for (int[] c : coords) assertSameBlocks(edited(c[0], c[1], c[0] * 31 + c[1]), store.load(c[0], c[1]));
+        }
+        try (RegionStore store = new RegionStore(dir, RegionStore.Mode.FULL, SEED)) {
+            for (int[] c : coords) {
+                assertTrue(store.contains(c[0], c[1]));
+                Chunk loaded = store.load(c[0], c[1]);
+                assertSameBlocks(edited(c[0], c[1], c[0] * 31 + c[1]), loaded);
+                assertFalse(loaded.isModified());
+            }
+        }
+    }
+
+    @Test
+    void overwriteReplacesRecordAndReusesSectors() throws IOException {
+        try (RegionStore store = new RegionStore(dir, RegionStore.Mode.FULL, SEED)) {
+            for (int round = 0; round < 50; round++) {
+                store.save(3, 4, round % 2 == 0 ? noisy(3, 4, round) : edited(3, 4, round));
+                store.save(4, 4, edited(4, 4, round));
+            }
+            assertSameBlocks(edited(3, 4, 49), store.load(3, 4));
+            assertSameBlocks(edited(4, 4, 49), store.load(4, 4));
+        }
+        // Os setores dos registros substituídos são reaproveitados: o arquivo não cresce a cada regravação
+        long size = Files.size(dir.resolve("r.0.0.bin"));
+        assertTrue(size < 8192 + 4 * noisyRecordBytes(), "arquivo de região com " + size + " bytes");
+        try (RegionStore store = new RegionStore(dir, RegionStore.Mode.FULL, SEED)) {
+            assertSameBlocks(edited(3, 4, 49), store.load(3, 4));
+        }
+    }
+
+    @Test
+    void saveAllWritesEveryChunkInEveryRegion() throws IOException {
+        ChunkMap<Chunk> chunks = new ChunkMap<>();
+        for (int cx = -3; cx < 3; cx++) {
+            for (int cz = 30; cz < 34; cz++) chunks.put(ChunkMap.key(cx, cz), edited(cx, cz, cx ^ cz));
+        }
+        try (RegionStore store = new RegionStore(dir, RegionStore.Mode.FULL, SEED)) {
+            store.save(0, 31, noisy(0, 31, 1)); // regravado pelo lote
+            assertTrue(store.saveAll(chunks) > 0);
+            assertSameBlocks(edited(0, 31, 31), store.load(0, 31));
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(4, files.filter(p -> p.getFileName().toString().startsWith("r.")).count());
+        }
+        try (RegionStore store = new RegionStore(dir, RegionStore.Mode.FULL, SEED)) {
+            for (long k : chunks.keys()) {
+                int cx = ChunkMap.keyX(k), cz = ChunkMap.keyZ(k);
+                assertSameBlocks(chunks.get(k), store.load(cx, cz));
+            }
+            assertNull(store.load(3, 30));
+        }
+    }
+
+    @Test
+    void storeIsUnusableAfterClose() throws IOException {
+        RegionStore store = new RegionStore(dir, RegionStore.Mode.FULL, SEED);
+        store.save(0, 0, edited(0, 0, 1));
+        store.close();
+        assertThrows(IOException.class, () -> store.load(0, 0));
+        assertThrows(IOException.class, () -> store.save(0, 0, edited(0, 0, 1)));
+    }
+
+    @Test
+    void tableEntryPastEndOfFileIsIgnored() throws IOException {
+        try (RegionStore store = new RegionStore(dir, RegionStore.Mode.FULL, SEED)) {
+            store.save(0, 0, edited(0, 0, 1));
+            store.save(1, 0, edited(1, 0, 2));
+        }
+        // Corta o último registro ao meio: a entrada dele aponta para fora do arquivo e o chunk some
+        Path file = dir.resolve("r.0.0.bin");
+        byte[] data = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(data, data.length - 10));
+        try (RegionStore store = new RegionStore(dir, RegionStore.Mode.FULL, SEED)) {
+            assertSameBlocks(edited(0, 0, 1), store.load(0, 0));
+            assertNull(store.load(1, 0));
+        }
+    }
+
+    @Test
+    void deltaRecordRoundTripsAndReadsInFullMode() throws IOException {
+        Chunk chunk = WorldGenerator.generate(-2, 3, SEED);
+        chunk.set(4, 100, 4, BlockType.WOOD);
+        chunk.set(5, 1, 5, BlockType.AIR);
+        int deltaBytes;
+        try (RegionStore store = new RegionStore(dir, RegionStore.Mode.DELTA, SEED)) {
+            deltaBytes = store.save(-2, 3, chunk);
+            assertSameBlocks(chunk, store.load(-2, 3));
+        }
+        assertTrue(deltaBytes < ChunkCodec.encode(chunk).length);
+        // Trocar de modo não perde o que já foi gravado
+        try (RegionStore store = new RegionStore(dir, RegionStore.Mode.FULL, SEED)) {
+            assertSameBlocks(chunk, store.load(-2, 3));
+        }
+    }
+
+    @Test
+    void deltaFallsBackToFullRecordWhenSmaller() throws IOException {
+        Chunk chunk = noisy(1, 1, 9);
+        try (RegionStore store = new RegionStore(dir, RegionStore.Mode.DELTA, SEED)) {
+            assertEquals(ChunkCodec.encode(chunk).length, store.save(1, 1, chunk));
+            assertSameBlocks(chunk, store.load(1, 1));
+        }
+    }
+
+    @Test
+    void deltaFromOtherGeneratorVersionIsRefusedAndKept() throws IOException {
+        Chunk chunk = WorldGenerator.generate(0, 0, SEED);
+        chunk.set(7, 90, 7, BlockType.STONE);
+        try (RegionStore store = new RegionStore(dir, RegionStore.Mode.DELTA, SEED)) {
+            store.save(0, 0, chunk);
+        }
+        // Troca a versão gravada no cabeçalho do delta (bytes 1-4 do registro do slot 0)
+        Path file = dir.resolve("r.0.0.bin");
+        byte[] data = Files.readAllBytes(file);
+        int start = ByteBuffer.wrap(data).getInt(0);
+        assertEquals(2, data[start * 256]);
+        data[start * 256 + 4] ^= 0x40;
+        Files.write(file, data);
+
+        try (RegionStore store = new RegionStore(dir, RegionStore.Mode.DELTA, SEED)) {
+            IOException e = assertThrows(IOException.class, () -> store.load(0, 0));
+            assertTrue(e.getMessage().contains("0,0"), e.getMessage());
+            assertTrue(store.contains(0, 0));
+        }
+        // O registro recusado fica intacto no disco
+        assertArrayEquals(data, Files.readAllBytes(file));
+    }
+
+    // Chunk com umas poucas edições que dependem de salt (blocos e meta)
+    static Chunk edited(int cx, int cz, int salt) {
+        Chunk c = new Chunk(cx, cz);
+        c.generateFlat(10);
+        int s = Math.floorMod(salt, 200);
+        c.set(s % 16, 20 + s % 50, (s / 16) % 16, BlockType.STONE);
+        c.set(1, 9, 1, BlockType.WATER);
+        c.setMeta(1, 9, 1, 1 + s % 7);
+        c.set(15, 255, 15, BlockType.WOOD);
+        return c;
+    }
+
+    // Chunk que comprime mal (vários setores por registro)
+    private static Chunk noisy(int cx, int cz, int salt) {
+        Chunk c = new Chunk(cx, cz);
+        Random rnd = new Random(salt);
+        BlockType[] types = {BlockType.STONE, BlockType.DIRT, BlockType.GRASS, BlockType.WOOD, BlockType.LEAVES};
+        for (int y = 0; y < 32; y++) {
+            for (int z = 0; z < Chunk.SIZE; z++) {
+                for (int x = 0; x < Chunk.SIZE; x++) c.set(x, y, z, types[rnd.nextInt(types.length)]);
+            }
+        }
+        return c;
+    }
+
+    private static int noisyRecordBytes() throws IOException {
+        return ChunkCodec.encode(noisy(0, 0, 0)).length;
+    }
+
+    static void assertSameBlocks(Chunk expected, Chunk actual) {
+        assertNotNull(actual);
+        for (int y = 0; y < Chunk.HEIGHT; y++) {
+            for (int z = 0; z < Chunk.SIZE; z++) {
+                for (int x = 0; x < Chunk.SIZE; x++) {
+                    if (expected.getId(x, y, z) != actual.getId(x, y, z)
+                            || expected.getMeta(x, y, z) != actual.getMeta(x, y, z)) {
+                        throw new AssertionError("bloco diferente em " + x + "," + y + "," + z + ": "
+                                + expected.getId(x, y, z) + "/" + expected.getMeta(x, y, z) + " != "
+                                + actual.getId(x, y, z) + "/" + actual.getMeta(x, y, z));
+                    }
+                }
+            }
+        }
+    }
+}